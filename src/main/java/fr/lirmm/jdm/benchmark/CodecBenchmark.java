@@ -0,0 +1,138 @@
+package fr.lirmm.jdm.benchmark;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import fr.lirmm.jdm.client.ModelCodec;
+import fr.lirmm.jdm.client.model.PublicNode;
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * Benchmark comparing the binary ModelCodec with Jackson JSON for cached responses.
+ *
+ * Compares, on a synthetic RelationsResponse of typical size:
+ * 1. Encoded size (bytes)
+ * 2. Encode throughput (ops/sec)
+ * 3. Decode throughput (ops/sec)
+ */
+public class CodecBenchmark {
+
+    private static final int NODES = 50;
+    private static final int RELATIONS = 500;
+    private static final int WARMUP_OPS = 5_000;
+    private static final int MEASURED_OPS = 10_000;
+    private static final int ITERATIONS = 3;
+
+    private final ModelCodec codec = new ModelCodec();
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    // Prevents the JIT from eliminating benchmarked work
+    private long sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🚀 Codec Benchmark: ModelCodec vs Jackson\n");
+        System.out.println("=".repeat(80));
+        System.out.println();
+
+        CodecBenchmark benchmark = new CodecBenchmark();
+        RelationsResponse response = createResponse(new Random(42));
+
+        byte[] json = benchmark.mapper.writeValueAsBytes(response);
+        int binarySize = benchmark.codec.encodedSize(response);
+        System.out.printf("Payload: %d nodes, %d relations%n", NODES, RELATIONS);
+        System.out.printf("  JSON size:   %,8d bytes%n", json.length);
+        System.out.printf("  Binary size: %,8d bytes (%.1f%% of JSON)%n%n",
+            binarySize, 100.0 * binarySize / json.length);
+
+        System.out.println("⏳ Warming up JVM...");
+        benchmark.run(response, WARMUP_OPS);
+        System.out.println("✅ Warmup complete\n");
+
+        for (int i = 1; i <= ITERATIONS; i++) {
+            System.out.println("Iteration " + i + ":");
+            benchmark.run(response, MEASURED_OPS);
+        }
+        System.out.println("\n(sink=" + benchmark.sink + ")");
+    }
+
+    private void run(RelationsResponse response, int ops) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(response));
+        byte[] json = mapper.writeValueAsBytes(response);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            buffer.clear();
+            codec.encode(response, buffer);
+            sink += buffer.position();
+        }
+        long binaryEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            sink += mapper.writeValueAsBytes(response).length;
+        }
+        long jsonEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            buffer.rewind();
+            sink += ((RelationsResponse) codec.decode(buffer)).getRelations().size();
+        }
+        long binaryDecode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            sink += mapper.readValue(json, RelationsResponse.class).getRelations().size();
+        }
+        long jsonDecode = System.nanoTime() - start;
+
+        printRow("Encode", ops, binaryEncode, jsonEncode);
+        printRow("Decode", ops, binaryDecode, jsonDecode);
+    }
+
+    private static void printRow(String label, int ops, long binaryNanos, long jsonNanos) {
+        double binaryOps = ops * 1e9 / binaryNanos;
+        double jsonOps = ops * 1e9 / jsonNanos;
+        System.out.printf("  %s: binary %,12.0f ops/sec | jackson %,12.0f ops/sec | %.1fx%n",
+            label, binaryOps, jsonOps, binaryOps / jsonOps);
+    }
+
+    private static RelationsResponse createResponse(Random random) {
+        List<PublicNode> nodes = new ArrayList<>(NODES);
+        for (int i = 0; i < NODES; i++) {
+            PublicNode node = new PublicNode();
+            node.setId(100_000 + random.nextInt(5_000_000));
+            node.setName("terme_" + i);
+            node.setType(1);
+            node.setWeight(random.nextInt(500));
+            node.setCreationDate(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(4000)));
+            node.setTouchDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(random.nextInt(1 << 24)));
+            nodes.add(node);
+        }
+
+        List<PublicRelation> relations = new ArrayList<>(RELATIONS);
+        for (int i = 0; i < RELATIONS; i++) {
+            PublicRelation relation = new PublicRelation();
+            relation.setId(1_000_000 + i);
+            relation.setNode1(nodes.get(0).getId());
+            relation.setNode2(nodes.get(random.nextInt(NODES)).getId());
+            relation.setType(random.nextInt(30));
+            relation.setWeight((double) random.nextInt(200) - 20);
+            relation.setNormalizedWeight(random.nextDouble());
+            relations.add(relation);
+        }
+
+        RelationsResponse response = new RelationsResponse();
+        response.setNodes(nodes);
+        response.setRelations(relations);
+        return response;
+    }
+}
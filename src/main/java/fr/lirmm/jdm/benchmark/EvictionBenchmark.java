@@ -0,0 +1,220 @@
+package fr.lirmm.jdm.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import fr.lirmm.jdm.cache.Cache;
+import fr.lirmm.jdm.cache.CacheConfig;
+import fr.lirmm.jdm.cache.CacheFactory;
+import fr.lirmm.jdm.cache.CostAwareCache;
+
+/**
+ * Benchmark comparing eviction strategies on the same key traces.
+ *
+ * Compares, for each strategy selectable through CacheConfig.EvictionStrategy, and for ARC
+ * sharded as JdmClient uses it:
+ * 1. Hit rate on a Zipf-distributed trace (popular node lookups)
+ * 2. Hit rate on the same trace interleaved with one-off scans (graph crawls)
+ * 3. Upstream time spent on misses when some keys are much slower to fetch (hub relations)
+ * 4. Throughput of concurrent readers on a warm cache (ops/sec)
+ *
+ * On a miss, each trace puts the key, as JdmClient does after fetching, along with its load time
+ * and size for cost-aware caches.
+ */
+public class EvictionBenchmark {
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final int KEY_SPACE = 200_000;
+    private static final double ZIPF_EXPONENT = 0.99;
+    private static final int TRACE_LENGTH = 2_000_000;
+    private static final int SCAN_EVERY = 50_000;
+    private static final int SCAN_LENGTH = 20_000;
+    private static final int HUB_EVERY = 20;
+    private static final long HUB_LOAD_NANOS = 200_000_000;
+    private static final int HUB_SIZE = 20;
+    private static final long LOAD_NANOS = 2_000_000;
+    private static final int THREADS = 4;
+    private static final int READS_PER_THREAD = 1_000_000;
+    private static final int ITERATIONS = 3;
+
+    private static final List<Variant> VARIANTS = List.of(
+        new Variant("LRU", () -> CacheFactory.create(config(CacheConfig.EvictionStrategy.LRU))),
+        new Variant("CLOCK", () -> CacheFactory.create(config(CacheConfig.EvictionStrategy.CLOCK))),
+        new Variant("CLOCK_PRO",
+            () -> CacheFactory.create(config(CacheConfig.EvictionStrategy.CLOCK_PRO))),
+        new Variant("ARC", () -> CacheFactory.create(config(CacheConfig.EvictionStrategy.ARC))),
+        new Variant("ARC x16",
+            () -> CacheFactory.createSharded(config(CacheConfig.EvictionStrategy.ARC), 16)),
+        new Variant("GDSF", () -> CacheFactory.create(config(CacheConfig.EvictionStrategy.GDSF))));
+
+    // Prevents the JIT from eliminating benchmarked work
+    private long sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🚀 Eviction Benchmark: " + VARIANTS + "\n");
+        System.out.println("=".repeat(80));
+        System.out.println();
+
+        EvictionBenchmark benchmark = new EvictionBenchmark();
+        int[] zipf = zipfTrace(new Random(42));
+        int[] scanned = withScans(zipf);
+        System.out.printf("Cache: %,d entries | keys: %,d | trace: %,d lookups%n%n",
+            CACHE_SIZE, KEY_SPACE, TRACE_LENGTH);
+
+        System.out.println("Hit rate:");
+        for (Variant variant : VARIANTS) {
+            System.out.printf("  %-10s zipf %5.1f%% | zipf + scans %5.1f%%%n", variant,
+                100 * benchmark.hitRate(variant.factory().get(), zipf),
+                100 * benchmark.hitRate(variant.factory().get(), scanned));
+        }
+
+        System.out.printf("%nUpstream time (1 key in %d takes %d ms to fetch, others %d ms):%n",
+            HUB_EVERY, HUB_LOAD_NANOS / 1_000_000, LOAD_NANOS / 1_000_000);
+        for (Variant variant : VARIANTS) {
+            System.out.printf("  %-10s %,10.1f s%n",
+                variant, benchmark.upstreamNanos(variant.factory().get(), zipf) / 1e9);
+        }
+
+        System.out.println("\n⏳ Warming up JVM...");
+        for (Variant variant : VARIANTS) {
+            benchmark.concurrentReads(variant, zipf);
+        }
+        System.out.println("✅ Warmup complete\n");
+
+        for (int i = 1; i <= ITERATIONS; i++) {
+            System.out.println("Iteration " + i + ": " + THREADS + " readers");
+            for (Variant variant : VARIANTS) {
+                System.out.printf("  %-10s %,14.0f ops/sec%n",
+                    variant, benchmark.concurrentReads(variant, zipf));
+            }
+        }
+        System.out.println("\n(sink=" + benchmark.sink + ")");
+    }
+
+    private static CacheConfig config(CacheConfig.EvictionStrategy strategy) {
+        return CacheConfig.builder().maxSize(CACHE_SIZE).evictionStrategy(strategy).build();
+    }
+
+    private double hitRate(Cache<Integer, Integer> cache, int[] trace) {
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        sink += hits;
+        return (double) hits / trace.length;
+    }
+
+    /** Sums the load times of the misses, telling cost-aware caches what each load cost. */
+    private long upstreamNanos(Cache<Integer, Integer> cache, int[] trace) {
+        long total = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                continue;
+            }
+            boolean hub = key % HUB_EVERY == 0;
+            long loadNanos = hub ? HUB_LOAD_NANOS : LOAD_NANOS;
+            total += loadNanos;
+            if (cache instanceof CostAwareCache<Integer, Integer> costAware) {
+                costAware.put(key, key, loadNanos, hub ? HUB_SIZE : 1);
+            } else {
+                cache.put(key, key);
+            }
+        }
+        sink += total;
+        return total;
+    }
+
+    /** Replays the trace from several threads at once, each starting at its own offset. */
+    private double concurrentReads(Variant variant, int[] trace) throws Exception {
+        Cache<Integer, Integer> cache = variant.factory().get();
+        hitRate(cache, trace);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Long>> readers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * (trace.length / THREADS);
+                readers.add(() -> replay(cache, trace, offset));
+            }
+            long start = System.nanoTime();
+            for (Future<Long> result : executor.invokeAll(readers)) {
+                sink += result.get();
+            }
+            long nanos = System.nanoTime() - start;
+            return (double) READS_PER_THREAD * THREADS * 1e9 / nanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long replay(Cache<Integer, Integer> cache, int[] trace, int offset) {
+        long hits = 0;
+        for (int i = 0; i < READS_PER_THREAD; i++) {
+            Integer key = trace[(offset + i) % trace.length];
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return hits;
+    }
+
+    /** Draws keys with probability proportional to 1 / rank^ZIPF_EXPONENT. */
+    static int[] zipfTrace(Random random) {
+        double[] cumulative = new double[KEY_SPACE];
+        double total = 0;
+        for (int rank = 0; rank < KEY_SPACE; rank++) {
+            total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+        // Ranks are shuffled over the key space so that popular keys do not cluster
+        int[] keys = new int[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = i;
+        }
+        for (int i = KEY_SPACE - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+
+        int[] trace = new int[TRACE_LENGTH];
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            trace[i] = keys[Math.min(rank < 0 ? -rank - 1 : rank, KEY_SPACE - 1)];
+        }
+        return trace;
+    }
+
+    /** Replaces every SCAN_EVERY-th stretch of the trace with keys outside the Zipf key space. */
+    static int[] withScans(int[] trace) {
+        int[] scanned = trace.clone();
+        int next = KEY_SPACE;
+        for (int start = SCAN_EVERY; start + SCAN_LENGTH <= scanned.length; start += SCAN_EVERY) {
+            for (int i = 0; i < SCAN_LENGTH; i++) {
+                scanned[start + i] = next++;
+            }
+        }
+        return scanned;
+    }
+
+    private record Variant(String name, Supplier<Cache<Integer, Integer>> factory) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
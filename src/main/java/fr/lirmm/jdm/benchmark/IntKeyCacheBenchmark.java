@@ -0,0 +1,178 @@
+package fr.lirmm.jdm.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+import fr.lirmm.jdm.cache.IntKeyCache;
+import fr.lirmm.jdm.cache.LruCache;
+
+/**
+ * Benchmark comparing IntKeyCache with LruCache keyed the way JdmClient keys node ids.
+ *
+ * Compares, on caches holding the same node ids:
+ * 1. Retained heap per entry (bytes)
+ * 2. Lookup latency, single-threaded (ns/op)
+ * 3. Lookup throughput with concurrent readers and a writer (ops/sec)
+ */
+public class IntKeyCacheBenchmark {
+
+    private static final int ENTRIES = 100_000;
+    private static final int LOOKUPS = 2_000_000;
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 3;
+    private static final String KEY_PREFIX = "node:id:";
+
+    private final Object value = new Object();
+    private final int[] ids;
+
+    // Prevents the JIT from eliminating benchmarked work
+    private long sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🚀 Int Key Cache Benchmark: IntKeyCache vs LruCache<String, Object>\n");
+        System.out.println("=".repeat(80));
+        System.out.println();
+
+        IntKeyCacheBenchmark benchmark = new IntKeyCacheBenchmark(new Random(42));
+
+        System.out.printf("Entries: %,d node ids%n", ENTRIES);
+        long lruBytes = benchmark.retainedBytes(benchmark::newLruCache);
+        long intBytes = benchmark.retainedBytes(benchmark::newIntKeyCache);
+        System.out.printf("  LruCache:    %6.1f bytes/entry%n", (double) lruBytes / ENTRIES);
+        System.out.printf("  IntKeyCache: %6.1f bytes/entry (%.1fx less)%n%n",
+            (double) intBytes / ENTRIES, (double) lruBytes / intBytes);
+
+        LruCache<String, Object> lru = benchmark.newLruCache();
+        IntKeyCache<Object> intKeys = benchmark.newIntKeyCache();
+
+        System.out.println("⏳ Warming up JVM...");
+        benchmark.run(lru, intKeys, LOOKUPS / 4);
+        System.out.println("✅ Warmup complete\n");
+
+        for (int i = 1; i <= ITERATIONS; i++) {
+            System.out.println("Iteration " + i + ":");
+            benchmark.run(lru, intKeys, LOOKUPS);
+        }
+        System.out.println("\n(sink=" + benchmark.sink + ")");
+    }
+
+    private IntKeyCacheBenchmark(Random random) {
+        ids = new int[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            ids[i] = 100_000 + random.nextInt(5_000_000);
+        }
+    }
+
+    private void run(LruCache<String, Object> lru, IntKeyCache<Object> intKeys, int lookups)
+            throws Exception {
+        long start = System.nanoTime();
+        sink += lookupLru(lru, lookups, i -> i);
+        long lruNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sink += lookupInt(intKeys, lookups, i -> i);
+        long intNanos = System.nanoTime() - start;
+
+        System.out.printf("  Single thread: lru %6.1f ns/op | int %6.1f ns/op | %.1fx%n",
+            (double) lruNanos / lookups, (double) intNanos / lookups, (double) lruNanos / intNanos);
+
+        double lruOps = concurrentOps(lookups, seed -> lookupLru(lru, lookups, i -> i * 31 + seed),
+            () -> lru.put(KEY_PREFIX + ids[0], value));
+        double intOps = concurrentOps(lookups, seed -> lookupInt(intKeys, lookups, i -> i * 31 + seed),
+            () -> intKeys.put(ids[0], value));
+        System.out.printf("  %d readers + writer: lru %,12.0f ops/sec | int %,12.0f ops/sec | %.1fx%n",
+            THREADS, lruOps, intOps, intOps / lruOps);
+    }
+
+    private long lookupLru(LruCache<String, Object> cache, int lookups, IntUnaryOperator index) {
+        long found = 0;
+        for (int i = 0; i < lookups; i++) {
+            // Builds the key per lookup, as JdmClient does
+            if (cache.get(KEY_PREFIX + ids[Math.floorMod(index.applyAsInt(i), ENTRIES)]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private long lookupInt(IntKeyCache<Object> cache, int lookups, IntUnaryOperator index) {
+        long found = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (cache.get(ids[Math.floorMod(index.applyAsInt(i), ENTRIES)]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Runs THREADS readers until done while one writer keeps overwriting an entry. */
+    private double concurrentOps(int lookups, ReaderTask reader, Runnable write) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Callable<Long>> readers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int seed = t * 7_919;
+                readers.add(() -> reader.run(seed));
+            }
+            Future<?> writer = executor.submit(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    write.run();
+                }
+            });
+            long start = System.nanoTime();
+            for (Future<Long> result : executor.invokeAll(readers)) {
+                sink += result.get();
+            }
+            long nanos = System.nanoTime() - start;
+            writer.cancel(true);
+            return (double) lookups * THREADS * 1e9 / nanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LruCache<String, Object> newLruCache() {
+        LruCache<String, Object> cache = new LruCache<>(ENTRIES);
+        for (int id : ids) {
+            cache.put(KEY_PREFIX + id, value);
+        }
+        return cache;
+    }
+
+    private IntKeyCache<Object> newIntKeyCache() {
+        IntKeyCache<Object> cache = new IntKeyCache<>(ENTRIES);
+        for (int id : ids) {
+            cache.put(id, value);
+        }
+        return cache;
+    }
+
+    /** Measures the heap retained by a cache, all entries sharing one value. */
+    private long retainedBytes(Callable<Object> factory) throws Exception {
+        long before = usedHeap();
+        Object cache = factory.call();
+        long after = usedHeap();
+        sink += cache.hashCode();
+        return after - before;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface ReaderTask {
+        long run(int seed);
+    }
+}
@@ -0,0 +1,541 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache that picks its own layout from the workload it observes.
+ *
+ * <p>{@link CacheFactory#createOptimized} chooses a layout once, from an expected thread count and
+ * read ratio. This cache measures them instead, together with lock contention and hit rate, over
+ * windows of about {@value #DEFAULT_WINDOW} operations, and moves between three layouts:
+ * <ul>
+ *   <li>{@link Layout#BASELINE}: a single {@link LruCache}, for few threads and no contention
+ *   <li>{@link Layout#SHARDED}: a {@link ShardedCache} with a shared capacity budget
+ *   <li>{@link Layout#L1_L2}: a {@link StripedL1Cache} in front of the sharded layout, for
+ *       read-heavy concurrent workloads
+ * </ul>
+ *
+ * <p>The selection follows the same thresholds as {@code createOptimized}, using the number of
+ * distinct threads seen in a window, and a layout must be chosen for two windows in a row before
+ * the cache moves. Moving never drops entries: the new layout takes all writes at once, while the
+ * existing entries are copied over one key stripe at a time by the operations that come next,
+ * each stripe under its own lock. Until its stripe is copied, a key missing from the new layout
+ * is still read from the old one.
+ *
+ * <p>Telemetry costs a {@link LongAdder} increment per operation and, for one operation in
+ * {@value #SAMPLE_RATE}, recording the calling thread.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class AdaptiveCache<K, V> implements Cache<K, V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdaptiveCache.class);
+
+  /** Default number of operations per telemetry window */
+  static final int DEFAULT_WINDOW = 16_384;
+
+  /** One operation in SAMPLE_RATE records its thread and may close the window */
+  private static final int SAMPLE_RATE = 64;
+
+  /** Number of key stripes moved independently when changing layout; a power of two */
+  private static final int MIGRATION_STRIPES = 64;
+
+  /** Windows in a row that must agree before changing layout */
+  private static final int STABLE_WINDOWS = 2;
+
+  /** Thread counts below this use the baseline layout, as in createOptimized */
+  private static final int CONCURRENT_THREADS = 10;
+
+  /** Read ratio above which concurrent workloads use an L1 layer, as in createOptimized */
+  private static final double READ_HEAVY_RATIO = 0.90;
+
+  /** Share of contended writes above which the baseline layout is left whatever the threads */
+  private static final double CONTENDED_RATIO = 0.05;
+
+  /** The layouts this cache moves between. */
+  public enum Layout {
+    BASELINE,
+    SHARDED,
+    L1_L2
+  }
+
+  /**
+   * Telemetry of the last completed window.
+   *
+   * @param layout the layout in use
+   * @param threads distinct threads seen among sampled operations
+   * @param readRatio reads over all operations
+   * @param contention share of writes that waited for a shard lock
+   * @param hitRate hits over reads
+   */
+  public record Telemetry(
+      Layout layout, int threads, double readRatio, double contention, double hitRate) {}
+
+  private final CacheConfig config;
+  private final int windowSamples;
+  private volatile State<K, V> state;
+  private volatile Telemetry telemetry;
+
+  // Telemetry
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final AtomicLong samples = new AtomicLong(0);
+  private final Set<Long> sampledThreads = ConcurrentHashMap.newKeySet();
+  private final AtomicLong retiredEvictions = new AtomicLong(0);
+  private final AtomicLong layoutChanges = new AtomicLong(0);
+
+  // Guarded by maintenanceLock
+  private final ReentrantLock maintenanceLock = new ReentrantLock();
+  private long windowReads;
+  private long windowWrites;
+  private long windowHits;
+  private long windowContention;
+  private Layout candidate;
+  private int candidateWindows;
+
+  /**
+   * Creates an adaptive cache starting with the sharded layout.
+   *
+   * @param config the cache configuration; the eviction strategy must be LRU
+   * @throws IllegalArgumentException if config is null or not LRU
+   */
+  public AdaptiveCache(CacheConfig config) {
+    this(config, Layout.SHARDED, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Creates an adaptive cache.
+   *
+   * @param config the cache configuration; the eviction strategy must be LRU
+   * @param initialLayout the layout to start with
+   * @param window the number of operations per telemetry window
+   * @throws IllegalArgumentException if config is null or not LRU, or window is less than
+   *     {@value #SAMPLE_RATE}
+   */
+  AdaptiveCache(CacheConfig config, Layout initialLayout, int window) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration must not be null");
+    }
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.LRU) {
+      throw new IllegalArgumentException("AdaptiveCache requires the LRU eviction strategy");
+    }
+    if (window < SAMPLE_RATE) {
+      throw new IllegalArgumentException("Window must be at least " + SAMPLE_RATE);
+    }
+    this.config = config;
+    this.windowSamples = window / SAMPLE_RATE;
+    this.state = new State<>(initialLayout, build(initialLayout));
+  }
+
+  @Override
+  public V get(K key) {
+    reads.increment();
+    V value = route(state, spread(key), cache -> cache.get(key), (from, to) -> {
+      V moved = to.get(key);
+      return moved != null ? moved : from.get(key);
+    });
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    sample();
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return route(state, spread(key), cache -> cache.containsKey(key),
+        (from, to) -> to.containsKey(key) || from.containsKey(key));
+  }
+
+  @Override
+  public void put(K key, V value) {
+    writes.increment();
+    route(state, spread(key), cache -> {
+      cache.put(key, value);
+      return null;
+    }, (from, to) -> {
+      to.put(key, value);
+      return null;
+    });
+    sample();
+  }
+
+  @Override
+  public void invalidate(K key) {
+    writes.increment();
+    route(state, spread(key), cache -> {
+      cache.invalidate(key);
+      return null;
+    }, (from, to) -> {
+      to.invalidate(key);
+      from.invalidate(key);
+      return null;
+    });
+    sample();
+  }
+
+  @Override
+  public void clear() {
+    maintenanceLock.lock();
+    try {
+      awaitMigration().cache.clear();
+      retiredEvictions.set(0);
+    } finally {
+      maintenanceLock.unlock();
+    }
+    hits.reset();
+    misses.reset();
+  }
+
+  @Override
+  public int size() {
+    State<K, V> s = state;
+    Migration<K, V> m = s.migration;
+    long size = s.cache.size() + (m != null ? m.target.cache.size() : 0);
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public CacheStats getStats() {
+    State<K, V> s = state;
+    Migration<K, V> m = s.migration;
+    CacheStats current = s.cache.getStats();
+    long evictions = retiredEvictions.get() + current.getEvictionCount();
+    long size = current.getSize();
+    if (m != null) {
+      CacheStats target = m.target.cache.getStats();
+      evictions += target.getEvictionCount();
+      size += target.getSize();
+    }
+    return new CacheStats(hits.sum(), misses.sum(), evictions, size);
+  }
+
+  /**
+   * Returns the layout in use; while moving, this is still the previous layout.
+   *
+   * @return the current layout
+   */
+  public Layout getLayout() {
+    return state.layout;
+  }
+
+  /**
+   * Returns the number of completed layout changes.
+   *
+   * @return the layout change count
+   */
+  public long getLayoutChangeCount() {
+    return layoutChanges.get();
+  }
+
+  /**
+   * Returns the telemetry of the last completed window, or null before the first one.
+   *
+   * @return the last window's telemetry
+   */
+  public Telemetry getTelemetry() {
+    return telemetry;
+  }
+
+  /**
+   * Moves to a layout and waits until every entry has been copied.
+   *
+   * @param layout the layout to move to
+   */
+  void moveTo(Layout layout) {
+    maintenanceLock.lock();
+    try {
+      State<K, V> s = awaitMigration();
+      if (s.layout != layout) {
+        startMigration(s, layout);
+        awaitMigration();
+      }
+    } finally {
+      maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Applies an operation to the layout holding a key.
+   *
+   * <p>Without a move in progress, the operation runs on the current layout, which is checked
+   * again afterwards: if a move started meanwhile, the operation is applied again through it.
+   * During a move, the operation first copies one pending stripe, then runs under the read lock
+   * of its key's stripe, on both layouts if the stripe has not been copied yet and on the new
+   * layout otherwise.
+   */
+  private <R> R route(
+      State<K, V> s,
+      int h,
+      Function<Cache<K, V>, R> direct,
+      BiFunction<Cache<K, V>, Cache<K, V>, R> moving) {
+    Migration<K, V> m = s.migration;
+    if (m == null) {
+      R result = direct.apply(s.cache);
+      m = s.migration;
+      if (m == null) {
+        return result;
+      }
+    }
+
+    helpMigrate(s, m);
+    int stripe = h & (MIGRATION_STRIPES - 1);
+    ReentrantReadWriteLock.ReadLock lock = m.locks[stripe].readLock();
+    lock.lock();
+    try {
+      if (!m.moved[stripe]) {
+        return moving.apply(s.cache, m.target.cache);
+      }
+    } finally {
+      lock.unlock();
+    }
+    return route(m.target, h, direct, moving);
+  }
+
+  /** Records the calling thread for one operation in SAMPLE_RATE, closing windows as they fill. */
+  private void sample() {
+    if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) {
+      return;
+    }
+    sampledThreads.add(Thread.currentThread().threadId());
+    if (samples.incrementAndGet() % windowSamples == 0 && maintenanceLock.tryLock()) {
+      try {
+        closeWindow();
+      } finally {
+        maintenanceLock.unlock();
+      }
+    }
+  }
+
+  /** Computes the telemetry of the window and starts a move if it calls for one. */
+  private void closeWindow() {
+    State<K, V> s = state;
+    long totalReads = reads.sum();
+    long totalWrites = writes.sum();
+    long totalHits = hits.sum();
+    long totalContention = contendedWrites(s.cache);
+    long windowReadCount = totalReads - windowReads;
+    long windowWriteCount = totalWrites - windowWrites;
+    long operations = windowReadCount + windowWriteCount;
+    int threads = sampledThreads.size();
+    sampledThreads.clear();
+
+    double readRatio = operations == 0 ? 0.0 : (double) windowReadCount / operations;
+    // Contention counters restart with each layout
+    long contended = Math.max(0, totalContention - windowContention);
+    double contention = windowWriteCount == 0 ? 0.0 : (double) contended / windowWriteCount;
+    // Counters are read one after the other, so the ratio can overshoot slightly
+    double hitRate = windowReadCount == 0
+        ? 0.0 : Math.min(1.0, (double) (totalHits - windowHits) / windowReadCount);
+    telemetry = new Telemetry(s.layout, threads, readRatio, contention, hitRate);
+    windowReads = totalReads;
+    windowWrites = totalWrites;
+    windowHits = totalHits;
+    windowContention = totalContention;
+
+    if (s.migration != null) {
+      return;
+    }
+    Layout chosen = choose(s.layout, threads, readRatio, contention);
+    if (chosen == s.layout) {
+      candidate = null;
+      return;
+    }
+    candidateWindows = chosen == candidate ? candidateWindows + 1 : 1;
+    candidate = chosen;
+    if (candidateWindows >= STABLE_WINDOWS) {
+      logger.info("Moving cache from {} to {} ({})", s.layout, chosen, telemetry);
+      candidate = null;
+      startMigration(s, chosen);
+    }
+  }
+
+  private static Layout choose(
+      Layout current, int threads, double readRatio, double contention) {
+    boolean contended = current == Layout.BASELINE && contention > CONTENDED_RATIO;
+    if (threads < CONCURRENT_THREADS && !contended) {
+      return Layout.BASELINE;
+    }
+    return readRatio > READ_HEAVY_RATIO ? Layout.L1_L2 : Layout.SHARDED;
+  }
+
+  /**
+   * Publishes a move to a new layout, then snapshots the keys to copy.
+   *
+   * <p>The snapshot is taken after publishing, so any write the snapshot misses is applied
+   * again through the move. Must be called with the maintenance lock held.
+   */
+  private void startMigration(State<K, V> s, Layout layout) {
+    Migration<K, V> m = new Migration<>(new State<>(layout, build(layout)));
+    s.migration = m;
+    List<List<K>> groups = new ArrayList<>(MIGRATION_STRIPES);
+    for (int i = 0; i < MIGRATION_STRIPES; i++) {
+      groups.add(new ArrayList<>());
+    }
+    // The snapshot is least recently used first, which each group preserves
+    for (K key : snapshot(s.cache).keySet()) {
+      groups.get(spread(key) & (MIGRATION_STRIPES - 1)).add(key);
+    }
+    m.groups = groups;
+    helpMigrate(s, m);
+  }
+
+  /**
+   * Completes any move in progress; must be called with the maintenance lock held.
+   *
+   * @return the current state, without a move in progress
+   */
+  private State<K, V> awaitMigration() {
+    State<K, V> s = state;
+    while (s.migration != null) {
+      Migration<K, V> m = s.migration;
+      while (m.completed.get() < MIGRATION_STRIPES) {
+        if (!helpMigrate(s, m)) {
+          Thread.onSpinWait(); // Another thread is copying the last stripes
+        }
+      }
+      s = state;
+    }
+    return s;
+  }
+
+  /**
+   * Copies the next pending stripe of a move, if any.
+   *
+   * <p>A key already present in the new layout was written after the move started and is newer
+   * than the old copy, so it is left alone.
+   *
+   * @return whether a stripe was copied
+   */
+  private boolean helpMigrate(State<K, V> s, Migration<K, V> m) {
+    List<List<K>> groups = m.groups;
+    if (groups == null || m.cursor.get() >= MIGRATION_STRIPES) {
+      return false;
+    }
+    int stripe = m.cursor.getAndIncrement();
+    if (stripe >= MIGRATION_STRIPES) {
+      return false;
+    }
+
+    ReentrantReadWriteLock.WriteLock lock = m.locks[stripe].writeLock();
+    lock.lock();
+    try {
+      Cache<K, V> from = s.cache;
+      Cache<K, V> to = m.target.cache;
+      List<K> keys = groups.get(stripe);
+      for (K key : keys) {
+        if (!to.containsKey(key)) {
+          V value = from.get(key);
+          if (value != null) {
+            to.put(key, value);
+          }
+        }
+      }
+      from.invalidateAll(keys);
+      m.moved[stripe] = true;
+    } finally {
+      lock.unlock();
+    }
+
+    if (m.completed.incrementAndGet() == MIGRATION_STRIPES) {
+      retiredEvictions.addAndGet(s.cache.getStats().getEvictionCount());
+      state = m.target;
+      layoutChanges.incrementAndGet();
+    }
+    return true;
+  }
+
+  private Cache<K, V> build(Layout layout) {
+    return switch (layout) {
+      case BASELINE -> new LruCache<>(config.getMaxSize());
+      case SHARDED -> newSharded();
+      case L1_L2 -> new StripedL1Cache<>(newSharded(), Math.max(1, config.getMaxSize() / 8));
+    };
+  }
+
+  private ShardedCache<K, V> newSharded() {
+    return new ShardedCache<>(config, Runtime.getRuntime().availableProcessors() * 4, true);
+  }
+
+  private static <K, V> Map<K, V> snapshot(Cache<K, V> cache) {
+    if (cache instanceof StripedL1Cache<K, V> layered) {
+      cache = layered.getBackingCache();
+    }
+    if (cache instanceof ShardedCache<K, V> sharded) {
+      return sharded.snapshot();
+    }
+    return ((LruCache<K, V>) cache).snapshot();
+  }
+
+  private static <K, V> long contendedWrites(Cache<K, V> cache) {
+    if (cache instanceof StripedL1Cache<K, V> layered) {
+      cache = layered.getBackingCache();
+    }
+    if (cache instanceof ShardedCache<K, V> sharded) {
+      return sharded.getContendedWriteCount();
+    }
+    return ((LruCache<K, V>) cache).getContendedWriteCount();
+  }
+
+  private static int spread(Object key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    return h;
+  }
+
+  /** A layout and, while moving away from it, the move in progress. */
+  private static final class State<K, V> {
+    private final Layout layout;
+    private final Cache<K, V> cache;
+    private volatile Migration<K, V> migration;
+
+    State(Layout layout, Cache<K, V> cache) {
+      this.layout = layout;
+      this.cache = cache;
+    }
+  }
+
+  /**
+   * A move in progress to a new layout.
+   *
+   * <p>Operations hold a stripe's read lock while using both layouts, and a stripe is copied
+   * under its write lock, so no write can be overwritten by an older copied value.
+   */
+  private static final class Migration<K, V> {
+    private final State<K, V> target;
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[MIGRATION_STRIPES];
+    private final boolean[] moved = new boolean[MIGRATION_STRIPES]; // Guarded by locks
+    private final AtomicInteger cursor = new AtomicInteger(0);
+    private final AtomicInteger completed = new AtomicInteger(0);
+    private volatile List<List<K>> groups;
+
+    Migration(State<K, V> target) {
+      this.target = target;
+      for (int i = 0; i < MIGRATION_STRIPES; i++) {
+        locks[i] = new ReentrantReadWriteLock();
+      }
+    }
+  }
+}
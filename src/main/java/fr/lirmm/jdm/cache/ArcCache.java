@@ -0,0 +1,277 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache using the Adaptive Replacement Cache (ARC) policy.
+ *
+ * <p>Entries seen once live in a recency list (T1) and entries seen again in a frequency list
+ * (T2). Each list is followed by a ghost list (B1, B2) holding only the keys recently evicted from
+ * it. Writing a key found in a ghost list shows that its list was given too little room, so the
+ * target size of T1 moves towards it: recency-driven phases grow T1, and phases that re-read the
+ * same keys grow T2. Keys read only once, such as scans, stay in T1 and never displace T2.
+ *
+ * <p>Every operation, reads included, updates the lists under a single lock. For concurrent use,
+ * shard it with {@link ShardedCache}, which builds ARC shards from
+ * {@link CacheConfig.EvictionStrategy#ARC}, at the cost of adapting each shard separately.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ArcCache<K, V> implements Cache<K, V>, Resizable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ArcCache.class);
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Guarded by lock; each list is least recently used first
+  private final Map<K, V> recent = new LinkedHashMap<>();
+  private final Map<K, V> frequent = new LinkedHashMap<>();
+  private final Set<K> recentGhosts = new LinkedHashSet<>();
+  private final Set<K> frequentGhosts = new LinkedHashSet<>();
+  private int maxSize;
+  private int recentTarget;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates a new ARC cache with the specified maximum size.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public ArcCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.maxSize = maxSize;
+    logger.info("Created ARC cache with maxSize={}", maxSize);
+  }
+
+  /**
+   * Creates a new ARC cache with the specified configuration.
+   *
+   * @param config the cache configuration
+   * @throws IllegalArgumentException if config is null
+   */
+  public ArcCache(CacheConfig config) {
+    this(config.getMaxSize());
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.ARC) {
+      logger.warn(
+          "ArcCache created with eviction strategy {}, expected ARC",
+          config.getEvictionStrategy());
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    lock.lock();
+    try {
+      V value = recent.remove(key);
+      if (value == null) {
+        value = frequent.remove(key);
+      }
+      if (value == null) {
+        misses++;
+        return null;
+      }
+      // Seen again: most recently used end of the frequency list
+      frequent.put(key, value);
+      hits++;
+      return value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    lock.lock();
+    try {
+      return recent.containsKey(key) || frequent.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value must not be null");
+    }
+    lock.lock();
+    try {
+      if (recent.containsKey(key)) {
+        recent.put(key, value);
+      } else if (frequent.containsKey(key)) {
+        frequent.put(key, value);
+      } else if (recentGhosts.remove(key)) {
+        // T1 evicted it too early: give recency more room
+        int delta = Math.max(1, frequentGhosts.size() / (recentGhosts.size() + 1));
+        recentTarget = Math.min(maxSize, recentTarget + delta);
+        replace(false);
+        frequent.put(key, value);
+      } else if (frequentGhosts.remove(key)) {
+        // T2 evicted it too early: give frequency more room
+        int delta = Math.max(1, recentGhosts.size() / (frequentGhosts.size() + 1));
+        recentTarget = Math.max(0, recentTarget - delta);
+        replace(true);
+        frequent.put(key, value);
+      } else {
+        admit();
+        recent.put(key, value);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      if (recent.remove(key) == null && frequent.remove(key) == null) {
+        recentGhosts.remove(key);
+        frequentGhosts.remove(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      int size = recent.size() + frequent.size();
+      recent.clear();
+      frequent.clear();
+      recentGhosts.clear();
+      frequentGhosts.clear();
+      recentTarget = 0;
+      hits = 0;
+      misses = 0;
+      evictions = 0;
+      logger.info("Cleared cache ({} entries removed)", size);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return recent.size() + frequent.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    lock.lock();
+    try {
+      return new CacheStats(hits, misses, evictions, recent.size() + frequent.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    lock.lock();
+    try {
+      maxSize = newMaxSize;
+      recentTarget = Math.min(recentTarget, maxSize);
+      while (recent.size() + frequent.size() > maxSize) {
+        replace(false);
+      }
+      while (recent.size() + recentGhosts.size() > maxSize && !recentGhosts.isEmpty()) {
+        removeEldest(recentGhosts);
+      }
+      while (totalSize() > 2 * maxSize && !frequentGhosts.isEmpty()) {
+        removeEldest(frequentGhosts);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the target size of the recency list, which adapts to the workload.
+   *
+   * @return the number of entries ARC currently aims to keep in T1
+   */
+  int getRecentTarget() {
+    lock.lock();
+    try {
+      return recentTarget;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Makes room for a key seen for the first time, trimming the ghost lists as ARC requires. */
+  private void admit() {
+    if (recent.size() + recentGhosts.size() >= maxSize) {
+      if (recent.size() < maxSize) {
+        removeEldest(recentGhosts);
+        replace(false);
+      } else {
+        // T1 alone fills the cache: drop its oldest entry without remembering it
+        removeEldest(recent.keySet());
+        evictions++;
+      }
+    } else if (totalSize() >= maxSize) {
+      if (totalSize() >= 2 * maxSize) {
+        removeEldest(frequentGhosts);
+      }
+      replace(false);
+    }
+  }
+
+  /**
+   * Evicts one entry into its ghost list if the cache is full: from T1 when it exceeds its
+   * target, from T2 otherwise.
+   *
+   * @param frequentGhostHit whether the key being written was found in B2
+   */
+  private void replace(boolean frequentGhostHit) {
+    if (recent.size() + frequent.size() < maxSize) {
+      return;
+    }
+    boolean fromRecent = !recent.isEmpty()
+        && (recent.size() > recentTarget
+            || (frequentGhostHit && recent.size() == recentTarget)
+            || frequent.isEmpty());
+    if (fromRecent) {
+      recentGhosts.add(removeEldest(recent.keySet()));
+    } else {
+      frequentGhosts.add(removeEldest(frequent.keySet()));
+    }
+    evictions++;
+  }
+
+  private int totalSize() {
+    return recent.size() + frequent.size() + recentGhosts.size() + frequentGhosts.size();
+  }
+
+  private static <K> K removeEldest(Set<K> keys) {
+    Iterator<K> eldest = keys.iterator();
+    K key = eldest.next();
+    eldest.remove();
+    return key;
+  }
+}
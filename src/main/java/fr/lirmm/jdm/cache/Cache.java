@@ -1,5 +1,9 @@
 package fr.lirmm.jdm.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * A generic cache interface that provides basic caching operations.
  *
@@ -19,6 +23,19 @@ public interface Cache<K, V> {
    */
   V get(K key);
 
+  /**
+   * Returns whether the cache holds a value for the given key.
+   *
+   * <p>The default implementation calls {@link #get(Object)}, so it counts a hit or a miss and
+   * may affect eviction order. The caches of this package override it to do neither.
+   *
+   * @param key the key to check
+   * @return true if the cache contains the key
+   */
+  default boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
   /**
    * Associates the specified value with the specified key in this cache.
    *
@@ -36,6 +53,50 @@ public interface Cache<K, V> {
    */
   void invalidate(K key);
 
+  /**
+   * Returns the values associated with the given keys.
+   *
+   * <p>Each key counts as a hit or a miss, exactly as with {@link #get(Object)}. Implementations
+   * may override this method to look up all keys under a single lock acquisition.
+   *
+   * @param keys the keys whose associated values are to be returned
+   * @return a map of the keys present in the cache to their values
+   */
+  default Map<K, V> getAll(Collection<? extends K> keys) {
+    Map<K, V> result = new HashMap<>();
+    for (K key : keys) {
+      V value = get(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Copies all of the mappings from the specified map to this cache.
+   *
+   * <p>Implementations may override this method to insert all entries under a single lock
+   * acquisition.
+   *
+   * @param entries the mappings to be stored in this cache
+   */
+  default void putAll(Map<? extends K, ? extends V> entries) {
+    entries.forEach(this::put);
+  }
+
+  /**
+   * Removes the mappings for the given keys from this cache.
+   *
+   * <p>Implementations may override this method to remove all keys under a single lock
+   * acquisition.
+   *
+   * @param keys the keys whose mappings are to be removed
+   */
+  default void invalidateAll(Collection<? extends K> keys) {
+    keys.forEach(this::invalidate);
+  }
+
   /** Removes all entries from the cache. */
   void clear();
 
@@ -76,7 +76,15 @@ public class CacheConfig {
     /** Least Recently Used - evicts the least recently accessed entry. */
     LRU,
     /** Time-To-Live - evicts entries after a specified duration. */
-    TTL
+    TTL,
+    /** CLOCK - approximates LRU with reference bits, so that reads take no lock. */
+    CLOCK,
+    /** CLOCK-Pro - CLOCK that keeps frequently read entries through scans. */
+    CLOCK_PRO,
+    /** Adaptive Replacement Cache - balances recency and frequency from recently evicted keys. */
+    ARC,
+    /** GreedyDual-Size-Frequency - keeps the entries that are slowest to load again per byte. */
+    GDSF
   }
 
   /** Builder for CacheConfig. */
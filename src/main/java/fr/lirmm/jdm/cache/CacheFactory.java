@@ -51,6 +51,10 @@ public class CacheFactory {
     return switch (config.getEvictionStrategy()) {
       case LRU -> new LruCache<>(config);
       case TTL -> new TtlCache<>(config);
+      case CLOCK -> new ClockCache<>(config);
+      case CLOCK_PRO -> new ClockProCache<>(config);
+      case ARC -> new ArcCache<>(config);
+      case GDSF -> new GdsfCache<>(config);
     };
   }
 
@@ -113,6 +117,27 @@ public class CacheFactory {
     return new ShardedCache<>(config, shardCount);
   }
 
+  /**
+   * Creates a sharded cache whose shards share one capacity budget.
+   *
+   * <p>Per-shard quotas follow demand instead of staying at {@code maxSize / shardCount}, which
+   * keeps the hit rate close to a single cache when keys are unevenly spread across shards.
+   *
+   * @param config the cache configuration
+   * @param shardCount the number of shards (will be rounded to next power of 2)
+   * @param <K> the type of keys maintained by the cache
+   * @param <V> the type of mapped values
+   * @return a sharded cache instance with a shared capacity budget
+   * @throws IllegalArgumentException if config is null or shardCount is not positive
+   * @see ShardedCache#ShardedCache(CacheConfig, int, boolean)
+   */
+  public static <K, V> Cache<K, V> createSharedCapacity(CacheConfig config, int shardCount) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration cannot be null");
+    }
+    return new ShardedCache<>(config, shardCount, true);
+  }
+
   /**
    * Creates a thread-local cache optimized for read-heavy workloads.
    *
@@ -170,6 +195,95 @@ public class CacheFactory {
     return new ThreadLocalCache<>(backingCache, threadLocalMaxSize);
   }
 
+  /**
+   * Creates a cache with an L1 layer striped per CPU in front of the configured L2 cache.
+   *
+   * <p>Unlike {@link #createThreadLocal(CacheConfig)}, total L1 memory is bounded by
+   * {@code l1Capacity} regardless of the number of threads, which suits virtual threads and
+   * large thread pools.
+   *
+   * @param config the cache configuration for the L2 (backing) cache
+   * @param l1Capacity the total number of L1 entries across all stripes
+   * @param <K> the type of keys maintained by the cache
+   * @param <V> the type of mapped values
+   * @return a striped L1 cache instance
+   * @throws IllegalArgumentException if config is null or l1Capacity is less than 1
+   * @see StripedL1Cache
+   */
+  public static <K, V> Cache<K, V> createStripedL1(CacheConfig config, int l1Capacity) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration cannot be null");
+    }
+    if (l1Capacity < 1) {
+      throw new IllegalArgumentException("L1 capacity must be at least 1");
+    }
+    Cache<K, V> backingCache = create(config);
+    return new StripedL1Cache<>(backingCache, l1Capacity);
+  }
+
+  /**
+   * Creates an LRU cache that stores serialized values in direct memory.
+   *
+   * <p>Off-heap storage keeps large caches out of the garbage-collected heap, so cache size no
+   * longer drives GC pause times. Best suited for:
+   * <ul>
+   *   <li>Caches of several GB
+   *   <li>Large values read far less often than they are retained
+   * </ul>
+   *
+   * <p><b>Trade-offs:</b> every hit decodes a fresh value, and all operations share one lock.
+   * Memory is also prone to slab calcification: each slab keeps the size class it was first
+   * used for until the cache is cleared. If value sizes shift once the capacity is reserved,
+   * new values can only displace entries of their own size class, and values of a class that
+   * has no slab yet are rejected, however much space the other classes hold.
+   *
+   * @param config the cache configuration
+   * @param capacityBytes the maximum amount of direct memory to reserve
+   * @param codec the codec used to serialize values
+   * @param <K> the type of keys maintained by the cache
+   * @param <V> the type of mapped values
+   * @return an off-heap cache instance
+   * @throws IllegalArgumentException if config or codec is null
+   * @see OffHeapCache
+   */
+  public static <K, V> Cache<K, V> createOffHeap(
+      CacheConfig config, long capacityBytes, ValueCodec<V> codec) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration cannot be null");
+    }
+    return new OffHeapCache<>(config, capacityBytes, codec);
+  }
+
+  /**
+   * Creates an LRU cache that compresses its colder entries.
+   *
+   * <p>The {@code hotSize} most recently used values stay as objects; older values are stored
+   * deflated and inflated again on access. Best suited for:
+   * <ul>
+   *   <li>Large, compressible values such as API responses
+   *   <li>Long-tail workloads where most hits fall on a small hot set
+   * </ul>
+   *
+   * <p><b>Trade-offs:</b> cold hits pay for inflating and decoding, and all operations share one
+   * lock.
+   *
+   * @param config the cache configuration; its maximum size bounds both regions together
+   * @param hotSize the maximum number of entries kept uncompressed
+   * @param codec the codec used to serialize values before compression
+   * @param <K> the type of keys maintained by the cache
+   * @param <V> the type of mapped values
+   * @return a compressed cache instance
+   * @throws IllegalArgumentException if config or codec is null, or hotSize is out of range
+   * @see CompressedCache
+   */
+  public static <K, V> Cache<K, V> createCompressed(
+      CacheConfig config, int hotSize, ValueCodec<V> codec) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration cannot be null");
+    }
+    return new CompressedCache<>(config, hotSize, codec);
+  }
+
   /**
    * Creates an optimized cache based on workload characteristics.
    *
@@ -224,6 +338,27 @@ public class CacheFactory {
     return createSharded(config);
   }
 
+  /**
+   * Creates a cache that chooses its layout from the workload it observes.
+   *
+   * <p>Unlike {@link #createOptimized(CacheConfig, int, double)}, nothing has to be guessed: the
+   * thread count, read ratio and contention are measured at runtime, and the cache moves between
+   * baseline, sharded and L1+L2 layouts as they change, without dropping entries.
+   *
+   * @param config the cache configuration; the eviction strategy must be LRU
+   * @param <K> the type of keys maintained by the cache
+   * @param <V> the type of mapped values
+   * @return an adaptive cache instance
+   * @throws IllegalArgumentException if config is null or not LRU
+   * @see AdaptiveCache
+   */
+  public static <K, V> Cache<K, V> createAdaptive(CacheConfig config) {
+    if (config == null) {
+      throw new IllegalArgumentException("Cache configuration cannot be null");
+    }
+    return new AdaptiveCache<>(config);
+  }
+
   /**
    * Creates a cache optimized for high-concurrency scenarios.
    *
@@ -0,0 +1,225 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache using the CLOCK approximation of LRU.
+ *
+ * <p>Entries form a circular list swept by a hand. A hit only sets the entry's reference bit with
+ * a plain write, so reads take no lock and reorder nothing, unlike {@link LruCache} whose
+ * access-ordered map must be relinked on every hit. When the cache is full, the hand clears the
+ * bits it passes and evicts the first entry found without one, so entries read since its last
+ * pass survive.
+ *
+ * <p>Lookups go through a {@link ConcurrentHashMap}; writes and evictions run under a single lock.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ClockCache<K, V> implements Cache<K, V>, Resizable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClockCache.class);
+
+  private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // Guarded by lock
+  private Node<K, V> hand;
+  private int maxSize;
+  private volatile int size;
+
+  /**
+   * Creates a new CLOCK cache with the specified maximum size.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public ClockCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.maxSize = maxSize;
+    logger.info("Created CLOCK cache with maxSize={}", maxSize);
+  }
+
+  /**
+   * Creates a new CLOCK cache with the specified configuration.
+   *
+   * @param config the cache configuration
+   * @throws IllegalArgumentException if config is null
+   */
+  public ClockCache(CacheConfig config) {
+    this(config.getMaxSize());
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.CLOCK) {
+      logger.warn(
+          "ClockCache created with eviction strategy {}, expected CLOCK",
+          config.getEvictionStrategy());
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    Node<K, V> node = map.get(key);
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+    // Skipping the write when already set keeps hot entries' cache lines shared
+    if (!node.referenced) {
+      node.referenced = true;
+    }
+    hits.increment();
+    return node.value;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return map.containsKey(key);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value must not be null");
+    }
+    lock.lock();
+    try {
+      Node<K, V> node = map.get(key);
+      if (node != null) {
+        node.value = value;
+        return;
+      }
+      while (size >= maxSize) {
+        evict();
+      }
+      node = new Node<>(key, value);
+      link(node);
+      map.put(key, node);
+      size++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      Node<K, V> node = map.remove(key);
+      if (node != null) {
+        unlink(node);
+        size--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      int removed = size;
+      map.clear();
+      hand = null;
+      size = 0;
+      hits.reset();
+      misses.reset();
+      evictions.reset();
+      logger.info("Cleared cache ({} entries removed)", removed);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+  }
+
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    lock.lock();
+    try {
+      maxSize = newMaxSize;
+      while (size > maxSize) {
+        evict();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Advances the hand to the first entry not referenced since its last pass, and evicts it.
+   *
+   * <p>Readers may set bits again behind the hand, so after one full turn the entry under the
+   * hand is evicted whatever its bit.
+   */
+  private void evict() {
+    for (int passed = 0; hand.referenced && passed < size; passed++) {
+      hand.referenced = false;
+      hand = hand.next;
+    }
+    Node<K, V> victim = hand;
+    unlink(victim);
+    map.remove(victim.key, victim);
+    size--;
+    evictions.increment();
+  }
+
+  /** Inserts a node just behind the hand, so that it is the last one the hand reaches. */
+  private void link(Node<K, V> node) {
+    if (hand == null) {
+      node.prev = node;
+      node.next = node;
+      hand = node;
+      return;
+    }
+    node.next = hand;
+    node.prev = hand.prev;
+    hand.prev.next = node;
+    hand.prev = node;
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.next == node) {
+      hand = null;
+      return;
+    }
+    if (hand == node) {
+      hand = node.next;
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private volatile V value;
+    // Set by readers without synchronization; a lost update only costs an early eviction
+    private boolean referenced;
+    private Node<K, V> prev; // Guarded by lock
+    private Node<K, V> next; // Guarded by lock
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,373 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache using CLOCK-Pro, a scan-resistant refinement of {@link ClockCache}.
+ *
+ * <p>Entries are hot, cold, or non-resident: a non-resident entry keeps only its key, for a test
+ * period after its value was evicted. New entries start cold, and a cold entry read again before
+ * the cold hand reaches it, or written again during its test period, becomes hot. Only cold
+ * entries are evicted, and hot entries are demoted to cold by a second hand when they exceed
+ * their share of the capacity. A scan of keys read once thus flows through the cold entries
+ * without disturbing the hot ones.
+ *
+ * <p>The share of cold entries adapts: it grows when a non-resident entry is written again, which
+ * shows that cold entries were evicted too early, and shrinks when a test period ends unused. A
+ * third hand ends test periods, keeping at most {@code maxSize} non-resident keys.
+ *
+ * <p>As in {@link ClockCache}, reads only set a reference bit and take no lock; writes and the
+ * three hands run under a single lock.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ClockProCache<K, V> implements Cache<K, V>, Resizable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClockProCache.class);
+
+  private static final int HOT = 0;
+  private static final int COLD = 1;
+  private static final int NON_RESIDENT = 2;
+
+  private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // Guarded by lock
+  private Node<K, V> handHot;
+  private Node<K, V> handCold;
+  private Node<K, V> handTest;
+  private int maxSize;
+  private int coldTarget;
+  private int hotCount;
+  private int coldCount;
+  private int nonResidentCount;
+  private volatile int size;
+
+  /**
+   * Creates a new CLOCK-Pro cache with the specified maximum size.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public ClockProCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.maxSize = maxSize;
+    this.coldTarget = maxSize;
+    logger.info("Created CLOCK-Pro cache with maxSize={}", maxSize);
+  }
+
+  /**
+   * Creates a new CLOCK-Pro cache with the specified configuration.
+   *
+   * @param config the cache configuration
+   * @throws IllegalArgumentException if config is null
+   */
+  public ClockProCache(CacheConfig config) {
+    this(config.getMaxSize());
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.CLOCK_PRO) {
+      logger.warn(
+          "ClockProCache created with eviction strategy {}, expected CLOCK_PRO",
+          config.getEvictionStrategy());
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    Node<K, V> node = map.get(key);
+    V value = node != null ? node.value : null;
+    if (value == null) {
+      misses.increment();
+      return null;
+    }
+    if (!node.referenced) {
+      node.referenced = true;
+    }
+    hits.increment();
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    Node<K, V> node = map.get(key);
+    return node != null && node.value != null;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value must not be null");
+    }
+    lock.lock();
+    try {
+      Node<K, V> node = map.get(key);
+      if (node == null) {
+        evictWhileFull();
+        node = new Node<>(key, value, COLD);
+        link(node);
+        map.put(key, node);
+        coldCount++;
+      } else if (node.status != NON_RESIDENT) {
+        node.value = value;
+      } else {
+        // Back during its test period: cold entries were evicted too early
+        if (coldTarget < maxSize) {
+          coldTarget++;
+        }
+        unlink(node);
+        nonResidentCount--;
+        evictWhileFull();
+        node.status = HOT;
+        node.referenced = false;
+        node.value = value;
+        link(node);
+        hotCount++;
+      }
+      size = hotCount + coldCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      Node<K, V> node = map.remove(key);
+      if (node != null) {
+        remove(node);
+        size = hotCount + coldCount;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      int removed = size;
+      map.clear();
+      handHot = null;
+      handCold = null;
+      handTest = null;
+      coldTarget = maxSize;
+      hotCount = 0;
+      coldCount = 0;
+      nonResidentCount = 0;
+      size = 0;
+      hits.reset();
+      misses.reset();
+      evictions.reset();
+      logger.info("Cleared cache ({} entries removed)", removed);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+  }
+
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    lock.lock();
+    try {
+      maxSize = newMaxSize;
+      coldTarget = Math.min(coldTarget, maxSize);
+      evictUntil(maxSize);
+      while (nonResidentCount > maxSize) {
+        runHandTest();
+      }
+      size = hotCount + coldCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of hot entries.
+   *
+   * @return the hot entry count
+   */
+  int getHotCount() {
+    lock.lock();
+    try {
+      return hotCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evictWhileFull() {
+    evictUntil(maxSize - 1);
+  }
+
+  /**
+   * Runs the cold hand until at most {@code residentLimit} entries hold a value.
+   *
+   * <p>Readers may set bits again behind the hands, so after two full turns of the clock the
+   * hands stop sparing referenced entries.
+   */
+  private void evictUntil(int residentLimit) {
+    int turns = 2 * (hotCount + coldCount + nonResidentCount);
+    for (int visits = 0; hotCount + coldCount > residentLimit; visits++) {
+      runHandCold(visits >= turns);
+    }
+  }
+
+  /**
+   * Visits the entry under the cold hand: a referenced cold entry becomes hot, an unreferenced
+   * one loses its value and starts its test period. Then lets the hot hand demote entries until
+   * the hot ones fit in their share.
+   *
+   * @param force whether to evict the entry even if referenced
+   */
+  private void runHandCold(boolean force) {
+    Node<K, V> node = handCold;
+    if (node.status == COLD) {
+      coldCount--;
+      if (node.referenced && !force) {
+        node.referenced = false;
+        node.status = HOT;
+        hotCount++;
+      } else {
+        node.status = NON_RESIDENT;
+        node.value = null;
+        nonResidentCount++;
+        evictions.increment();
+        while (nonResidentCount > maxSize) {
+          runHandTest();
+        }
+      }
+    }
+    handCold = handCold.next;
+    int turns = 2 * (hotCount + coldCount + nonResidentCount);
+    for (int visits = 0; hotCount > maxSize - coldTarget; visits++) {
+      runHandHot(visits >= turns);
+    }
+  }
+
+  /**
+   * Visits the entry under the hot hand, demoting it to cold unless referenced since.
+   *
+   * @param force whether to demote the entry even if referenced
+   */
+  private void runHandHot(boolean force) {
+    if (handHot == handTest) {
+      runHandTest();
+    }
+    Node<K, V> node = handHot;
+    if (node.status == HOT) {
+      if (node.referenced && !force) {
+        node.referenced = false;
+      } else {
+        node.status = COLD;
+        hotCount--;
+        coldCount++;
+      }
+    }
+    handHot = handHot.next;
+  }
+
+  /** Visits the entry under the test hand, ending its test period if non-resident. */
+  private void runHandTest() {
+    if (handTest == handCold) {
+      runHandCold(false);
+    }
+    Node<K, V> node = handTest;
+    if (node.status == NON_RESIDENT) {
+      // Unlinking moves the test hand on
+      map.remove(node.key, node);
+      remove(node);
+      if (coldTarget > 1) {
+        coldTarget--;
+      }
+    } else {
+      handTest = handTest.next;
+    }
+  }
+
+  private void remove(Node<K, V> node) {
+    unlink(node);
+    switch (node.status) {
+      case HOT -> hotCount--;
+      case COLD -> coldCount--;
+      default -> nonResidentCount--;
+    }
+  }
+
+  /** Inserts a node just behind the hot hand, where the clock's most recent entries sit. */
+  private void link(Node<K, V> node) {
+    if (handHot == null) {
+      node.prev = node;
+      node.next = node;
+      handHot = node;
+      handCold = node;
+      handTest = node;
+      return;
+    }
+    node.next = handHot;
+    node.prev = handHot.prev;
+    handHot.prev.next = node;
+    handHot.prev = node;
+    if (handCold == handHot) {
+      handCold = node;
+    }
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.next == node) {
+      handHot = null;
+      handCold = null;
+      handTest = null;
+      return;
+    }
+    if (handHot == node) {
+      handHot = node.next;
+    }
+    if (handCold == node) {
+      handCold = node.next;
+    }
+    if (handTest == node) {
+      handTest = node.next;
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private volatile V value; // Null while non-resident
+    // Set by readers without synchronization; a lost update only costs an early eviction
+    private boolean referenced;
+    private int status; // Guarded by lock
+    private Node<K, V> prev; // Guarded by lock
+    private Node<K, V> next; // Guarded by lock
+
+    Node(K key, V value, int status) {
+      this.key = key;
+      this.value = value;
+      this.status = status;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package fr.lirmm.jdm.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An LRU cache that keeps its most recently used entries as objects and compresses the rest.
+ *
+ * <p>The cache is split into two regions. The hot region holds up to {@code hotSize} values as
+ * regular objects. When it overflows, its least recently used value is encoded with a {@link
+ * ValueCodec}, deflated, and moved to the cold region as a byte array. A hit in the cold region
+ * inflates the value and promotes it back to the hot region.
+ *
+ * <p>Serialized JSON-like values typically compress several times over, so the same heap holds
+ * many more entries than an {@link LruCache}, at the price of a decode on every cold hit.
+ *
+ * <p>Thread safety is provided through a single lock, which also guards the reusable {@link
+ * Deflater} and {@link Inflater}.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class CompressedCache<K, V> implements Cache<K, V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(CompressedCache.class);
+  private static final boolean DEBUG_ENABLED = logger.isDebugEnabled();
+
+  private final int maxSize;
+  private final int hotSize;
+  private final ValueCodec<V> codec;
+  private final LinkedHashMap<K, V> hot;
+  private final LinkedHashMap<K, Compressed> cold;
+  private final ReentrantLock lock;
+  private final Deflater deflater;
+  private final Inflater inflater;
+  private final AtomicLong hits;
+  private final AtomicLong coldHits;
+  private final AtomicLong misses;
+  private final AtomicLong evictions;
+  private byte[] buffer;
+  private long compressedBytes;
+  private long uncompressedBytes;
+
+  /**
+   * Creates a new compressed cache.
+   *
+   * @param maxSize the maximum number of entries across both regions
+   * @param hotSize the maximum number of entries kept uncompressed
+   * @param codec the codec used to serialize values before compression
+   * @throws IllegalArgumentException if hotSize is less than 1, maxSize is less than hotSize, or
+   *     codec is null
+   */
+  public CompressedCache(int maxSize, int hotSize, ValueCodec<V> codec) {
+    if (hotSize < 1) {
+      throw new IllegalArgumentException("hotSize must be at least 1");
+    }
+    if (maxSize < hotSize) {
+      throw new IllegalArgumentException("maxSize must be at least hotSize");
+    }
+    if (codec == null) {
+      throw new IllegalArgumentException("codec cannot be null");
+    }
+    this.maxSize = maxSize;
+    this.hotSize = hotSize;
+    this.codec = codec;
+    this.hot = new LinkedHashMap<>(16, 0.75f, true);
+    this.cold = new LinkedHashMap<>(16, 0.75f, true);
+    this.lock = new ReentrantLock();
+    this.deflater = new Deflater(Deflater.BEST_SPEED);
+    this.inflater = new Inflater();
+    this.hits = new AtomicLong(0);
+    this.coldHits = new AtomicLong(0);
+    this.misses = new AtomicLong(0);
+    this.evictions = new AtomicLong(0);
+    this.buffer = new byte[256];
+
+    logger.info("Created compressed cache with maxSize={}, hotSize={}", maxSize, hotSize);
+  }
+
+  /**
+   * Creates a new compressed cache with the specified configuration.
+   *
+   * @param config the cache configuration
+   * @param hotSize the maximum number of entries kept uncompressed
+   * @param codec the codec used to serialize values before compression
+   * @throws IllegalArgumentException if config is null or the sizes are invalid
+   */
+  public CompressedCache(CacheConfig config, int hotSize, ValueCodec<V> codec) {
+    this(config.getMaxSize(), hotSize, codec);
+  }
+
+  @Override
+  public V get(K key) {
+    lock.lock();
+    try {
+      V value = hot.get(key);
+      if (value != null) {
+        hits.incrementAndGet();
+        return value;
+      }
+      Compressed compressed = cold.remove(key);
+      if (compressed == null) {
+        misses.incrementAndGet();
+        return null;
+      }
+      compressedBytes -= compressed.data.length;
+      uncompressedBytes -= compressed.length;
+      value = inflate(compressed);
+      hits.incrementAndGet();
+      coldHits.incrementAndGet();
+      hot.put(key, value);
+      demoteOverflow();
+      return value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    lock.lock();
+    try {
+      return hot.containsKey(key) || cold.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value cannot be null");
+    }
+    lock.lock();
+    try {
+      removeCold(key);
+      hot.put(key, value);
+      demoteOverflow();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      if (hot.remove(key) == null) {
+        removeCold(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      hot.clear();
+      cold.clear();
+      compressedBytes = 0;
+      uncompressedBytes = 0;
+      hits.set(0);
+      coldHits.set(0);
+      misses.set(0);
+      evictions.set(0);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return hot.size() + cold.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return new CacheStats(hits.get(), misses.get(), evictions.get(), size());
+  }
+
+  /**
+   * Returns the maximum number of entries kept uncompressed.
+   *
+   * @return the hot region size
+   */
+  public int getHotSize() {
+    return hotSize;
+  }
+
+  /**
+   * Returns the number of hits served from the compressed region. These hits paid for a decode.
+   *
+   * @return the number of cold hits
+   */
+  public long getColdHitCount() {
+    return coldHits.get();
+  }
+
+  /**
+   * Returns the total size of the compressed values currently held.
+   *
+   * @return the compressed size in bytes
+   */
+  public long getCompressedBytes() {
+    lock.lock();
+    try {
+      return compressedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the total encoded size of the compressed values before compression.
+   *
+   * @return the uncompressed size in bytes
+   */
+  public long getUncompressedBytes() {
+    lock.lock();
+    try {
+      return uncompressedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void removeCold(K key) {
+    Compressed removed = cold.remove(key);
+    if (removed != null) {
+      compressedBytes -= removed.data.length;
+      uncompressedBytes -= removed.length;
+    }
+  }
+
+  /** Moves hot overflow to the cold region, then evicts cold entries beyond maxSize. */
+  private void demoteOverflow() {
+    if (hot.size() > hotSize) {
+      Iterator<Map.Entry<K, V>> eldest = hot.entrySet().iterator();
+      Map.Entry<K, V> entry = eldest.next();
+      eldest.remove();
+      Compressed compressed = deflate(entry.getValue());
+      cold.put(entry.getKey(), compressed);
+      compressedBytes += compressed.data.length;
+      uncompressedBytes += compressed.length;
+    }
+    while (hot.size() + cold.size() > maxSize) {
+      Iterator<Map.Entry<K, Compressed>> eldest = cold.entrySet().iterator();
+      Map.Entry<K, Compressed> entry = eldest.next();
+      eldest.remove();
+      compressedBytes -= entry.getValue().data.length;
+      uncompressedBytes -= entry.getValue().length;
+      evictions.incrementAndGet();
+      if (DEBUG_ENABLED) {
+        logger.debug("Evicting compressed entry: {}", entry.getKey());
+      }
+    }
+  }
+
+  private Compressed deflate(V value) {
+    int length = codec.encodedSize(value);
+    ByteBuffer encoded = ByteBuffer.allocate(length);
+    codec.encode(value, encoded);
+
+    deflater.reset();
+    deflater.setInput(encoded.array(), 0, length);
+    deflater.finish();
+    int written = 0;
+    while (!deflater.finished()) {
+      if (written == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      written += deflater.deflate(buffer, written, buffer.length - written);
+    }
+    return new Compressed(Arrays.copyOf(buffer, written), length);
+  }
+
+  private V inflate(Compressed compressed) {
+    byte[] encoded = new byte[compressed.length];
+    inflater.reset();
+    inflater.setInput(compressed.data);
+    try {
+      int read = 0;
+      while (read < encoded.length) {
+        int n = inflater.inflate(encoded, read, encoded.length - read);
+        if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new IllegalStateException("Truncated compressed cache value");
+        }
+        read += n;
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupted compressed cache value", e);
+    }
+    return codec.decode(ByteBuffer.wrap(encoded));
+  }
+
+  /** A deflated value and its encoded length before compression. */
+  private record Compressed(byte[] data, int length) {}
+}
@@ -0,0 +1,24 @@
+package fr.lirmm.jdm.cache;
+
+/**
+ * A cache that can weigh entries by what they cost to load again.
+ *
+ * <p>Callers that measure their loads pass the cost along with the value; a plain
+ * {@link #put(Object, Object)} counts as a load of unit cost and size.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public interface CostAwareCache<K, V> extends Cache<K, V> {
+
+  /**
+   * Stores a key-value pair together with the cost of loading it.
+   *
+   * @param key the key with which the value is to be associated
+   * @param value the value to be associated with the key
+   * @param loadNanos the time it took to load the value, in nanoseconds
+   * @param size the size of the value, in bytes or any unit consistent across entries
+   * @throws IllegalArgumentException if key or value is null, or loadNanos or size is negative
+   */
+  void put(K key, V value, long loadNanos, int size);
+}
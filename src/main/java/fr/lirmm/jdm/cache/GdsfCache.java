@@ -0,0 +1,249 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache using GreedyDual-Size-Frequency (GDSF) eviction.
+ *
+ * <p>Each entry has a priority of {@code L + frequency * cost / size}, where the cost is the time
+ * its value took to load and {@code L} is the priority of the last evicted entry. The entry with
+ * the lowest priority is evicted first, so values that are slow to load again, small, or read
+ * often are kept over cheap, large or rarely read ones. Raising {@code L} on every eviction ages
+ * the entries that stopped being read, however expensive they were.
+ *
+ * <p>The maximum size still counts entries; sizes only weigh priorities. Values stored through
+ * {@link #put(Object, Object)} count as a load of unit cost and size, which makes the policy a
+ * frequency-based one with aging.
+ *
+ * <p>Every operation, reads included, updates the priority order under a single lock.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class GdsfCache<K, V> implements CostAwareCache<K, V>, Resizable {
+
+  private static final Logger logger = LoggerFactory.getLogger(GdsfCache.class);
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Guarded by lock
+  private final Map<K, Entry<K, V>> entries = new HashMap<>();
+  private final TreeSet<Entry<K, V>> byPriority = new TreeSet<>(GdsfCache::compare);
+  private int maxSize;
+  private double inflation;
+  private long sequence;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates a new GDSF cache with the specified maximum size.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public GdsfCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.maxSize = maxSize;
+    logger.info("Created GDSF cache with maxSize={}", maxSize);
+  }
+
+  /**
+   * Creates a new GDSF cache with the specified configuration.
+   *
+   * @param config the cache configuration
+   * @throws IllegalArgumentException if config is null
+   */
+  public GdsfCache(CacheConfig config) {
+    this(config.getMaxSize());
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.GDSF) {
+      logger.warn(
+          "GdsfCache created with eviction strategy {}, expected GDSF",
+          config.getEvictionStrategy());
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    lock.lock();
+    try {
+      Entry<K, V> entry = entries.get(key);
+      if (entry == null) {
+        misses++;
+        return null;
+      }
+      byPriority.remove(entry);
+      entry.frequency++;
+      prioritize(entry);
+      hits++;
+      return entry.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    lock.lock();
+    try {
+      return entries.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    put(key, value, 1, 1);
+  }
+
+  @Override
+  public void put(K key, V value, long loadNanos, int size) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value must not be null");
+    }
+    if (loadNanos < 0 || size < 0) {
+      throw new IllegalArgumentException("Load time and size must not be negative");
+    }
+    lock.lock();
+    try {
+      Entry<K, V> entry = entries.get(key);
+      if (entry != null) {
+        // A reload replaces the cost, but the entry keeps the reads it earned
+        byPriority.remove(entry);
+      } else {
+        while (entries.size() >= maxSize) {
+          evict();
+        }
+        entry = new Entry<>(key);
+        entries.put(key, entry);
+      }
+      entry.value = value;
+      // Sizes of zero would make any cost infinitely valuable
+      entry.costPerByte = (double) loadNanos / Math.max(1, size);
+      prioritize(entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      Entry<K, V> entry = entries.remove(key);
+      if (entry != null) {
+        byPriority.remove(entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      int size = entries.size();
+      entries.clear();
+      byPriority.clear();
+      inflation = 0;
+      hits = 0;
+      misses = 0;
+      evictions = 0;
+      logger.info("Cleared cache ({} entries removed)", size);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    lock.lock();
+    try {
+      return new CacheStats(hits, misses, evictions, entries.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    lock.lock();
+    try {
+      maxSize = newMaxSize;
+      while (entries.size() > maxSize) {
+        evict();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the aging value {@code L}, the priority of the last evicted entry.
+   *
+   * @return the current inflation value
+   */
+  double getInflation() {
+    lock.lock();
+    try {
+      return inflation;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evict() {
+    Entry<K, V> victim = byPriority.pollFirst();
+    entries.remove(victim.key);
+    inflation = victim.priority;
+    evictions++;
+  }
+
+  /** Computes an entry's priority from the current inflation value and reinserts it. */
+  private void prioritize(Entry<K, V> entry) {
+    entry.priority = inflation + entry.frequency * entry.costPerByte;
+    entry.sequence = sequence++;
+    byPriority.add(entry);
+  }
+
+  /** Orders by priority, then least recently prioritized first. */
+  private static int compare(Entry<?, ?> a, Entry<?, ?> b) {
+    int byPriority = Double.compare(a.priority, b.priority);
+    return byPriority != 0 ? byPriority : Long.compare(a.sequence, b.sequence);
+  }
+
+  private static final class Entry<K, V> {
+    private final K key;
+    private V value;
+    private long frequency = 1;
+    private double costPerByte;
+    private double priority;
+    private long sequence;
+
+    Entry(K key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,384 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe bounded cache keyed by primitive {@code int}, such as node ids.
+ *
+ * <p>Entries live in open-addressing tables over an {@code int[]} of keys and a parallel array of
+ * values, so a lookup boxes nothing and an entry costs no node object: about two slots of one
+ * {@code int}, one reference and one byte each, against a map entry, a boxed or string key and a
+ * list node for {@link LruCache}.
+ *
+ * <p>Keys are spread over independent segments, each guarded by its own StampedLock used as a
+ * seqlock: reads probe the table optimistically and only take the read lock if a write
+ * overlapped them. Eviction follows the CLOCK algorithm: a hit sets the entry's reference bit
+ * with a plain write, and a full segment evicts the first entry its hand finds with the bit
+ * clear, clearing the bits it passes. Recently read entries thus survive, without reordering
+ * anything on reads.
+ *
+ * @param <V> the type of mapped values
+ */
+public class IntKeyCache<V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(IntKeyCache.class);
+
+  /** Entries per segment below which fewer segments are used */
+  private static final int MIN_SEGMENT_CAPACITY = 16;
+
+  private final int maxSize;
+  private final Segment[] segments;
+  private final int segmentMask;
+  private final int segmentBits;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache with four segments per available processor.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public IntKeyCache(int maxSize) {
+    this(maxSize, Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * Creates a cache with a given number of segments.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @param segmentCount the requested number of segments, rounded to a power of two and lowered
+   *     so that each segment holds at least {@value #MIN_SEGMENT_CAPACITY} entries
+   * @throws IllegalArgumentException if maxSize or segmentCount is less than 1
+   */
+  IntKeyCache(int maxSize, int segmentCount) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    if (segmentCount < 1) {
+      throw new IllegalArgumentException("segmentCount must be at least 1");
+    }
+    int count = Integer.highestOneBit(
+        Math.min(segmentCount, Math.max(1, maxSize / MIN_SEGMENT_CAPACITY)));
+    this.maxSize = maxSize;
+    this.segments = new Segment[count];
+    this.segmentMask = count - 1;
+    this.segmentBits = Integer.numberOfTrailingZeros(count);
+    // Spread the remainder so that capacities add up to exactly maxSize
+    for (int i = 0; i < count; i++) {
+      int capacity = maxSize / count + (i < maxSize % count ? 1 : 0);
+      segments[i] = new Segment(capacity, segmentBits);
+    }
+
+    logger.info("Created int-key cache with maxSize={} and {} segments", maxSize, count);
+  }
+
+  /**
+   * Retrieves a value from the cache.
+   *
+   * @param key the key whose associated value is to be returned
+   * @return the value associated with the key, or null if not present
+   */
+  @SuppressWarnings("unchecked")
+  public V get(int key) {
+    int h = hash(key);
+    Segment segment = segments[h & segmentMask];
+    Object value = segment.get(key, h);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return (V) value;
+  }
+
+  /**
+   * Stores a key-value pair, evicting an entry of the key's segment if it is full.
+   *
+   * @param key the key with which the value is to be associated
+   * @param value the value to be associated with the key
+   * @throws IllegalArgumentException if value is null
+   */
+  public void put(int key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Value must not be null");
+    }
+    int h = hash(key);
+    if (segments[h & segmentMask].put(key, h, value)) {
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Checks if a key exists in the cache, without counting a hit or a miss.
+   *
+   * @param key the key to check
+   * @return true if the key exists, false otherwise
+   */
+  public boolean containsKey(int key) {
+    int h = hash(key);
+    return segments[h & segmentMask].peek(key, h) != null;
+  }
+
+  /**
+   * Removes a key from the cache.
+   *
+   * @param key the key to remove
+   */
+  public void invalidate(int key) {
+    int h = hash(key);
+    segments[h & segmentMask].remove(key, h);
+  }
+
+  /** Removes all entries and resets the statistics. */
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+    logger.info("Cleared int-key cache");
+  }
+
+  /**
+   * Returns the current number of entries.
+   *
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return the maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns cache statistics.
+   *
+   * @return the statistics snapshot
+   */
+  public CacheStats getStats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+  }
+
+  int getSegmentCount() {
+    return segments.length;
+  }
+
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * A linear-probing table with CLOCK eviction.
+   *
+   * <p>Empty slots hold a null value. Deletion shifts the following entries back instead of
+   * leaving tombstones, and the table keeps at least half of its slots empty, so probe sequences
+   * stay short and always end on an empty slot.
+   */
+  private static final class Segment {
+    private final StampedLock lock = new StampedLock();
+    private final int capacity;
+    private final int shift;
+    private final int mask;
+    private final int[] keys;
+    private final Object[] values;
+    private final byte[] referenced;
+
+    // Guarded by lock
+    private int size;
+    private int hand;
+
+    Segment(int capacity, int shift) {
+      int slots = Math.max(2, Integer.highestOneBit(capacity * 2 - 1) << 1);
+      this.capacity = capacity;
+      this.shift = shift;
+      this.mask = slots - 1;
+      this.keys = new int[slots];
+      this.values = new Object[slots];
+      this.referenced = new byte[slots];
+    }
+
+    Object get(int key, int h) {
+      long stamp = lock.tryOptimisticRead();
+      int slot = find(key, h);
+      Object value = slot >= 0 ? values[slot] : null;
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          slot = find(key, h);
+          value = slot >= 0 ? values[slot] : null;
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      // A racing write may move the entry first, which only blurs the next sweep
+      if (value != null && referenced[slot] == 0) {
+        referenced[slot] = 1;
+      }
+      return value;
+    }
+
+    Object peek(int key, int h) {
+      long stamp = lock.tryOptimisticRead();
+      int slot = find(key, h);
+      Object value = slot >= 0 ? values[slot] : null;
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          slot = find(key, h);
+          value = slot >= 0 ? values[slot] : null;
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return value;
+    }
+
+    /** Stores an entry and returns whether another one was evicted to make room. */
+    boolean put(int key, int h, Object value) {
+      long stamp = lock.writeLock();
+      try {
+        int slot = find(key, h);
+        if (slot >= 0) {
+          values[slot] = value;
+          return false;
+        }
+        boolean evicted = size == capacity;
+        if (evicted) {
+          evict();
+        }
+        slot = home(h);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        referenced[slot] = 0;
+        size++;
+        return evicted;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void remove(int key, int h) {
+      long stamp = lock.writeLock();
+      try {
+        int slot = find(key, h);
+        if (slot >= 0) {
+          delete(slot);
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void clear() {
+      long stamp = lock.writeLock();
+      try {
+        Arrays.fill(values, null);
+        Arrays.fill(referenced, (byte) 0);
+        size = 0;
+        hand = 0;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    int size() {
+      long stamp = lock.tryOptimisticRead();
+      int current = size;
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          current = size;
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return current;
+    }
+
+    /**
+     * Returns the slot holding a key, or -1.
+     *
+     * <p>Also called without the lock by optimistic reads, which may see a table being changed:
+     * the probe is bounded by the table length, and its result is discarded unless validated.
+     */
+    private int find(int key, int h) {
+      int slot = home(h);
+      for (int probes = 0; probes <= mask; probes++) {
+        if (values[slot] == null) {
+          return -1;
+        }
+        if (keys[slot] == key) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private int home(int h) {
+      return (h >>> shift) & mask;
+    }
+
+    /** Advances the hand to the first entry not referenced since its last pass, and deletes it. */
+    private void evict() {
+      while (true) {
+        int slot = hand;
+        hand = (hand + 1) & mask;
+        if (values[slot] == null) {
+          continue;
+        }
+        if (referenced[slot] != 0) {
+          referenced[slot] = 0;
+          continue;
+        }
+        delete(slot);
+        return;
+      }
+    }
+
+    /** Deletes a slot, shifting back the entries whose probe sequence crossed it. */
+    private void delete(int slot) {
+      int hole = slot;
+      int next = slot;
+      while (true) {
+        next = (next + 1) & mask;
+        if (values[next] == null) {
+          break;
+        }
+        // An entry may fill the hole unless its home lies between the hole and itself
+        int home = home(hash(keys[next]));
+        if (((next - home) & mask) >= ((next - hole) & mask)) {
+          keys[hole] = keys[next];
+          values[hole] = values[next];
+          referenced[hole] = referenced[next];
+          hole = next;
+        }
+      }
+      values[hole] = null;
+      referenced[hole] = 0;
+      size--;
+    }
+  }
+}
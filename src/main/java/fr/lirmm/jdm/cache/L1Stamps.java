@@ -0,0 +1,67 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Invalidation stamps shared by the L1 copies of an L2 cache.
+ * 
+ * <p>An L1 entry records the global clear epoch and the version of its key's stripe when it was
+ * loaded. Writing or invalidating a key bumps its stripe version and clearing bumps the epoch, so
+ * an L1 hit whose stamps no longer match must be discarded. Stamps must be read before the L2
+ * lookup, and bumped after the L2 change, so that a concurrent invalidation is never missed. Keys sharing a
+ * stripe are invalidated together, which only costs an extra L2 lookup.
+ */
+final class L1Stamps {
+    
+    /** Number of per-key version stripes; a power of two */
+    private static final int VERSION_STRIPES = 4096;
+    
+    /** An L1 value with the stamp current when it was loaded. */
+    record Stamped<V>(V value, long stamp) {}
+    
+    private final AtomicLong clearEpoch = new AtomicLong(0);
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    
+    /** Returns the current stamp of a key, to store alongside its L1 copy. */
+    long stamp(Object key) {
+        // Epoch in the high bits: clears are rare, and a combined stamp needs a single comparison
+        return (clearEpoch.get() << 32) | (versions.get(stripe(key)) & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Marks every L1 copy of a key, and of keys sharing its stripe, as outdated.
+     * 
+     * @return The key's new stamp
+     */
+    long invalidated(Object key) {
+        long version = versions.incrementAndGet(stripe(key));
+        return (clearEpoch.get() << 32) | (version & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Marks the L1 copies of a key as outdated after an L2 write.
+     * 
+     * <p>The writer may keep its own copy under the returned stamp only if no other change to
+     * the key's stripe happened between {@code before}, read ahead of the L2 write, and now;
+     * otherwise another value may have reached L2 after this one.
+     * 
+     * @param before The key's stamp read before the L2 write
+     * @return The stamp to store the written value under, or -1 if it must not be kept in L1
+     */
+    long written(Object key, long before) {
+        long after = invalidated(key);
+        return after == before + 1 ? after : -1;
+    }
+    
+    /** Marks every L1 copy as outdated. */
+    void cleared() {
+        clearEpoch.incrementAndGet();
+    }
+    
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return h & (VERSION_STRIPES - 1);
+    }
+}
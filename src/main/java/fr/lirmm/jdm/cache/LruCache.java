@@ -1,5 +1,8 @@
 package fr.lirmm.jdm.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -19,19 +22,20 @@ import org.slf4j.LoggerFactory;
  * @param <K> the type of keys maintained by this cache
  * @param <V> the type of mapped values
  */
-public class LruCache<K, V> implements Cache<K, V> {
+public class LruCache<K, V> implements Cache<K, V>, Resizable {
 
   private static final Logger logger = LoggerFactory.getLogger(LruCache.class);
   private static final float LOAD_FACTOR = 0.75f;
   private static final boolean TRACE_ENABLED = logger.isTraceEnabled();
   private static final boolean DEBUG_ENABLED = logger.isDebugEnabled();
 
-  private final int maxSize;
+  private volatile int maxSize;
   private final Map<K, V> cache;
   private final StampedLock lock;
   private final AtomicLong hits;
   private final AtomicLong misses;
   private final AtomicLong evictions;
+  private final AtomicLong contendedWrites = new AtomicLong(0);
 
   /**
    * Creates a new LRU cache with the specified maximum size.
@@ -120,7 +124,7 @@ public class LruCache<K, V> implements Cache<K, V> {
       throw new IllegalArgumentException("Key and value must not be null");
     }
 
-    long stamp = lock.writeLock();
+    long stamp = acquireWriteLock();
     try {
       cache.put(key, value);
       if (TRACE_ENABLED) {
@@ -131,9 +135,72 @@ public class LruCache<K, V> implements Cache<K, V> {
     }
   }
 
+  /**
+   * Looks up all keys under a single write lock acquisition.
+   *
+   * <p>The write lock is required because lookups reorder the access-ordered map.
+   */
+  @Override
+  public Map<K, V> getAll(Collection<? extends K> keys) {
+    Map<K, V> result = new HashMap<>();
+    int found = 0;
+    long stamp = acquireWriteLock();
+    try {
+      for (K key : keys) {
+        V value = cache.get(key);
+        if (value != null) {
+          result.put(key, value);
+          found++;
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    // Counted per lookup, since a key may be requested more than once
+    hits.addAndGet(found);
+    misses.addAndGet(keys.size() - found);
+    return result;
+  }
+
+  /** Inserts all entries under a single write lock acquisition. */
+  @Override
+  public void putAll(Map<? extends K, ? extends V> entries) {
+    for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+      if (entry.getKey() == null || entry.getValue() == null) {
+        throw new IllegalArgumentException("Key and value must not be null");
+      }
+    }
+
+    long stamp = acquireWriteLock();
+    try {
+      cache.putAll(entries);
+      if (TRACE_ENABLED) {
+        logger.trace("Added {} entries to cache", entries.size());
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Removes all keys under a single write lock acquisition. */
+  @Override
+  public void invalidateAll(Collection<? extends K> keys) {
+    long stamp = acquireWriteLock();
+    try {
+      for (K key : keys) {
+        cache.remove(key);
+      }
+      if (DEBUG_ENABLED) {
+        logger.debug("Invalidated {} cache entries", keys.size());
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
   @Override
   public void invalidate(K key) {
-    long stamp = lock.writeLock();
+    long stamp = acquireWriteLock();
     try {
       V removed = cache.remove(key);
       if (removed != null && DEBUG_ENABLED) {
@@ -146,7 +213,7 @@ public class LruCache<K, V> implements Cache<K, V> {
 
   @Override
   public void clear() {
-    long stamp = lock.writeLock();
+    long stamp = acquireWriteLock();
     try {
       int size = cache.size();
       cache.clear();
@@ -198,12 +265,55 @@ public class LruCache<K, V> implements Cache<K, V> {
     return maxSize;
   }
 
+  /** Evicts least recently used entries until the cache fits the new size. */
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    long stamp = acquireWriteLock();
+    try {
+      maxSize = newMaxSize;
+      Iterator<K> eldest = cache.keySet().iterator();
+      while (cache.size() > newMaxSize && eldest.hasNext()) {
+        eldest.next();
+        eldest.remove();
+        evictions.incrementAndGet();
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
   /**
-   * Checks if the cache contains the specified key.
+   * Returns the number of write lock acquisitions that had to wait for another thread.
    *
-   * @param key the key to check
-   * @return true if the cache contains the key
+   * <p>Used by {@link ShardedCache} to detect contended shards.
    */
+  long getContendedWriteCount() {
+    return contendedWrites.get();
+  }
+
+  /** Returns a copy of the entries, least recently used first. */
+  Map<K, V> snapshot() {
+    long stamp = lock.readLock();
+    try {
+      return new LinkedHashMap<>(cache);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private long acquireWriteLock() {
+    long stamp = lock.tryWriteLock();
+    if (stamp == 0) {
+      contendedWrites.incrementAndGet();
+      stamp = lock.writeLock();
+    }
+    return stamp;
+  }
+
+  @Override
   public boolean containsKey(K key) {
     long stamp = lock.tryOptimisticRead();
     boolean contains = cache.containsKey(key);
@@ -0,0 +1,617 @@
+package fr.lirmm.jdm.cache;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An LRU cache that keeps serialized values in direct memory, outside the garbage-collected heap.
+ *
+ * <p>Values are encoded with a {@link ValueCodec} into chunks carved from fixed-size direct
+ * {@link ByteBuffer} slabs. Chunks are grouped into power-of-two size classes, each with its own
+ * free list, so freed space is reused without fragmentation or compaction. The only on-heap state
+ * is a compact index mapping each key to a packed {@code long} handle (size class, slab, offset).
+ * Large caches therefore add almost nothing to GC marking work.
+ *
+ * <p>{@link #get(Object)} decodes a fresh value on every hit. Callers that only need to inspect
+ * part of a value can use {@link #read(Object, Function)}, which exposes the stored bytes as a
+ * read-only view without copying them.
+ *
+ * <p>Slabs are assigned to a size class on first use. Once the capacity is reserved, a slab whose
+ * chunks are all free is reassigned to the next class that runs out of chunks, and a new value
+ * displaces the least recently used entry of its own size class. When that class holds no entry
+ * at all, the least occupied slab of the class holding the most slabs is emptied and taken over,
+ * so slabs claimed early by one class do not lock other classes out. {@link #clear()} keeps the
+ * slabs reserved but unassigned. Values larger than one slab are not cached and are counted as
+ * rejections.
+ *
+ * <p>Thread safety is provided through a single lock: an access-ordered index is mutated on
+ * every hit, so reads cannot share the lock.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class OffHeapCache<K, V> implements Cache<K, V>, AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(OffHeapCache.class);
+  private static final boolean TRACE_ENABLED = logger.isTraceEnabled();
+  private static final boolean DEBUG_ENABLED = logger.isDebugEnabled();
+
+  /** Default slab size (1 MiB). */
+  public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+  /** Default off-heap capacity (256 MiB). */
+  public static final long DEFAULT_CAPACITY_BYTES = 256L << 20;
+
+  /** Every chunk starts with the length of the encoded value. */
+  private static final int LENGTH_HEADER_BYTES = Integer.BYTES;
+
+  private final int maxSize;
+  private final ValueCodec<V> codec;
+  private final SlabAllocator allocator;
+  private final LinkedHashMap<K, Long> index;
+  private final ReentrantLock lock;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong evictions;
+  private final AtomicLong rejections;
+  private long storedBytes;
+  private boolean closed;
+
+  /**
+   * Creates a new off-heap cache.
+   *
+   * @param maxSize the maximum number of entries to store in the cache
+   * @param capacityBytes the maximum amount of direct memory to reserve
+   * @param slabSize the size of each direct memory slab, rounded up to a power of two
+   * @param codec the codec used to serialize values
+   * @throws IllegalArgumentException if any size is not positive, capacityBytes is smaller than
+   *     slabSize, or codec is null
+   */
+  public OffHeapCache(int maxSize, long capacityBytes, int slabSize, ValueCodec<V> codec) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    if (slabSize < SlabAllocator.MIN_CHUNK_SIZE || slabSize > (1 << 30)) {
+      throw new IllegalArgumentException(
+          "slabSize must be between " + SlabAllocator.MIN_CHUNK_SIZE + " and 2^30 bytes");
+    }
+    if (capacityBytes < slabSize) {
+      throw new IllegalArgumentException("capacityBytes must be at least one slab");
+    }
+    if (codec == null) {
+      throw new IllegalArgumentException("codec must not be null");
+    }
+    this.maxSize = maxSize;
+    this.codec = codec;
+    this.allocator = new SlabAllocator(capacityBytes, slabSize);
+    this.index = new LinkedHashMap<>(16, 0.75f, true);
+    this.lock = new ReentrantLock();
+    this.hits = new AtomicLong(0);
+    this.misses = new AtomicLong(0);
+    this.evictions = new AtomicLong(0);
+    this.rejections = new AtomicLong(0);
+
+    logger.info(
+        "Created off-heap cache with maxSize={}, capacity={} bytes, slabSize={} bytes",
+        maxSize,
+        capacityBytes,
+        allocator.slabSize);
+  }
+
+  /**
+   * Creates a new off-heap cache with the default slab size.
+   *
+   * @param config the cache configuration (only the maximum size is used)
+   * @param capacityBytes the maximum amount of direct memory to reserve
+   * @param codec the codec used to serialize values
+   * @throws IllegalArgumentException if config or codec is null
+   */
+  public OffHeapCache(CacheConfig config, long capacityBytes, ValueCodec<V> codec) {
+    this(config.getMaxSize(), capacityBytes, DEFAULT_SLAB_SIZE, codec);
+  }
+
+  @Override
+  public V get(K key) {
+    V value = read(key, codec::decode);
+    if (TRACE_ENABLED) {
+      logger.trace("Cache {} for key: {}", value != null ? "hit" : "miss", key);
+    }
+    return value;
+  }
+
+  /**
+   * Applies a reader function to the stored bytes of an entry without copying them.
+   *
+   * <p>The buffer passed to the reader is a read-only view positioned at the start of the encoded
+   * value, with its limit at the end. It is only valid for the duration of the call: the
+   * underlying memory may be reused as soon as the reader returns, so the reader must not retain
+   * it.
+   *
+   * @param key the key whose value is to be read
+   * @param reader the function to apply to the encoded value
+   * @param <R> the reader result type
+   * @return the reader result, or null if the key is not present
+   */
+  public <R> R read(K key, Function<ByteBuffer, R> reader) {
+    R result;
+    lock.lock();
+    try {
+      Long handle = index.get(key);
+      if (handle == null) {
+        misses.incrementAndGet();
+        return null;
+      }
+      result = reader.apply(view(handle).asReadOnlyBuffer());
+    } finally {
+      lock.unlock();
+    }
+    hits.incrementAndGet();
+    return result;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    lock.lock();
+    try {
+      return index.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key == null || value == null) {
+      throw new IllegalArgumentException("Key and value must not be null");
+    }
+
+    int length = codec.encodedSize(value);
+    int sizeClass = allocator.sizeClassFor(length + LENGTH_HEADER_BYTES);
+
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Cache is closed");
+      }
+      // Drop any previous value first so that its chunk can be reused immediately
+      Long previous = index.remove(key);
+      if (previous != null) {
+        release(previous);
+      }
+      if (sizeClass < 0) {
+        reject(key, length);
+        return;
+      }
+
+      long handle = allocator.allocate(sizeClass);
+      if (handle < 0 && (evictEldest(sizeClass) || evictSlab(allocator.victimSlab()))) {
+        handle = allocator.allocate(sizeClass);
+      }
+      if (handle < 0) {
+        reject(key, length);
+        return;
+      }
+      while (index.size() >= maxSize) {
+        evictEldest(-1);
+      }
+
+      ByteBuffer slab = allocator.slab(handle);
+      int offset = SlabAllocator.offset(handle);
+      slab.putInt(offset, length);
+      try {
+        codec.encode(value, slab.slice(offset + LENGTH_HEADER_BYTES, length));
+      } catch (RuntimeException e) {
+        allocator.free(handle);
+        throw e;
+      }
+      index.put(key, handle);
+      storedBytes += length;
+      if (TRACE_ENABLED) {
+        logger.trace("Added entry to cache: key={}, bytes={}", key, length);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      Long removed = index.remove(key);
+      if (removed != null) {
+        release(removed);
+        if (DEBUG_ENABLED) {
+          logger.debug("Invalidated cache entry: {}", key);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all entries. The slabs stay reserved and are reassigned to size classes as values
+   * are stored again.
+   */
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      int size = index.size();
+      index.clear();
+      allocator.reset();
+      storedBytes = 0;
+      hits.set(0);
+      misses.set(0);
+      evictions.set(0);
+      rejections.set(0);
+      logger.info("Cleared cache ({} entries removed)", size);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return new CacheStats(hits.get(), misses.get(), evictions.get(), size());
+  }
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return the maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the number of values that were not cached because no chunk could hold them.
+   *
+   * @return the rejection count
+   */
+  public long getRejectionCount() {
+    return rejections.get();
+  }
+
+  /**
+   * Returns the amount of direct memory currently reserved by slabs, including slabs released by
+   * {@link #close()} that have not been garbage collected yet.
+   *
+   * @return the reserved bytes
+   */
+  public long getReservedBytes() {
+    return allocator.reservedBytes.get();
+  }
+
+  /**
+   * Returns the total encoded size of all cached values, excluding chunk headers and padding.
+   *
+   * @return the stored bytes
+   */
+  public long getStoredBytes() {
+    lock.lock();
+    try {
+      return storedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases all slabs. Subsequent calls to {@link #put(Object, Object)} fail.
+   *
+   * <p>Direct memory is returned to the system once the slabs are garbage collected. This method
+   * is idempotent.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (!closed) {
+        closed = true;
+        index.clear();
+        allocator.release();
+        storedBytes = 0;
+        logger.info("Off-heap cache closed");
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ByteBuffer view(long handle) {
+    ByteBuffer slab = allocator.slab(handle);
+    int offset = SlabAllocator.offset(handle);
+    return slab.slice(offset + LENGTH_HEADER_BYTES, slab.getInt(offset));
+  }
+
+  private void release(long handle) {
+    storedBytes -= allocator.slab(handle).getInt(SlabAllocator.offset(handle));
+    allocator.free(handle);
+  }
+
+  /**
+   * Evicts the least recently used entry, restricted to a size class when one is given, since
+   * only a chunk of the same class can satisfy a pending allocation.
+   *
+   * @param sizeClass the size class to evict from, or -1 for any class
+   * @return true if an entry was evicted
+   */
+  private boolean evictEldest(int sizeClass) {
+    Iterator<Map.Entry<K, Long>> it = index.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<K, Long> eldest = it.next();
+      if (sizeClass < 0 || SlabAllocator.sizeClass(eldest.getValue()) == sizeClass) {
+        it.remove();
+        release(eldest.getValue());
+        evictions.incrementAndGet();
+        if (DEBUG_ENABLED) {
+          logger.debug("Evicting LRU entry: {}", eldest.getKey());
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evicts every entry stored in a slab, so that the allocator can reassign it to another size
+   * class.
+   *
+   * @param slabIndex the slab to empty, or -1 for none
+   * @return true if the slab is now empty
+   */
+  private boolean evictSlab(int slabIndex) {
+    if (slabIndex < 0) {
+      return false;
+    }
+    Iterator<Map.Entry<K, Long>> it = index.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<K, Long> entry = it.next();
+      if (SlabAllocator.slabIndex(entry.getValue()) == slabIndex) {
+        it.remove();
+        release(entry.getValue());
+        evictions.incrementAndGet();
+      }
+    }
+    if (DEBUG_ENABLED) {
+      logger.debug("Emptied slab {} for reassignment", slabIndex);
+    }
+    return true;
+  }
+
+  private void reject(K key, int length) {
+    rejections.incrementAndGet();
+    if (DEBUG_ENABLED) {
+      logger.debug("Value for key {} ({} bytes) does not fit in off-heap storage", key, length);
+    }
+  }
+
+  /**
+   * Carves direct memory slabs into power-of-two chunks, with one free list per size class.
+   *
+   * <p>A handle packs the size class (8 bits), slab index (24 bits) and byte offset (32 bits) of
+   * a chunk into a single long. Not thread-safe; guarded by the owning cache's lock, except for
+   * the reserved byte count, which drops when a released slab is garbage collected.
+   */
+  private static final class SlabAllocator {
+    static final int MIN_CHUNK_SHIFT = 6;
+    static final int MIN_CHUNK_SIZE = 1 << MIN_CHUNK_SHIFT;
+    static final Cleaner SLAB_CLEANER = Cleaner.create();
+
+    final long capacityBytes;
+    final int slabSize;
+    final List<ByteBuffer> slabs = new ArrayList<>();
+    // Reserved slabs not assigned to a size class since the last reset
+    final List<ByteBuffer> spareSlabs = new ArrayList<>();
+    final LongStack[] freeLists;
+    // Size class and allocated chunk count of each slab, by slab index
+    int[] slabClasses = new int[16];
+    int[] liveChunks = new int[16];
+    final AtomicLong reservedBytes = new AtomicLong(0);
+
+    SlabAllocator(long capacityBytes, int slabSize) {
+      this.capacityBytes = capacityBytes;
+      this.slabSize = Integer.highestOneBit(slabSize - 1) << 1;
+      int classes = Integer.numberOfTrailingZeros(this.slabSize) - MIN_CHUNK_SHIFT + 1;
+      this.freeLists = new LongStack[classes];
+      for (int i = 0; i < classes; i++) {
+        freeLists[i] = new LongStack();
+      }
+    }
+
+    /** Returns the size class for a chunk of at least the given size, or -1 if too large. */
+    int sizeClassFor(int bytes) {
+      if (bytes > slabSize) {
+        return -1;
+      }
+      int chunkSize = Math.max(MIN_CHUNK_SIZE, Integer.highestOneBit(bytes - 1) << 1);
+      return Integer.numberOfTrailingZeros(chunkSize) - MIN_CHUNK_SHIFT;
+    }
+
+    /** Returns a free chunk handle, or -1 if the capacity is exhausted. */
+    long allocate(int sizeClass) {
+      LongStack free = freeLists[sizeClass];
+      if (free.isEmpty()) {
+        int slabIndex = addSlab();
+        if (slabIndex < 0) {
+          slabIndex = reclaimEmptySlab();
+        }
+        if (slabIndex < 0) {
+          return -1;
+        }
+        slabClasses[slabIndex] = sizeClass;
+        int chunkSize = MIN_CHUNK_SIZE << sizeClass;
+        for (int offset = slabSize - chunkSize; offset >= 0; offset -= chunkSize) {
+          free.push(handle(sizeClass, slabIndex, offset));
+        }
+      }
+      long handle = free.pop();
+      liveChunks[slabIndex(handle)]++;
+      return handle;
+    }
+
+    void free(long handle) {
+      freeLists[sizeClass(handle)].push(handle);
+      liveChunks[slabIndex(handle)]--;
+    }
+
+    ByteBuffer slab(long handle) {
+      return slabs.get(slabIndex(handle));
+    }
+
+    /**
+     * Returns the least occupied slab of the size class holding the most slabs, or -1 if there is
+     * no slab.
+     */
+    int victimSlab() {
+      int[] slabCounts = new int[freeLists.length];
+      for (int i = 0; i < slabs.size(); i++) {
+        slabCounts[slabClasses[i]]++;
+      }
+      int fullest = 0;
+      for (int c = 1; c < slabCounts.length; c++) {
+        if (slabCounts[c] > slabCounts[fullest]) {
+          fullest = c;
+        }
+      }
+      int victim = -1;
+      for (int i = 0; i < slabs.size(); i++) {
+        if (slabClasses[i] == fullest && (victim < 0 || liveChunks[i] < liveChunks[victim])) {
+          victim = i;
+        }
+      }
+      return victim;
+    }
+
+    /** Frees every chunk, keeping the slabs for reuse by any size class. */
+    void reset() {
+      spareSlabs.addAll(slabs);
+      slabs.clear();
+      for (LongStack free : freeLists) {
+        free.clear();
+      }
+      Arrays.fill(liveChunks, 0);
+    }
+
+    /** Drops every slab; their memory is counted as reserved until they are collected. */
+    void release() {
+      reset();
+      spareSlabs.clear();
+    }
+
+    static int sizeClass(long handle) {
+      return (int) (handle >>> 56);
+    }
+
+    /** Takes a spare slab or reserves a new one, returning its index, or -1 if none is left. */
+    private int addSlab() {
+      ByteBuffer slab;
+      if (!spareSlabs.isEmpty()) {
+        slab = spareSlabs.remove(spareSlabs.size() - 1);
+      } else if (reservedBytes.get() + slabSize <= capacityBytes) {
+        slab = ByteBuffer.allocateDirect(slabSize);
+        reservedBytes.addAndGet(slabSize);
+        AtomicLong reserved = reservedBytes;
+        int size = slabSize;
+        SLAB_CLEANER.register(slab, () -> reserved.addAndGet(-size));
+      } else {
+        return -1;
+      }
+      int slabIndex = slabs.size();
+      slabs.add(slab);
+      if (slabIndex == liveChunks.length) {
+        liveChunks = Arrays.copyOf(liveChunks, slabIndex * 2);
+        slabClasses = Arrays.copyOf(slabClasses, slabIndex * 2);
+      }
+      return slabIndex;
+    }
+
+    /**
+     * Withdraws the chunks of a slab with no allocated chunk from its size class free list,
+     * returning the slab index, or -1 if every slab is in use.
+     */
+    private int reclaimEmptySlab() {
+      for (int i = 0; i < slabs.size(); i++) {
+        if (liveChunks[i] == 0) {
+          int slabIndex = i;
+          freeLists[slabClasses[i]].removeIf(handle -> slabIndex(handle) == slabIndex);
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    static int slabIndex(long handle) {
+      return (int) (handle >>> 32) & 0xFFFFFF;
+    }
+
+    static int offset(long handle) {
+      return (int) handle;
+    }
+
+    static long handle(int sizeClass, int slabIndex, int offset) {
+      return ((long) sizeClass << 56) | ((long) slabIndex << 32) | (offset & 0xFFFFFFFFL);
+    }
+  }
+
+  /** Growable stack of primitive longs. */
+  private static final class LongStack {
+    private long[] values = new long[16];
+    private int size;
+
+    void push(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    long pop() {
+      return values[--size];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void removeIf(LongPredicate filter) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        if (!filter.test(values[i])) {
+          values[kept++] = values[i];
+        }
+      }
+      size = kept;
+    }
+
+    void clear() {
+      values = new long[16];
+      size = 0;
+    }
+  }
+}
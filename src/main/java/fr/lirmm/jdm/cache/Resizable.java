@@ -0,0 +1,15 @@
+package fr.lirmm.jdm.cache;
+
+/**
+ * A cache whose maximum size can change after construction.
+ */
+interface Resizable {
+
+  /**
+   * Sets the maximum number of entries, evicting entries if the cache no longer fits.
+   *
+   * @param newMaxSize the new maximum size
+   * @throws IllegalArgumentException if newMaxSize is less than 1
+   */
+  void resize(int newMaxSize);
+}
@@ -1,8 +1,16 @@
 package fr.lirmm.jdm.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Sharded cache that distributes keys across multiple cache instances to reduce contention.
@@ -23,6 +31,21 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Eviction happens per shard, not globally
  * - Memory overhead for multiple cache instances
  * 
+ * <p>By default every shard gets a fixed {@code maxSize / shardCount} quota, so with a skewed
+ * key distribution hot shards evict while cold shards sit half-empty. With a shared capacity
+ * budget, per-shard quotas are instead rebalanced every few writes in proportion to each
+ * shard's demand, measured as its size plus the evictions since the last rebalance. Quotas never
+ * sum to more than {@code maxSize}, and each shard keeps a small floor so a cold shard can warm
+ * up again. Locking stays per shard; rebalancing only takes each shard's lock to trim it.
+ * 
+ * <p>LRU shards can also be resharded online, either explicitly with {@link #reshard(int)} or
+ * automatically from observed contention. Automatic resharding samples, every few thousand
+ * writes, the share of shard write locks that had to wait: the shard count doubles when it is
+ * high and halves when contention has vanished, within one to sixteen shards per available
+ * processor, re-read at each check so a changed CPU quota is followed. Keys move one old shard
+ * at a time, each migration step being done by whichever operation comes next, so there is no
+ * stop-the-world rehash; operations on a shard being moved wait only for that shard.
+ * 
  * @param <K> Key type
  * @param <V> Value type
  */
@@ -31,10 +54,45 @@ public class ShardedCache<K, V> implements Cache<K, V> {
     /** Default multiplier for calculating optimal shard count based on CPU cores */
     private static final int DEFAULT_SHARD_MULTIPLIER = 4;
     
-    private final List<Cache<K, V>> shards;
-    private final int shardCount;
+    /** Each shard keeps at least 1/MIN_QUOTA_DIVISOR of an even share of a shared budget */
+    private static final int MIN_QUOTA_DIVISOR = 4;
+    
+    /** Minimum number of writes between two rebalances of a shared budget */
+    private static final int MIN_REBALANCE_INTERVAL = 256;
+    
+    /** Number of writes between two contention checks when resharding automatically */
+    private static final int RESHARD_CHECK_INTERVAL = 8192;
+    
+    /** Share of contended write lock acquisitions above which the shard count doubles */
+    private static final double GROW_CONTENTION_RATIO = 0.05;
+    
+    /** Share of contended write lock acquisitions below which the shard count halves */
+    private static final double SHRINK_CONTENTION_RATIO = 0.001;
+    
+    /** Upper bound on automatically chosen shard counts, per available processor */
+    private static final int MAX_SHARDS_PER_PROCESSOR = 16;
+    
+    private final CacheConfig config;
     private final AtomicLong totalHits = new AtomicLong(0);
     private final AtomicLong totalMisses = new AtomicLong(0);
+    private volatile Table<K, V> table;
+    
+    // Shared capacity budget
+    private final boolean sharedCapacity;
+    private final int maxSize;
+    private final int rebalanceInterval;
+    private final AtomicLong writes = new AtomicLong(0);
+    
+    // Resharding
+    private final boolean autoReshard;
+    private final AtomicLong retiredEvictions = new AtomicLong(0);
+    private final AtomicLong reshardCount = new AtomicLong(0);
+    private Table<K, V> checkedTable;
+    private long checkedWrites;
+    private long checkedContention;
+    
+    /** Serializes rebalancing, contention checks and the start of a resharding */
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
     
     /**
      * Creates a sharded cache with optimal shard count (based on CPU cores).
@@ -54,47 +112,66 @@ public class ShardedCache<K, V> implements Cache<K, V> {
      * @throws IllegalArgumentException if config is null or shardCount is not positive
      */
     public ShardedCache(CacheConfig config, int shardCount) {
+        this(config, shardCount, false);
+    }
+    
+    /**
+     * Creates a sharded cache, optionally sharing its capacity budget across shards.
+     * 
+     * @param config Cache configuration
+     * @param shardCount Number of shards (must be power of 2 for best performance)
+     * @param sharedCapacity Whether to rebalance per-shard quotas to follow demand
+     * @throws IllegalArgumentException if config is null or shardCount is not positive
+     */
+    public ShardedCache(CacheConfig config, int shardCount, boolean sharedCapacity) {
+        this(config, shardCount, sharedCapacity, false);
+    }
+    
+    /**
+     * Creates a sharded cache, optionally sharing its capacity budget across shards and
+     * resharding automatically from observed contention.
+     * 
+     * @param config Cache configuration
+     * @param shardCount Initial number of shards (must be power of 2 for best performance)
+     * @param sharedCapacity Whether to rebalance per-shard quotas to follow demand
+     * @param autoReshard Whether to double or halve the shard count from observed contention
+     * @throws IllegalArgumentException if config is null, shardCount is not positive, or
+     *     autoReshard is requested for a non-LRU configuration
+     */
+    public ShardedCache(
+            CacheConfig config, int shardCount, boolean sharedCapacity, boolean autoReshard) {
         if (config == null) {
             throw new IllegalArgumentException("Cache configuration must not be null");
         }
         if (shardCount <= 0) {
             throw new IllegalArgumentException("Shard count must be positive, got: " + shardCount);
         }
+        if (autoReshard && config.getEvictionStrategy() != CacheConfig.EvictionStrategy.LRU) {
+            throw new IllegalArgumentException("Automatic resharding requires LRU shards");
+        }
         
-        // Round up to nearest power of 2 for fast modulo
-        this.shardCount = nextPowerOfTwo(shardCount);
-        this.shards = new ArrayList<>(this.shardCount);
+        this.config = config;
+        this.sharedCapacity = sharedCapacity;
+        this.autoReshard = autoReshard;
+        this.maxSize = config.getMaxSize();
+        this.rebalanceInterval = Math.max(MIN_REBALANCE_INTERVAL, maxSize / 4);
         
-        // Calculate size per shard
-        int sizePerShard = Math.max(1, config.getMaxSize() / this.shardCount);
-        
-        // Create shards
-        for (int i = 0; i < this.shardCount; i++) {
-            CacheConfig shardConfig = CacheConfig.builder()
-                .maxSize(sizePerShard)
-                .ttl(config.getTtl())
-                .evictionStrategy(config.getEvictionStrategy())
-                .build();
-            
-            Cache<K, V> shard;
-            if (config.getEvictionStrategy() == CacheConfig.EvictionStrategy.LRU) {
-                shard = new LruCache<>(shardConfig);
-            } else {
-                shard = new TtlCache<>(shardConfig);
-            }
-            
-            shards.add(shard);
-        }
+        // Round up to nearest power of 2 for fast modulo
+        this.table = newTable(nextPowerOfTwo(shardCount));
     }
     
     @Override
     public void put(K key, V value) {
-        getShard(key).put(key, value);
+        route(table, hash(key), shard -> {
+            shard.put(key, value);
+            return null;
+        });
+        afterWrites(1);
     }
     
     @Override
     public V get(K key) {
-        V value = getShard(key).get(key);
+        V value = route(table, hash(key), shard -> shard.get(key));
         
         // Track stats
         if (value != null) {
@@ -106,15 +183,132 @@ public class ShardedCache<K, V> implements Cache<K, V> {
         return value;
     }
     
+    @Override
+    public boolean containsKey(K key) {
+        return route(table, hash(key), shard -> shard.containsKey(key));
+    }
+    
     @Override
     public void invalidate(K key) {
-        getShard(key).invalidate(key);
+        route(table, hash(key), shard -> {
+            shard.invalidate(key);
+            return null;
+        });
+    }
+    
+    /**
+     * Groups keys by shard and looks each group up with a single call to its shard.
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Table<K, V> t = table;
+        Map<K, V> result = new HashMap<>();
+        int found = 0;
+        if (t.migration != null) {
+            // Keys may be moving between shards; look them up one by one
+            for (K key : keys) {
+                V value = route(t, hash(key), shard -> shard.get(key));
+                if (value != null) {
+                    result.put(key, value);
+                    found++;
+                }
+            }
+        } else {
+            List<List<K>> groups = groupByShard(t, keys);
+            for (int i = 0; i < groups.size(); i++) {
+                List<K> group = groups.get(i);
+                if (group != null) {
+                    Map<K, V> values = t.shards.get(i).getAll(group);
+                    result.putAll(values);
+                    // Counted per lookup, since a key may be requested more than once
+                    for (K key : group) {
+                        if (values.containsKey(key)) {
+                            found++;
+                        }
+                    }
+                }
+            }
+        }
+        
+        totalHits.addAndGet(found);
+        totalMisses.addAndGet(keys.size() - found);
+        return result;
+    }
+    
+    /**
+     * Groups entries by shard and inserts each group with a single call to its shard.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Table<K, V> t = table;
+        if (t.migration == null) {
+            List<Map<K, V>> groups = new ArrayList<>(t.shards.size());
+            for (int i = 0; i < t.shards.size(); i++) {
+                groups.add(null);
+            }
+            for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+                int index = hash(entry.getKey()) & t.mask;
+                Map<K, V> group = groups.get(index);
+                if (group == null) {
+                    group = new HashMap<>();
+                    groups.set(index, group);
+                }
+                group.put(entry.getKey(), entry.getValue());
+            }
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i) != null) {
+                    t.shards.get(i).putAll(groups.get(i));
+                }
+            }
+        }
+        if (t.migration != null) {
+            // A resharding started meanwhile: write again through the migration
+            for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+                route(t, hash(entry.getKey()), shard -> {
+                    shard.put(entry.getKey(), entry.getValue());
+                    return null;
+                });
+            }
+        }
+        afterWrites(entries.size());
+    }
+    
+    /**
+     * Groups keys by shard and invalidates each group with a single call to its shard.
+     */
+    @Override
+    public void invalidateAll(Collection<? extends K> keys) {
+        Table<K, V> t = table;
+        if (t.migration == null) {
+            List<List<K>> groups = groupByShard(t, keys);
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i) != null) {
+                    t.shards.get(i).invalidateAll(groups.get(i));
+                }
+            }
+        }
+        if (t.migration != null) {
+            for (K key : keys) {
+                route(t, hash(key), shard -> {
+                    shard.invalidate(key);
+                    return null;
+                });
+            }
+        }
     }
     
     @Override
     public void clear() {
-        for (Cache<K, V> shard : shards) {
-            shard.clear();
+        maintenanceLock.lock();
+        try {
+            Table<K, V> t = awaitMigration();
+            for (Cache<K, V> shard : t.shards) {
+                shard.clear();
+            }
+            Arrays.fill(t.lastEvictions, 0);
+            retiredEvictions.set(0);
+        } finally {
+            maintenanceLock.unlock();
         }
         totalHits.set(0);
         totalMisses.set(0);
@@ -123,9 +317,9 @@ public class ShardedCache<K, V> implements Cache<K, V> {
     @Override
     public CacheStats getStats() {
         long totalSize = 0;
-        long totalEvictions = 0;
+        long totalEvictions = retiredEvictions.get();
         
-        for (Cache<K, V> shard : shards) {
+        for (Cache<K, V> shard : liveShards()) {
             CacheStats shardStats = shard.getStats();
             totalSize += shardStats.getSize();
             totalEvictions += shardStats.getEvictionCount();
@@ -148,7 +342,7 @@ public class ShardedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public int size() {
-        long totalSize = shards.stream()
+        long totalSize = liveShards().stream()
             .mapToLong(shard -> shard.size())
             .sum();
         // Cap at Integer.MAX_VALUE to match interface contract
@@ -158,10 +352,82 @@ public class ShardedCache<K, V> implements Cache<K, V> {
     /**
      * Gets the number of shards.
      * 
+     * <p>While a resharding is in progress, this is still the count before resharding.
+     * 
      * @return Shard count
      */
     public int getShardCount() {
-        return shardCount;
+        return table.shards.size();
+    }
+    
+    /**
+     * Gets the current maximum size of a specific shard.
+     * 
+     * <p>Fixed at {@code maxSize / shardCount} unless the capacity budget is shared.
+     * 
+     * @param shardIndex Shard index (0 to shardCount-1)
+     * @return Shard capacity
+     */
+    public int getShardMaxSize(int shardIndex) {
+        maintenanceLock.lock();
+        try {
+            Table<K, V> t = table;
+            if (shardIndex < 0 || shardIndex >= t.shards.size()) {
+                throw new IllegalArgumentException("Invalid shard index: " + shardIndex);
+            }
+            return t.quotas[shardIndex];
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+    
+    /**
+     * Gets whether per-shard quotas are rebalanced from a shared capacity budget.
+     * 
+     * @return true if the capacity budget is shared
+     */
+    public boolean isSharedCapacity() {
+        return sharedCapacity;
+    }
+    
+    /**
+     * Gets the number of completed reshardings.
+     * 
+     * @return Resharding count
+     */
+    public long getReshardCount() {
+        return reshardCount.get();
+    }
+    
+    /**
+     * Changes the number of shards, moving every entry to its new shard.
+     * 
+     * <p>Other threads keep using the cache while entries move; this call returns once the
+     * resharding is complete. Entries keep their relative recency, but a shard receiving more
+     * entries than its new quota evicts the least recently used ones.
+     * 
+     * @param newShardCount New number of shards (rounded up to a power of 2)
+     * @throws IllegalArgumentException if newShardCount is not positive
+     * @throws IllegalStateException if the shards are not LRU caches
+     */
+    public void reshard(int newShardCount) {
+        if (newShardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive, got: " + newShardCount);
+        }
+        if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.LRU) {
+            throw new IllegalStateException("Resharding requires LRU shards");
+        }
+        maintenanceLock.lock();
+        try {
+            Table<K, V> t = awaitMigration();
+            if (t.shards.size() == nextPowerOfTwo(newShardCount)) {
+                return;
+            }
+            startMigration(t, nextPowerOfTwo(newShardCount));
+            awaitMigration();
+        } finally {
+            maintenanceLock.unlock();
+        }
     }
     
     /**
@@ -171,22 +437,325 @@ public class ShardedCache<K, V> implements Cache<K, V> {
      * @return Shard statistics
      */
     public CacheStats getShardStats(int shardIndex) {
-        if (shardIndex < 0 || shardIndex >= shardCount) {
+        Table<K, V> t = table;
+        if (shardIndex < 0 || shardIndex >= t.shards.size()) {
             throw new IllegalArgumentException("Invalid shard index: " + shardIndex);
         }
-        return shards.get(shardIndex).getStats();
+        return t.shards.get(shardIndex).getStats();
+    }
+    
+    /**
+     * Returns a copy of the entries, each shard's least recently used first.
+     * 
+     * <p>Completes any resharding in progress first; requires LRU shards.
+     */
+    Map<K, V> snapshot() {
+        Table<K, V> t;
+        maintenanceLock.lock();
+        try {
+            t = awaitMigration();
+        } finally {
+            maintenanceLock.unlock();
+        }
+        Map<K, V> entries = new LinkedHashMap<>();
+        for (Cache<K, V> shard : t.shards) {
+            entries.putAll(((LruCache<K, V>) shard).snapshot());
+        }
+        return entries;
+    }
+    
+    /**
+     * Returns the number of shard write lock acquisitions that had to wait for another thread.
+     */
+    long getContendedWriteCount() {
+        long contention = 0;
+        for (Cache<K, V> shard : liveShards()) {
+            if (shard instanceof LruCache<K, V> lru) {
+                contention += lru.getContendedWriteCount();
+            }
+        }
+        return contention;
+    }
+    
+    int shardIndex(K key) {
+        return hash(key) & table.mask; // Fast modulo for power of 2
     }
     
     /**
-     * Gets the shard for a given key using consistent hashing.
+     * Applies an operation to the shard owning a key hash.
      * 
-     * @param key The key
-     * @return The shard responsible for this key
+     * <p>Without a resharding in progress, the operation runs directly on its shard and the
+     * table is checked again afterwards: if a resharding started meanwhile, the operation is
+     * applied again through the migration, since its effect may have landed after the shard was
+     * copied. Operations are idempotent, so running one twice is harmless. During a resharding,
+     * the operation first moves one pending shard, then runs under the read lock of its old
+     * shard, on the old shard if it has not moved yet and on the new table otherwise.
      */
-    private Cache<K, V> getShard(K key) {
-        int hash = hash(key);
-        int index = hash & (shardCount - 1); // Fast modulo for power of 2
-        return shards.get(index);
+    private <R> R route(Table<K, V> t, int h, ShardOp<K, V, R> op) {
+        Migration<K, V> m = t.migration;
+        if (m == null) {
+            R result = op.apply(t.shards.get(h & t.mask));
+            m = t.migration;
+            if (m == null) {
+                return result;
+            }
+        }
+        
+        helpMigrate(t, m);
+        int index = h & t.mask;
+        ReentrantReadWriteLock.ReadLock lock = m.locks[index].readLock();
+        lock.lock();
+        try {
+            if (!m.moved[index]) {
+                return op.apply(t.shards.get(index));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return route(m.target, h, op);
+    }
+    
+    private void afterWrites(int count) {
+        if ((!sharedCapacity && !autoReshard) || count == 0) {
+            return;
+        }
+        long total = writes.addAndGet(count);
+        boolean rebalanceDue = sharedCapacity
+            && total / rebalanceInterval != (total - count) / rebalanceInterval;
+        boolean checkDue = autoReshard
+            && total / RESHARD_CHECK_INTERVAL != (total - count) / RESHARD_CHECK_INTERVAL;
+        if ((rebalanceDue || checkDue) && maintenanceLock.tryLock()) {
+            try {
+                if (checkDue) {
+                    checkContention(total);
+                }
+                if (rebalanceDue) {
+                    rebalance();
+                }
+            } finally {
+                maintenanceLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Starts a resharding if the share of contended writes since the last check calls for it.
+     * 
+     * <p>Must be called with the maintenance lock held. The migration itself is carried out by
+     * subsequent operations.
+     */
+    private void checkContention(long totalWrites) {
+        Table<K, V> t = table;
+        if (t.migration != null) {
+            return;
+        }
+        long contention = 0;
+        for (Cache<K, V> shard : t.shards) {
+            contention += ((LruCache<K, V>) shard).getContendedWriteCount();
+        }
+        if (t != checkedTable) {
+            // First check since the last resharding: only record the baseline
+            checkedTable = t;
+            checkedWrites = totalWrites;
+            checkedContention = contention;
+            return;
+        }
+        double ratio = (double) (contention - checkedContention) / (totalWrites - checkedWrites);
+        checkedWrites = totalWrites;
+        checkedContention = contention;
+        
+        int processors = Runtime.getRuntime().availableProcessors();
+        int minShards = nextPowerOfTwo(processors);
+        int maxShards = nextPowerOfTwo(processors * MAX_SHARDS_PER_PROCESSOR);
+        int count = t.shards.size();
+        if (count > maxShards) {
+            startMigration(t, maxShards);
+        } else if (ratio > GROW_CONTENTION_RATIO && count < maxShards) {
+            startMigration(t, count * 2);
+        } else if (ratio < SHRINK_CONTENTION_RATIO && count > minShards) {
+            startMigration(t, count / 2);
+        }
+    }
+    
+    /**
+     * Redistributes the capacity budget in proportion to each shard's recent demand.
+     * 
+     * <p>Must be called with the maintenance lock held. Shrinking shards are trimmed before
+     * growing shards are enlarged, so the total stays within the budget throughout.
+     */
+    void rebalance() {
+        Table<K, V> t = table;
+        if (t.migration != null) {
+            return;
+        }
+        int shardCount = t.shards.size();
+        long[] demand = new long[shardCount];
+        long totalDemand = 0;
+        for (int i = 0; i < shardCount; i++) {
+            CacheStats stats = t.shards.get(i).getStats();
+            // Clearing a shard resets its eviction count
+            long recentEvictions = Math.max(0, stats.getEvictionCount() - t.lastEvictions[i]);
+            demand[i] = stats.getSize() + recentEvictions;
+            totalDemand += demand[i];
+        }
+        int floor = Math.max(1, maxSize / (shardCount * MIN_QUOTA_DIVISOR));
+        long distributable = (long) maxSize - (long) floor * shardCount;
+        if (totalDemand == 0 || distributable <= 0) {
+            return;
+        }
+        
+        int[] target = new int[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            target[i] = floor + (int) (distributable * demand[i] / totalDemand);
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            boolean shrinking = pass == 0;
+            for (int i = 0; i < shardCount; i++) {
+                if (target[i] != t.quotas[i] && (target[i] < t.quotas[i]) == shrinking) {
+                    ((Resizable) t.shards.get(i)).resize(target[i]);
+                    t.quotas[i] = target[i];
+                }
+            }
+        }
+        // Trimming counts as eviction; it must not read as demand in the next round
+        for (int i = 0; i < shardCount; i++) {
+            t.lastEvictions[i] = t.shards.get(i).getStats().getEvictionCount();
+        }
+    }
+    
+    /** Publishes a migration to a new table; must be called with the maintenance lock held. */
+    private void startMigration(Table<K, V> t, int newShardCount) {
+        t.migration = new Migration<>(newTable(newShardCount), t.shards.size());
+        helpMigrate(t, t.migration);
+    }
+    
+    /**
+     * Completes any resharding in progress; must be called with the maintenance lock held.
+     * 
+     * @return The current table, without a migration in progress
+     */
+    private Table<K, V> awaitMigration() {
+        Table<K, V> t = table;
+        while (t.migration != null) {
+            Migration<K, V> m = t.migration;
+            while (m.completed.get() < t.shards.size()) {
+                if (!helpMigrate(t, m)) {
+                    Thread.onSpinWait(); // Another thread is moving the last shards
+                }
+            }
+            t = table;
+        }
+        return t;
+    }
+    
+    /**
+     * Moves the next pending shard of a migration, if any.
+     * 
+     * @return whether a shard was moved
+     */
+    private boolean helpMigrate(Table<K, V> t, Migration<K, V> m) {
+        int count = t.shards.size();
+        if (m.cursor.get() >= count) {
+            return false;
+        }
+        int index = m.cursor.getAndIncrement();
+        if (index >= count) {
+            return false;
+        }
+        
+        ReentrantReadWriteLock.WriteLock lock = m.locks[index].writeLock();
+        lock.lock();
+        try {
+            LruCache<K, V> old = (LruCache<K, V>) t.shards.get(index);
+            Table<K, V> target = m.target;
+            List<Map<K, V>> groups = new ArrayList<>(target.shards.size());
+            for (int i = 0; i < target.shards.size(); i++) {
+                groups.add(null);
+            }
+            // The snapshot is in LRU order, which the grouped maps preserve
+            for (Map.Entry<K, V> entry : old.snapshot().entrySet()) {
+                int targetIndex = hash(entry.getKey()) & target.mask;
+                Map<K, V> group = groups.get(targetIndex);
+                if (group == null) {
+                    group = new LinkedHashMap<>();
+                    groups.set(targetIndex, group);
+                }
+                group.put(entry.getKey(), entry.getValue());
+            }
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i) != null) {
+                    target.shards.get(i).putAll(groups.get(i));
+                }
+            }
+            retiredEvictions.addAndGet(old.getStats().getEvictionCount());
+            old.clear();
+            m.moved[index] = true;
+        } finally {
+            lock.unlock();
+        }
+        
+        if (m.completed.incrementAndGet() == count) {
+            table = m.target;
+            reshardCount.incrementAndGet();
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the shards holding entries: those of the current table, plus the target shards of
+     * a resharding in progress.
+     */
+    private List<Cache<K, V>> liveShards() {
+        Table<K, V> t = table;
+        Migration<K, V> m = t.migration;
+        if (m == null) {
+            return t.shards;
+        }
+        List<Cache<K, V>> shards = new ArrayList<>(t.shards);
+        shards.addAll(m.target.shards);
+        return shards;
+    }
+    
+    private Table<K, V> newTable(int shardCount) {
+        // Calculate size per shard
+        int sizePerShard = Math.max(1, maxSize / shardCount);
+        List<Cache<K, V>> shards = new ArrayList<>(shardCount);
+        
+        // Create shards
+        for (int i = 0; i < shardCount; i++) {
+            CacheConfig shardConfig = CacheConfig.builder()
+                .maxSize(sizePerShard)
+                .ttl(config.getTtl())
+                .evictionStrategy(config.getEvictionStrategy())
+                .build();
+            
+            shards.add(CacheFactory.create(shardConfig));
+        }
+        return new Table<>(shards, sizePerShard);
+    }
+    
+    /**
+     * Partitions keys by shard index; shards without keys get a null group.
+     * 
+     * @param t The table whose shards to group by
+     * @param keys The keys to partition
+     * @return One group per shard
+     */
+    private List<List<K>> groupByShard(Table<K, V> t, Collection<? extends K> keys) {
+        List<List<K>> groups = new ArrayList<>(t.shards.size());
+        for (int i = 0; i < t.shards.size(); i++) {
+            groups.add(null);
+        }
+        for (K key : keys) {
+            int index = hash(key) & t.mask;
+            List<K> group = groups.get(index);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.set(index, group);
+            }
+            group.add(key);
+        }
+        return groups;
     }
     
     /**
@@ -215,7 +784,7 @@ public class ShardedCache<K, V> implements Cache<K, V> {
      * @param n Input number
      * @return Next power of 2 >= n
      */
-    private int nextPowerOfTwo(int n) {
+    private static int nextPowerOfTwo(int n) {
         if (n <= 1) return 1;
         if ((n & (n - 1)) == 0) return n; // Already power of 2
         
@@ -225,4 +794,55 @@ public class ShardedCache<K, V> implements Cache<K, V> {
         }
         return power;
     }
+    
+    /**
+     * An operation on a single shard.
+     */
+    @FunctionalInterface
+    private interface ShardOp<K, V, R> {
+        R apply(Cache<K, V> shard);
+    }
+    
+    /**
+     * A fixed set of shards with their capacity quotas.
+     */
+    private static final class Table<K, V> {
+        private final List<Cache<K, V>> shards;
+        private final int mask;
+        private final int[] quotas;
+        private final long[] lastEvictions;
+        private volatile Migration<K, V> migration;
+        
+        Table(List<Cache<K, V>> shards, int sizePerShard) {
+            this.shards = shards;
+            this.mask = shards.size() - 1;
+            this.quotas = new int[shards.size()];
+            this.lastEvictions = new long[shards.size()];
+            Arrays.fill(quotas, sizePerShard);
+        }
+    }
+    
+    /**
+     * A resharding in progress from a table to a new one.
+     * 
+     * <p>Each old shard has a read-write lock: operations hold the read lock while using the
+     * old shard, and the shard is moved under the write lock, so no write can land in an old
+     * shard after it has been copied.
+     */
+    private static final class Migration<K, V> {
+        private final Table<K, V> target;
+        private final ReentrantReadWriteLock[] locks;
+        private final boolean[] moved; // Guarded by locks
+        private final AtomicInteger cursor = new AtomicInteger(0);
+        private final AtomicInteger completed = new AtomicInteger(0);
+        
+        Migration(Table<K, V> target, int shardCount) {
+            this.target = target;
+            this.locks = new ReentrantReadWriteLock[shardCount];
+            this.moved = new boolean[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                locks[i] = new ReentrantReadWriteLock();
+            }
+        }
+    }
 }
@@ -0,0 +1,296 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import fr.lirmm.jdm.cache.L1Stamps.Stamped;
+import fr.lirmm.jdm.cache.ThreadLocalCache.ThreadLocalCacheStats;
+
+/**
+ * L1 cache layer striped per CPU that sits in front of a shared L2 cache.
+ *
+ * <p>An alternative to {@link ThreadLocalCache} whose L1 memory does not grow with the number of
+ * threads. The L1 is a fixed set of small LRU stripes, by default one per available processor,
+ * and each thread uses the stripe selected by a hash of its thread id. With as many stripes as
+ * cores, threads running at the same time mostly land on different stripes, which keeps most of
+ * the contention-free L1 speedup, while total L1 memory stays bounded by the configured capacity
+ * whether there are ten platform threads or a million virtual threads.
+ *
+ * <p>Stripes are only locked with {@code tryLock}: when a thread's stripe is busy, it probes the
+ * next one, and if that is busy too it goes straight to L2. A read therefore never waits on
+ * another thread's L1 access.
+ *
+ * <p>Writes, invalidations and clears are visible to every thread, using the same epoch and
+ * per-key version stamps as {@link ThreadLocalCache}.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class StripedL1Cache<K, V> implements Cache<K, V> {
+
+    /** Default total number of L1 entries across all stripes */
+    private static final int DEFAULT_L1_CAPACITY = 1024;
+
+    private final Cache<K, V> backingCache;
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+    private final L1Stamps stamps = new L1Stamps();
+
+    // Statistics
+    private final AtomicLong l1Hits = new AtomicLong(0);
+    private final AtomicLong l1Misses = new AtomicLong(0);
+    private final AtomicLong l2Hits = new AtomicLong(0);
+    private final AtomicLong l2Misses = new AtomicLong(0);
+    private final AtomicLong staleL1Hits = new AtomicLong(0);
+    private final AtomicLong l1Bypasses = new AtomicLong(0);
+
+    /**
+     * Creates a striped L1 cache with the default capacity and one stripe per processor.
+     *
+     * @param backingCache The shared L2 cache
+     * @throws IllegalArgumentException if backingCache is null
+     */
+    public StripedL1Cache(Cache<K, V> backingCache) {
+        this(backingCache, DEFAULT_L1_CAPACITY);
+    }
+
+    /**
+     * Creates a striped L1 cache with one stripe per processor.
+     *
+     * @param backingCache The shared L2 cache
+     * @param l1Capacity Total L1 entries, shared across all stripes
+     * @throws IllegalArgumentException if backingCache is null or l1Capacity is not positive
+     */
+    public StripedL1Cache(Cache<K, V> backingCache, int l1Capacity) {
+        this(backingCache, l1Capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a striped L1 cache.
+     *
+     * @param backingCache The shared L2 cache
+     * @param l1Capacity Total L1 entries, shared across all stripes
+     * @param stripeCount Number of stripes, rounded up to a power of 2 and capped at l1Capacity
+     * @throws IllegalArgumentException if backingCache is null, or l1Capacity or stripeCount is
+     *     not positive
+     */
+    public StripedL1Cache(Cache<K, V> backingCache, int l1Capacity, int stripeCount) {
+        if (backingCache == null) {
+            throw new IllegalArgumentException("Backing cache must not be null");
+        }
+        if (l1Capacity <= 0) {
+            throw new IllegalArgumentException("L1 capacity must be positive, got: " + l1Capacity);
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive, got: " + stripeCount);
+        }
+        int count = Integer.highestOneBit(Math.min(stripeCount, l1Capacity) * 2 - 1);
+        if (count > l1Capacity) {
+            count >>>= 1;
+        }
+        this.backingCache = backingCache;
+        @SuppressWarnings("unchecked")
+        Stripe<K, V>[] created = (Stripe<K, V>[]) new Stripe<?, ?>[count];
+        this.stripes = created;
+        this.mask = count - 1;
+        // Spread the capacity so the stripes never hold more than l1Capacity entries in total
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(l1Capacity / count + (i < l1Capacity % count ? 1 : 0));
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        // Stamp read before the L2 write so a concurrent change is never missed
+        long before = stamps.stamp(key);
+        backingCache.put(key, value);
+        // Outdates the copies other threads hold in their stripes
+        long stamp = stamps.written(key, before);
+        Stripe<K, V> stripe = acquireStripe();
+        if (stripe != null) {
+            try {
+                if (stamp != -1) {
+                    stripe.entries.put(key, new Stamped<>(value, stamp));
+                } else {
+                    stripe.entries.remove(key);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        long stamp = stamps.stamp(key);
+        Stripe<K, V> stripe = acquireStripe();
+        if (stripe == null) {
+            l1Bypasses.incrementAndGet();
+            return getFromL2(key);
+        }
+        try {
+            Stamped<V> l1Result = stripe.entries.get(key);
+            if (l1Result != null) {
+                if (l1Result.stamp() == stamp) {
+                    l1Hits.incrementAndGet();
+                    return l1Result.value();
+                }
+                // Invalidated or cleared by some thread since it was loaded
+                staleL1Hits.incrementAndGet();
+                stripe.entries.remove(key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        l1Misses.incrementAndGet();
+        V l2Result = getFromL2(key);
+        if (l2Result != null) {
+            // Promote to L1 with the stamp read before the L2 lookup
+            Stripe<K, V> promoteTo = acquireStripe();
+            if (promoteTo != null) {
+                try {
+                    promoteTo.entries.put(key, new Stamped<>(l2Result, stamp));
+                } finally {
+                    promoteTo.lock.unlock();
+                }
+            }
+        }
+        return l2Result;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return backingCache.containsKey(key);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        backingCache.invalidate(key);
+        stamps.invalidated(key);
+    }
+
+    @Override
+    public void clear() {
+        backingCache.clear();
+        stamps.cleared();
+    }
+
+    /**
+     * Gets the current size from backing cache stats.
+     */
+    @Override
+    public int size() {
+        return (int) backingCache.getStats().getSize();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        CacheStats backingStats = backingCache.getStats();
+        return new CacheStats(
+            l1Hits.get() + l2Hits.get(),
+            l2Misses.get(),
+            backingStats.getEvictionCount(),
+            backingStats.getSize()
+        );
+    }
+
+    /**
+     * Gets detailed L1/L2 cache statistics.
+     *
+     * <p>Reads that bypassed L1 because both probed stripes were busy are counted in neither
+     * {@code l1Hits} nor {@code l1Misses}; see {@link #getL1BypassCount()}.
+     *
+     * @return Statistics breakdown
+     */
+    public ThreadLocalCacheStats getDetailedStats() {
+        return new ThreadLocalCacheStats(
+            l1Hits.get(),
+            l1Misses.get(),
+            l2Hits.get(),
+            l2Misses.get()
+        );
+    }
+
+    /**
+     * Gets the number of L1 entries found but discarded because the key was invalidated or the
+     * cache cleared since they were loaded. Each is also counted as an L1 miss.
+     *
+     * @return stale L1 hit count
+     */
+    public long getStaleL1HitCount() {
+        return staleL1Hits.get();
+    }
+
+    /**
+     * Gets the number of reads that went straight to L2 because L1 stripes were contended.
+     *
+     * @return L1 bypass count
+     */
+    public long getL1BypassCount() {
+        return l1Bypasses.get();
+    }
+
+    /**
+     * Gets the number of L1 stripes.
+     *
+     * @return Stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Gets the shared L2 cache.
+     *
+     * @return Backing cache
+     */
+    Cache<K, V> getBackingCache() {
+        return backingCache;
+    }
+
+    private V getFromL2(K key) {
+        V value = backingCache.get(key);
+        if (value != null) {
+            l2Hits.incrementAndGet();
+        } else {
+            l2Misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Locks the current thread's stripe, or the next one if it is busy.
+     *
+     * @return The locked stripe, or null if both were busy
+     */
+    private Stripe<K, V> acquireStripe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        Stripe<K, V> stripe = stripes[h & mask];
+        if (stripe.lock.tryLock()) {
+            return stripe;
+        }
+        stripe = stripes[(h + 1) & mask];
+        return stripe.lock.tryLock() ? stripe : null;
+    }
+
+    /**
+     * A small LRU map with its own lock.
+     */
+    private static final class Stripe<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Stamped<V>> entries;
+
+        Stripe(int maxSize) {
+            this.entries = new LinkedHashMap<>(maxSize * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Stamped<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+    }
+}
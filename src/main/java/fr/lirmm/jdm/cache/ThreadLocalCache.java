@@ -5,6 +5,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
+import fr.lirmm.jdm.cache.L1Stamps.Stamped;
+
 /**
  * Thread-local L1 cache layer that sits in front of a shared L2 cache.
  * 
@@ -21,9 +23,17 @@ import java.util.concurrent.atomic.AtomicLong;
  * 
  * Trade-offs:
  * - Increased memory usage (each thread has its own cache)
- * - Potential staleness (thread-local cache may be outdated)
  * - Not suitable for write-heavy workloads
  * 
+ * <p>Writes, invalidations and clears are visible to every thread. Each L1 entry records the
+ * global clear epoch and the version of its key's stripe when it was loaded; {@link #put} and
+ * {@link #invalidate} bump the stripe version and {@link #clear} bumps the epoch, so an L1 hit
+ * whose stamps no longer match is discarded and reloaded from L2. The check costs two volatile
+ * reads and no locking.
+ * 
+ * <p>Each thread gets its own L1, so total L1 memory grows with the thread count. With virtual
+ * threads or large pools, prefer {@link StripedL1Cache}, whose L1 is bounded globally.
+ * 
  * <p>This cache implements {@link AutoCloseable} for proper resource cleanup.
  * Use with try-with-resources when possible:
  * <pre>{@code
@@ -44,11 +54,14 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
     private final int threadLocalMaxSize;
     private final ThreadLocal<SoftReference<LocalCache<K, V>>> threadLocalCache;
     
+    private final L1Stamps stamps = new L1Stamps();
+    
     // Statistics
     private final AtomicLong l1Hits = new AtomicLong(0);
     private final AtomicLong l1Misses = new AtomicLong(0);
     private final AtomicLong l2Hits = new AtomicLong(0);
     private final AtomicLong l2Misses = new AtomicLong(0);
+    private final AtomicLong staleL1Hits = new AtomicLong(0);
     
     /**
      * Creates a thread-local cache with default L1 size.
@@ -83,22 +96,38 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
     
     @Override
     public void put(K key, V value) {
-        // Write to L2 cache
+        // Stamps are read before the L2 write so a concurrent change is never missed
+        long before = stamps.stamp(key);
+        
+        // Write to L2 cache, then outdate every thread's previous copy
         backingCache.put(key, value);
+        long stamp = stamps.written(key, before);
         
         // Update L1 cache for current thread
-        getOrCreateLocalCache().put(key, value);
+        LocalCache<K, V> l1Cache = getOrCreateLocalCache();
+        if (stamp != -1) {
+            l1Cache.put(key, new Stamped<>(value, stamp));
+        } else {
+            l1Cache.remove(key);
+        }
     }
     
     @Override
     public V get(K key) {
         LocalCache<K, V> l1Cache = getOrCreateLocalCache();
         
+        long stamp = stamps.stamp(key);
+        
         // Try L1 cache first
-        V l1Result = l1Cache.get(key);
+        Stamped<V> l1Result = l1Cache.get(key);
         if (l1Result != null) {
-            l1Hits.incrementAndGet();
-            return l1Result;
+            if (l1Result.stamp() == stamp) {
+                l1Hits.incrementAndGet();
+                return l1Result.value();
+            }
+            // Invalidated or cleared by some thread since it was loaded
+            staleL1Hits.incrementAndGet();
+            l1Cache.remove(key);
         }
         
         l1Misses.incrementAndGet();
@@ -107,8 +136,8 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
         V l2Result = backingCache.get(key);
         if (l2Result != null) {
             l2Hits.incrementAndGet();
-            // Promote to L1 cache
-            l1Cache.put(key, l2Result);
+            // Promote to L1 cache with the stamp read before the L2 lookup
+            l1Cache.put(key, new Stamped<>(l2Result, stamp));
             return l2Result;
         }
         
@@ -116,15 +145,23 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
         return null;
     }
     
+    @Override
+    public boolean containsKey(K key) {
+        return backingCache.containsKey(key);
+    }
+    
     @Override
     public void invalidate(K key) {
         backingCache.invalidate(key);
+        // Bumped after the L2 removal so no thread can reload the old value with the new stamp
+        stamps.invalidated(key);
         getOrCreateLocalCache().remove(key);
     }
     
     @Override
     public void clear() {
         backingCache.clear();
+        stamps.cleared(); // Discards every thread's L1 entries on their next read
         threadLocalCache.remove(); // Clear thread-local cache
     }
     
@@ -165,6 +202,16 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
             l2Misses.get()
         );
     }
+
+    /**
+     * Gets the number of L1 entries found but discarded because the key was invalidated or the
+     * cache cleared since they were loaded. Each is also counted as an L1 miss.
+     *
+     * @return stale L1 hit count
+     */
+    public long getStaleL1HitCount() {
+        return staleL1Hits.get();
+    }
     
     /**
      * Clears only the current thread's L1 cache.
@@ -190,22 +237,22 @@ public class ThreadLocalCache<K, V> implements Cache<K, V>, AutoCloseable {
      * Simple LRU cache for thread-local storage.
      */
     private static class LocalCache<K, V> {
-        private final Map<K, V> cache;
+        private final Map<K, Stamped<V>> cache;
         
         LocalCache(int maxSize) {
             this.cache = new LinkedHashMap<>(maxSize, 0.75f, true) {
                 @Override
-                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                protected boolean removeEldestEntry(Map.Entry<K, Stamped<V>> eldest) {
                     return size() > maxSize;
                 }
             };
         }
         
-        void put(K key, V value) {
+        void put(K key, Stamped<V> value) {
             cache.put(key, value);
         }
         
-        V get(K key) {
+        Stamped<V> get(K key) {
             return cache.get(key);
         }
         
@@ -1,7 +1,9 @@
 package fr.lirmm.jdm.cache;
 
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -31,7 +33,7 @@ import org.slf4j.LoggerFactory;
  * @param <K> the type of keys maintained by this cache
  * @param <V> the type of mapped values
  */
-public class TtlCache<K, V> implements Cache<K, V>, AutoCloseable {
+public class TtlCache<K, V> implements Cache<K, V>, Resizable, AutoCloseable {
 
   private static final Logger logger = LoggerFactory.getLogger(TtlCache.class);
   /** Divisor for calculating cleanup interval (TTL / CLEANUP_DIVISOR) */
@@ -41,7 +43,7 @@ public class TtlCache<K, V> implements Cache<K, V>, AutoCloseable {
   private static final boolean TRACE_ENABLED = logger.isTraceEnabled();
   private static final boolean DEBUG_ENABLED = logger.isDebugEnabled();
 
-  private final int maxSize;
+  private volatile int maxSize;
   private final long ttlMillis;
   private final Map<K, CacheEntry<V>> cache;
   private final AtomicLong hits;
@@ -130,6 +132,12 @@ public class TtlCache<K, V> implements Cache<K, V>, AutoCloseable {
     return entry.getValue();
   }
 
+  @Override
+  public boolean containsKey(K key) {
+    CacheEntry<V> entry = cache.get(key);
+    return entry != null && !entry.isExpired(System.currentTimeMillis());
+  }
+
   @Override
   public void put(K key, V value) {
     if (key == null || value == null) {
@@ -191,6 +199,23 @@ public class TtlCache<K, V> implements Cache<K, V>, AutoCloseable {
     return maxSize;
   }
 
+  /** Evicts the entries closest to expiry until the cache fits the new size. */
+  @Override
+  public void resize(int newMaxSize) {
+    if (newMaxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    maxSize = newMaxSize;
+    int excess = cache.size() - newMaxSize;
+    if (excess > 0) {
+      evictOldestEntries(excess);
+    }
+    // Entries put concurrently with the bulk eviction
+    while (cache.size() > newMaxSize) {
+      evictOldestEntry();
+    }
+  }
+
   /**
    * Returns the time-to-live duration.
    *
@@ -265,6 +290,34 @@ public class TtlCache<K, V> implements Cache<K, V>, AutoCloseable {
     }
   }
 
+  /** Evicts the entries closest to expiry in a single pass over the cache. */
+  private void evictOldestEntries(int count) {
+    // Keeps the count earliest expirations seen so far, latest at the head
+    PriorityQueue<Map.Entry<K, CacheEntry<V>>> oldest =
+        new PriorityQueue<>(
+            count,
+            Comparator.comparingLong(
+                    (Map.Entry<K, CacheEntry<V>> entry) -> entry.getValue().getExpiresAt())
+                .reversed());
+    for (Map.Entry<K, CacheEntry<V>> entry : cache.entrySet()) {
+      if (oldest.size() < count) {
+        oldest.add(entry);
+      } else if (entry.getValue().getExpiresAt() < oldest.peek().getValue().getExpiresAt()) {
+        oldest.poll();
+        oldest.add(entry);
+      }
+    }
+
+    for (Map.Entry<K, CacheEntry<V>> entry : oldest) {
+      if (cache.remove(entry.getKey(), entry.getValue())) {
+        evictions.incrementAndGet();
+      }
+    }
+    if (DEBUG_ENABLED) {
+      logger.debug("Evicted {} oldest entries", oldest.size());
+    }
+  }
+
   /**
    * A cache entry with an expiration timestamp in milliseconds.
    *
@@ -0,0 +1,69 @@
+package fr.lirmm.jdm.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes cache values to and from a binary representation.
+ *
+ * <p>Codecs are used by caches that store values outside the Java heap (see {@link
+ * OffHeapCache}). The encoded size must be known before encoding so that storage can be reserved
+ * up front.
+ *
+ * <p>Implementations must be stateless or thread-safe.
+ *
+ * @param <V> the type of values handled by this codec
+ */
+public interface ValueCodec<V> {
+
+  /**
+   * Returns the exact number of bytes {@link #encode(Object, ByteBuffer)} will write for a value.
+   *
+   * @param value the value to measure
+   * @return the encoded size in bytes
+   */
+  int encodedSize(V value);
+
+  /**
+   * Writes the value into the target buffer, starting at its current position.
+   *
+   * @param value the value to encode
+   * @param target the buffer to write into, with at least {@link #encodedSize(Object)} bytes
+   *     remaining
+   */
+  void encode(V value, ByteBuffer target);
+
+  /**
+   * Reads a value from the source buffer, starting at its current position.
+   *
+   * @param source the buffer holding the encoded value
+   * @return the decoded value
+   */
+  V decode(ByteBuffer source);
+
+  /**
+   * Returns a codec storing strings as UTF-8 bytes.
+   *
+   * @return a UTF-8 string codec
+   */
+  static ValueCodec<String> utf8() {
+    return new ValueCodec<>() {
+      @Override
+      public int encodedSize(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+      }
+
+      @Override
+      public void encode(String value, ByteBuffer target) {
+        target.put(value.getBytes(StandardCharsets.UTF_8));
+      }
+
+      @Override
+      public String decode(ByteBuffer source) {
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+}
@@ -0,0 +1,105 @@
+package fr.lirmm.jdm.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable consistent-hash ring mapping keys to members.
+ *
+ * <p>Each member is placed on the ring at {@code virtualNodes} pseudo-random points, and a key
+ * belongs to the member owning the first point at or after the key's hash. Adding or removing
+ * one member only moves the keys adjacent to its points, and virtual nodes keep the share of
+ * each member close to {@code 1 / members}.
+ *
+ * <p>Points are stored in two parallel sorted arrays and looked up by binary search, so lookups
+ * do not allocate.
+ */
+final class ConsistentHashRing {
+
+  /** Default number of points per member. */
+  static final int DEFAULT_VIRTUAL_NODES = 160;
+
+  private final String[] members;
+  private final long[] points;
+  private final int[] owners;
+
+  /**
+   * Creates a ring over the given members.
+   *
+   * @param members the distinct member identifiers
+   * @param virtualNodes the number of points per member
+   * @throws IllegalArgumentException if members is empty or contains duplicates, or
+   *     virtualNodes is less than 1
+   */
+  ConsistentHashRing(List<String> members, int virtualNodes) {
+    if (members == null || members.isEmpty()) {
+      throw new IllegalArgumentException("members must not be empty");
+    }
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("virtualNodes must be at least 1");
+    }
+    if (members.stream().distinct().count() != members.size()) {
+      throw new IllegalArgumentException("members must be distinct");
+    }
+    this.members = members.toArray(new String[0]);
+
+    int count = this.members.length * virtualNodes;
+    long[] hashes = new long[count];
+    for (int m = 0; m < this.members.length; m++) {
+      for (int v = 0; v < virtualNodes; v++) {
+        hashes[m * virtualNodes + v] = hash(this.members[m] + "#" + v);
+      }
+    }
+    // Sort points by hash while keeping track of their member
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+    this.points = new long[count];
+    this.owners = new int[count];
+    for (int i = 0; i < count; i++) {
+      points[i] = hashes[order[i]];
+      owners[i] = order[i] / virtualNodes;
+    }
+  }
+
+  /**
+   * Returns the member owning a key.
+   *
+   * @param key the key
+   * @return the owning member
+   */
+  String ownerOf(String key) {
+    long h = hash(key);
+    int index = Arrays.binarySearch(points, h);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    if (index == points.length) {
+      index = 0;
+    }
+    return members[owners[index]];
+  }
+
+  /** Returns the members of the ring, in configuration order. */
+  List<String> members() {
+    return List.of(members);
+  }
+
+  /** 64-bit FNV-1a over the UTF-8 bytes, finished with a MurmurHash3 mix for spread. */
+  static long hash(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xFF;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,456 @@
+package fr.lirmm.jdm.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * Breadth-first k-hop neighbourhood expansion over the JDM network.
+ *
+ * <p>Each frontier level is expanded in two passes: nodes whose outgoing relations are already
+ * cached are expanded immediately on the calling thread, then the remaining nodes are fetched in
+ * parallel through {@link JdmClient}, so that only true misses reach the network. The number of
+ * concurrent fetches is bounded by a semaphore: once {@code parallelism} requests are in flight,
+ * scheduling blocks until one completes.
+ *
+ * <p>Visited node ids are tracked in a primitive open-addressing set, so every node is expanded
+ * at most once per traversal.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * GraphTraversal traversal = GraphTraversal.builder(client)
+ *     .maxDepth(2)
+ *     .relationTypes(6, 9)
+ *     .minWeight(20.0)
+ *     .parallelism(16)
+ *     .build();
+ *
+ * GraphTraversal.Result result = traversal.expand(startNodeId);
+ * }</pre>
+ */
+public class GraphTraversal {
+
+  private static final Logger logger = LoggerFactory.getLogger(GraphTraversal.class);
+
+  /** Default number of concurrent fetches. */
+  public static final int DEFAULT_PARALLELISM = 16;
+
+  /** Default maximum number of visited nodes. */
+  public static final int DEFAULT_MAX_NODES = 100_000;
+
+  private final JdmClient client;
+  private final int maxDepth;
+  private final int[] relationTypes;
+  private final double minWeight;
+  private final int parallelism;
+  private final int maxNodes;
+  private final ExecutorService executor;
+
+  private GraphTraversal(Builder builder) {
+    this.client = builder.client;
+    this.maxDepth = builder.maxDepth;
+    this.relationTypes = builder.relationTypes;
+    this.minWeight = builder.minWeight;
+    this.parallelism = builder.parallelism;
+    this.maxNodes = builder.maxNodes;
+    this.executor = builder.executor;
+  }
+
+  /**
+   * Creates a new builder for a traversal over the given client.
+   *
+   * @param client the client used to fetch relations
+   * @return a new builder instance
+   * @throws IllegalArgumentException if client is null
+   */
+  public static Builder builder(JdmClient client) {
+    if (client == null) {
+      throw new IllegalArgumentException("Client must not be null");
+    }
+    return new Builder(client);
+  }
+
+  /**
+   * Expands the neighbourhood of a node up to the configured depth.
+   *
+   * @param startNodeId the id of the node to start from
+   * @return the visited nodes and traversed relations
+   * @throws JdmApiException if fetching the relations of any node fails
+   * @throws InterruptedException if interrupted while waiting for fetches
+   */
+  public Result expand(int startNodeId) throws JdmApiException, InterruptedException {
+    if (executor != null) {
+      return expand(startNodeId, executor);
+    }
+    try (ExecutorService perTraversal = Executors.newVirtualThreadPerTaskExecutor()) {
+      return expand(startNodeId, perTraversal);
+    }
+  }
+
+  private Result expand(int startNodeId, ExecutorService pool)
+      throws JdmApiException, InterruptedException {
+    IntHashSet visited = new IntHashSet();
+    visited.add(startNodeId);
+    int[] nodeIds = {startNodeId};
+    int[] depths = {0};
+    int nodeCount = 1;
+    List<PublicRelation> relations = new ArrayList<>();
+    long cacheHits = 0;
+    long fetches = 0;
+
+    int[] frontier = {startNodeId};
+    for (int depth = 0; depth < maxDepth && frontier.length > 0; depth++) {
+      List<RelationsResponse> responses = new ArrayList<>(frontier.length);
+      int[] misses = new int[frontier.length];
+      int missCount = 0;
+      for (int nodeId : frontier) {
+        RelationsResponse cached = client.peekRelationsFromById(nodeId);
+        if (cached != null) {
+          responses.add(cached);
+        } else {
+          misses[missCount++] = nodeId;
+        }
+      }
+      cacheHits += responses.size();
+      fetches += missCount;
+      responses.addAll(fetchAll(Arrays.copyOf(misses, missCount), pool));
+
+      int[] next = new int[16];
+      int nextCount = 0;
+      for (RelationsResponse response : responses) {
+        if (response.getRelations() == null) {
+          continue;
+        }
+        for (PublicRelation relation : response.getRelations()) {
+          if (!accepts(relation) || !visited.contains(relation.getNode1())) {
+            continue;
+          }
+          int target = relation.getNode2();
+          if (!visited.contains(target)) {
+            if (nodeCount == maxNodes) {
+              // Only relations between visited nodes are kept
+              continue;
+            }
+            visited.add(target);
+            if (nodeCount == nodeIds.length) {
+              nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+              depths = Arrays.copyOf(depths, nodeCount * 2);
+            }
+            nodeIds[nodeCount] = target;
+            depths[nodeCount] = depth + 1;
+            nodeCount++;
+            if (nextCount == next.length) {
+              next = Arrays.copyOf(next, nextCount * 2);
+            }
+            next[nextCount++] = target;
+          }
+          relations.add(relation);
+        }
+      }
+      logger.debug(
+          "Expanded depth {}: {} nodes ({} cached, {} fetched), next frontier {}",
+          depth, frontier.length, frontier.length - missCount, missCount, nextCount);
+      frontier = Arrays.copyOf(next, nextCount);
+    }
+
+    return new Result(
+        Arrays.copyOf(nodeIds, nodeCount),
+        Arrays.copyOf(depths, nodeCount),
+        relations,
+        cacheHits,
+        fetches);
+  }
+
+  private List<RelationsResponse> fetchAll(int[] nodeIds, ExecutorService pool)
+      throws JdmApiException, InterruptedException {
+    Semaphore permits = new Semaphore(parallelism);
+    List<Future<RelationsResponse>> futures = new ArrayList<>(nodeIds.length);
+    try {
+      for (int nodeId : nodeIds) {
+        permits.acquire();
+        futures.add(pool.submit(() -> {
+          try {
+            return client.loadRelationsFromById(nodeId);
+          } finally {
+            permits.release();
+          }
+        }));
+      }
+
+      List<RelationsResponse> responses = new ArrayList<>(nodeIds.length);
+      for (Future<RelationsResponse> future : futures) {
+        RelationsResponse response = future.get();
+        if (response != null) {
+          responses.add(response);
+        }
+      }
+      return responses;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof JdmApiException apiException) {
+        throw apiException;
+      }
+      throw new JdmApiException("Traversal fetch failed", e.getCause());
+    } finally {
+      for (Future<RelationsResponse> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private boolean accepts(PublicRelation relation) {
+    if (relation.getNode1() == null || relation.getNode2() == null) {
+      return false;
+    }
+    if (relation.getWeight() == null
+        ? minWeight != Double.NEGATIVE_INFINITY
+        : relation.getWeight() < minWeight) {
+      return false;
+    }
+    if (relationTypes.length == 0) {
+      return true;
+    }
+    return relation.getType() != null && Arrays.binarySearch(relationTypes, relation.getType()) >= 0;
+  }
+
+  /**
+   * Outcome of a traversal. Equality compares the contents of the arrays.
+   *
+   * @param nodeIds visited node ids, in discovery order, starting with the start node
+   * @param depths hop distance of each visited node from the start node
+   * @param relations traversed relations that passed the filters, all between visited nodes
+   * @param cacheHits number of nodes expanded from cached relations
+   * @param fetches number of nodes whose relations were fetched from the API
+   */
+  public record Result(
+      int[] nodeIds, int[] depths, List<PublicRelation> relations, long cacheHits, long fetches) {
+
+    /**
+     * Returns the number of visited nodes.
+     *
+     * @return the node count
+     */
+    public int nodeCount() {
+      return nodeIds.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Result other
+          && Arrays.equals(nodeIds, other.nodeIds)
+          && Arrays.equals(depths, other.depths)
+          && relations.equals(other.relations)
+          && cacheHits == other.cacheHits
+          && fetches == other.fetches;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Arrays.hashCode(nodeIds);
+      result = 31 * result + Arrays.hashCode(depths);
+      result = 31 * result + relations.hashCode();
+      result = 31 * result + Long.hashCode(cacheHits);
+      return 31 * result + Long.hashCode(fetches);
+    }
+
+    @Override
+    public String toString() {
+      return "Result[nodeIds="
+          + Arrays.toString(nodeIds)
+          + ", depths="
+          + Arrays.toString(depths)
+          + ", relations="
+          + relations
+          + ", cacheHits="
+          + cacheHits
+          + ", fetches="
+          + fetches
+          + "]";
+    }
+  }
+
+  /** Builder for GraphTraversal. */
+  public static class Builder {
+    private final JdmClient client;
+    private int maxDepth = 1;
+    private int[] relationTypes = new int[0];
+    private double minWeight = Double.NEGATIVE_INFINITY;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int maxNodes = DEFAULT_MAX_NODES;
+    private ExecutorService executor;
+
+    private Builder(JdmClient client) {
+      this.client = client;
+    }
+
+    /**
+     * Sets the number of hops to expand from the start node.
+     *
+     * @param maxDepth the maximum depth
+     * @return this builder
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public Builder maxDepth(int maxDepth) {
+      if (maxDepth < 0) {
+        throw new IllegalArgumentException("maxDepth must not be negative");
+      }
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * Restricts the traversal to the given relation types. By default all types are followed.
+     *
+     * @param types the relation type ids to follow
+     * @return this builder
+     */
+    public Builder relationTypes(int... types) {
+      this.relationTypes = types.clone();
+      Arrays.sort(this.relationTypes);
+      return this;
+    }
+
+    /**
+     * Only follows relations with at least the given weight. Negative relations are followed by
+     * default.
+     *
+     * @param minWeight the minimum relation weight
+     * @return this builder
+     */
+    public Builder minWeight(double minWeight) {
+      this.minWeight = minWeight;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent fetches.
+     *
+     * @param parallelism the maximum number of in-flight requests
+     * @return this builder
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public Builder parallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("parallelism must be at least 1");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of nodes to visit. Expansion stops discovering new nodes once the
+     * limit is reached, and relations to nodes beyond the limit are not returned.
+     *
+     * @param maxNodes the maximum number of visited nodes
+     * @return this builder
+     * @throws IllegalArgumentException if maxNodes is less than 1
+     */
+    public Builder maxNodes(int maxNodes) {
+      if (maxNodes < 1) {
+        throw new IllegalArgumentException("maxNodes must be at least 1");
+      }
+      this.maxNodes = maxNodes;
+      return this;
+    }
+
+    /**
+     * Sets the executor used for fetches. By default each traversal runs its fetches on virtual
+     * threads.
+     *
+     * @param executor the executor, not shut down by the traversal
+     * @return this builder
+     */
+    public Builder executor(ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Builds the GraphTraversal instance.
+     *
+     * @return a new GraphTraversal
+     */
+    public GraphTraversal build() {
+      return new GraphTraversal(this);
+    }
+  }
+
+  /** Open-addressing hash set of primitive ints with linear probing. */
+  private static final class IntHashSet {
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] slots = newSlots(64);
+    private int size;
+    private boolean containsEmpty;
+
+    boolean add(int value) {
+      if (value == EMPTY) {
+        boolean added = !containsEmpty;
+        containsEmpty = true;
+        return added;
+      }
+      if ((size + 1) * 2 > slots.length) {
+        resize();
+      }
+      int mask = slots.length - 1;
+      for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+        if (slots[i] == value) {
+          return false;
+        }
+        if (slots[i] == EMPTY) {
+          slots[i] = value;
+          size++;
+          return true;
+        }
+      }
+    }
+
+    boolean contains(int value) {
+      if (value == EMPTY) {
+        return containsEmpty;
+      }
+      int mask = slots.length - 1;
+      for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+        if (slots[i] == value) {
+          return true;
+        }
+        if (slots[i] == EMPTY) {
+          return false;
+        }
+      }
+    }
+
+    private void resize() {
+      int[] old = slots;
+      slots = newSlots(old.length * 2);
+      size = 0;
+      for (int value : old) {
+        if (value != EMPTY) {
+          add(value);
+        }
+      }
+    }
+
+    private static int[] newSlots(int capacity) {
+      int[] slots = new int[capacity];
+      Arrays.fill(slots, EMPTY);
+      return slots;
+    }
+
+    private static int mix(int value) {
+      int h = value * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+}
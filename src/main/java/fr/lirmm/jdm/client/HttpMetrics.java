@@ -0,0 +1,110 @@
+package fr.lirmm.jdm.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * Collects HTTP-level timings through OkHttp call events.
+ *
+ * <p>The queue time of a call is measured from call start to connection acquisition. It covers
+ * waiting in the dispatcher (for asynchronous calls), waiting for a pooled connection, and
+ * opening a new connection when none is idle. A growing queue time with a flat call time means
+ * the HTTP client, not the API or the cache, is the bottleneck.
+ *
+ * <p>Response body sizes are counted twice: as read from the network, before OkHttp's
+ * transparent gzip decoding, and as decoded by the client. Their ratio shows what compression
+ * saves on the wire.
+ */
+final class HttpMetrics implements EventListener.Factory {
+
+  private final AtomicLong calls = new AtomicLong(0);
+  private final AtomicLong failedCalls = new AtomicLong(0);
+  private final AtomicLong connectionsOpened = new AtomicLong(0);
+  private final AtomicLong http2Connections = new AtomicLong(0);
+  private final AtomicLong totalQueueNanos = new AtomicLong(0);
+  private final AtomicLong maxQueueNanos = new AtomicLong(0);
+  private final AtomicLong totalCallNanos = new AtomicLong(0);
+  private final AtomicLong wireBytes = new AtomicLong(0);
+  private final AtomicLong decodedBytes = new AtomicLong(0);
+
+  @Override
+  public EventListener create(Call call) {
+    return new CallListener();
+  }
+
+  /** Records the size of a response body after content decoding. */
+  void recordDecodedBytes(long bytes) {
+    decodedBytes.addAndGet(bytes);
+  }
+
+  HttpStats snapshot(int queuedCalls, int runningCalls) {
+    return new HttpStats(
+        calls.get(),
+        failedCalls.get(),
+        connectionsOpened.get(),
+        http2Connections.get(),
+        totalQueueNanos.get(),
+        maxQueueNanos.get(),
+        totalCallNanos.get(),
+        wireBytes.get(),
+        decodedBytes.get(),
+        queuedCalls,
+        runningCalls);
+  }
+
+  /** Per-call listener; OkHttp creates one for every call. */
+  private final class CallListener extends EventListener {
+    private long callStartNanos;
+    private boolean queueRecorded;
+
+    @Override
+    public void callStart(Call call) {
+      callStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(
+        Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+      connectionsOpened.incrementAndGet();
+      if (protocol == Protocol.HTTP_2 || protocol == Protocol.H2_PRIOR_KNOWLEDGE) {
+        http2Connections.incrementAndGet();
+      }
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+      // Retries and redirects acquire again; only the first wait is queueing
+      if (!queueRecorded) {
+        queueRecorded = true;
+        long queued = System.nanoTime() - callStartNanos;
+        totalQueueNanos.addAndGet(queued);
+        maxQueueNanos.accumulateAndGet(queued, Math::max);
+      }
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+      wireBytes.addAndGet(byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+      calls.incrementAndGet();
+      totalCallNanos.addAndGet(System.nanoTime() - callStartNanos);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+      calls.incrementAndGet();
+      failedCalls.incrementAndGet();
+      totalCallNanos.addAndGet(System.nanoTime() - callStartNanos);
+    }
+  }
+}
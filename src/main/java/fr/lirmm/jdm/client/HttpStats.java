@@ -0,0 +1,58 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about the HTTP traffic of a {@link JdmClient}.
+ *
+ * @param calls number of completed or failed HTTP calls
+ * @param failedCalls number of calls that failed with an I/O error
+ * @param connectionsOpened number of new connections established
+ * @param http2Connections number of new connections that negotiated HTTP/2
+ * @param totalQueueNanos total time calls spent waiting for a connection, including dispatcher
+ *     queueing and connection setup
+ * @param maxQueueNanos longest time a single call waited for a connection
+ * @param totalCallNanos total duration of all calls
+ * @param responseWireBytes response body bytes read from the network, before content decoding
+ * @param responseDecodedBytes response body bytes after content decoding
+ * @param queuedCalls number of asynchronous calls currently waiting in the dispatcher
+ * @param runningCalls number of calls currently running
+ */
+public record HttpStats(
+    long calls,
+    long failedCalls,
+    long connectionsOpened,
+    long http2Connections,
+    long totalQueueNanos,
+    long maxQueueNanos,
+    long totalCallNanos,
+    long responseWireBytes,
+    long responseDecodedBytes,
+    int queuedCalls,
+    int runningCalls) {
+
+  /**
+   * Returns the average time a call waited for a connection.
+   *
+   * @return the average queue time in milliseconds, or 0.0 if no call completed
+   */
+  public double averageQueueMillis() {
+    return calls == 0 ? 0.0 : totalQueueNanos / 1_000_000.0 / calls;
+  }
+
+  /**
+   * Returns the average call duration.
+   *
+   * @return the average call time in milliseconds, or 0.0 if no call completed
+   */
+  public double averageCallMillis() {
+    return calls == 0 ? 0.0 : totalCallNanos / 1_000_000.0 / calls;
+  }
+
+  /**
+   * Returns how many decoded bytes each byte on the wire carried.
+   *
+   * @return the response compression ratio, or 1.0 if no body was read
+   */
+  public double compressionRatio() {
+    return responseWireBytes == 0 ? 1.0 : (double) responseDecodedBytes / responseWireBytes;
+  }
+}
@@ -0,0 +1,63 @@
+package fr.lirmm.jdm.client;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * An {@link InvalidationBus} connecting clients in the same JVM, mainly for tests.
+ *
+ * <p>A new instance starts a group; {@link #connect()} adds another member to the same group.
+ * Batches are delivered synchronously, on the publishing thread, to every other member.
+ *
+ * <pre>{@code
+ * InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+ * JdmClient first = JdmClient.builder().invalidationBus(bus).build();
+ * JdmClient second = JdmClient.builder().invalidationBus(bus.connect()).build();
+ * }</pre>
+ */
+public final class InMemoryInvalidationBus implements InvalidationBus {
+
+  private final Set<InMemoryInvalidationBus> group;
+  private volatile Listener listener;
+
+  /** Creates the first member of a new group. */
+  public InMemoryInvalidationBus() {
+    this(new CopyOnWriteArraySet<>());
+  }
+
+  private InMemoryInvalidationBus(Set<InMemoryInvalidationBus> group) {
+    this.group = group;
+    group.add(this);
+  }
+
+  /**
+   * Creates another member of this group.
+   *
+   * @return a new bus endpoint sharing this group
+   */
+  public InMemoryInvalidationBus connect() {
+    return new InMemoryInvalidationBus(group);
+  }
+
+  @Override
+  public void subscribe(Listener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void publish(List<Invalidation> batch) {
+    List<Invalidation> delivered = List.copyOf(batch);
+    for (InMemoryInvalidationBus member : group) {
+      Listener target = member.listener;
+      if (member != this && target != null) {
+        target.onInvalidations(delivered);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    group.remove(this);
+  }
+}
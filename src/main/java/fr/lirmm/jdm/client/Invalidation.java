@@ -0,0 +1,20 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * A cache invalidation exchanged between {@link JdmClient} instances.
+ *
+ * @param key the invalidated cache key, or null to clear the whole cache
+ * @param version the hybrid logical clock time of the invalidation; cached values loaded at or
+ *     after this time are newer and are kept
+ */
+public record Invalidation(String key, long version) {
+
+  /**
+   * Returns whether this invalidation clears the whole cache.
+   *
+   * @return true for a clear, false for a single key
+   */
+  public boolean isClear() {
+    return key == null;
+  }
+}
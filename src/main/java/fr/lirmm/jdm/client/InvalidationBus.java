@@ -0,0 +1,49 @@
+package fr.lirmm.jdm.client;
+
+import java.util.List;
+
+/**
+ * Transports cache invalidations between {@link JdmClient} instances.
+ *
+ * <p>Clients publish batches of already coalesced invalidations and receive the batches
+ * published by the other members. A bus never delivers a client's own batches back to it.
+ * Delivery is best effort: a lost invalidation only leaves an entry to expire through the
+ * cache's normal eviction.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see InMemoryInvalidationBus
+ * @see TcpInvalidationBus
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+  /** Receives batches published by other members. */
+  @FunctionalInterface
+  interface Listener {
+
+    /**
+     * Called with each batch received, in publication order for a given sender.
+     *
+     * @param batch the invalidations, in the order they were published
+     */
+    void onInvalidations(List<Invalidation> batch);
+  }
+
+  /**
+   * Registers the listener that receives remote batches. A bus has at most one listener.
+   *
+   * @param listener the listener
+   */
+  void subscribe(Listener listener);
+
+  /**
+   * Sends a batch to every other member.
+   *
+   * @param batch the invalidations to send
+   */
+  void publish(List<Invalidation> batch);
+
+  /** Stops sending and receiving. */
+  @Override
+  void close();
+}
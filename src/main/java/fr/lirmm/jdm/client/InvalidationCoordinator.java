@@ -0,0 +1,277 @@
+package fr.lirmm.jdm.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import fr.lirmm.jdm.cache.Cache;
+import fr.lirmm.jdm.cache.LruCache;
+
+/**
+ * Keeps a client's cache coherent with the other members of an {@link InvalidationBus}.
+ *
+ * <p>Every load and invalidation is stamped with a hybrid logical clock: wall-clock milliseconds
+ * in the high bits and a counter in the low 16 bits, advanced past every remote stamp received.
+ * A received invalidation only removes an entry loaded before it, so a late or reordered
+ * invalidation never removes a newer value. Conversely, the latest invalidation of each key is
+ * remembered as a tombstone, and a load that started before it is not cached when it completes.
+ *
+ * <p>The clock only orders events causally when stamps travel between the members involved. A
+ * writer learns the reader's clock only from the invalidations the reader publishes, not from
+ * its loads. So if the writer's wall clock lags the reader's by more than the time between the
+ * reader's load and the writer's update, the invalidation is stamped earlier than the load. It
+ * is then counted in {@code ignoredAsStale} and the outdated entry stays until it expires or is
+ * evicted. Keep the members' clocks synchronized, for example with NTP, well within the typical
+ * delay between a read and a later update of the same key.
+ *
+ * <p>Local invalidations are queued and coalesced (one entry per key, and a clear supersedes
+ * everything queued before it), then published in batches of at most {@code maxBatchSize} after
+ * at most {@code linger}.
+ */
+final class InvalidationCoordinator implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(InvalidationCoordinator.class);
+  private static final int LOGICAL_BITS = 16;
+
+  /** The local cache operations applied for remote invalidations. */
+  interface Target {
+    void invalidate(String key);
+
+    void clear();
+  }
+
+  private final InvalidationBus bus;
+  private final Target target;
+  private final int maxBatchSize;
+  private final long lingerNanos;
+  private final AtomicLong clock = new AtomicLong(0);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Cache<String, Long> loadStamps;
+  private final Cache<String, Long> tombstones;
+  private final ScheduledExecutorService flusher;
+  private final AtomicLong published = new AtomicLong(0);
+  private final AtomicLong coalesced = new AtomicLong(0);
+  private final AtomicLong batchesSent = new AtomicLong(0);
+  private final AtomicLong received = new AtomicLong(0);
+  private final AtomicLong ignoredAsStale = new AtomicLong(0);
+  private long clearedAt;
+
+  // Guarded by pending
+  private final Map<String, Long> pending = new LinkedHashMap<>();
+  private long pendingClear;
+  private boolean flushScheduled;
+
+  InvalidationCoordinator(
+      InvalidationBus bus, Target target, int maxBatchSize, Duration linger, int trackedKeys) {
+    this.bus = bus;
+    this.target = target;
+    this.maxBatchSize = maxBatchSize;
+    this.lingerNanos = linger.toNanos();
+    this.loadStamps = new LruCache<>(trackedKeys);
+    this.tombstones = new LruCache<>(trackedKeys);
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "JDM-Invalidation-Flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    bus.subscribe(this::onInvalidations);
+  }
+
+  /** Returns the stamp to pass to {@link #commitLoad} once the load completes. */
+  long beginLoad() {
+    return tick();
+  }
+
+  /**
+   * Stores a loaded value unless the key was invalidated or the cache cleared since the load
+   * started.
+   *
+   * @param store stores the value in the local cache
+   * @return whether the value was stored
+   */
+  boolean commitLoad(String key, long loadStamp, Runnable store) {
+    lock.lock();
+    try {
+      Long tombstone = tombstones.get(key);
+      if ((tombstone != null && tombstone > loadStamp) || clearedAt > loadStamp) {
+        return false;
+      }
+      loadStamps.put(key, loadStamp);
+      store.run();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Records a local invalidation and queues it for broadcast. */
+  void invalidated(String key) {
+    long version = tick();
+    lock.lock();
+    try {
+      tombstones.put(key, version);
+      loadStamps.invalidate(key);
+    } finally {
+      lock.unlock();
+    }
+    synchronized (pending) {
+      published.incrementAndGet();
+      if (pending.put(key, version) != null) {
+        coalesced.incrementAndGet();
+      }
+      scheduleFlush(pending.size() >= maxBatchSize);
+    }
+  }
+
+  /** Records a local clear and queues it for broadcast. */
+  void cleared() {
+    long version = tick();
+    lock.lock();
+    try {
+      clearedAt = version;
+      loadStamps.clear();
+    } finally {
+      lock.unlock();
+    }
+    synchronized (pending) {
+      published.incrementAndGet();
+      coalesced.addAndGet(pending.size() + (pendingClear != 0 ? 1 : 0));
+      pending.clear();
+      pendingClear = version;
+      scheduleFlush(false);
+    }
+  }
+
+  InvalidationStats getStats() {
+    return new InvalidationStats(
+        published.get(),
+        coalesced.get(),
+        batchesSent.get(),
+        received.get(),
+        ignoredAsStale.get());
+  }
+
+  /** Publishes queued invalidations, then stops the flusher and closes the bus. */
+  @Override
+  public void close() {
+    // Under the lock, so that no invalidation is queued without a flush to publish it
+    synchronized (pending) {
+      flusher.shutdown();
+    }
+    boolean more;
+    do {
+      flush();
+      synchronized (pending) {
+        more = !pending.isEmpty();
+      }
+    } while (more);
+    bus.close();
+  }
+
+  private void onInvalidations(List<Invalidation> batch) {
+    lock.lock();
+    try {
+      for (Invalidation invalidation : batch) {
+        observe(invalidation.version());
+        if (invalidation.isClear()) {
+          applyClear(invalidation.version());
+        } else {
+          applyInvalidation(invalidation.key(), invalidation.version());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    // Counted once applied, so a caller seeing the count also sees the invalidations
+    received.addAndGet(batch.size());
+  }
+
+  private void applyClear(long version) {
+    if (version <= clearedAt) {
+      ignoredAsStale.incrementAndGet();
+      return;
+    }
+    clearedAt = version;
+    loadStamps.clear();
+    target.clear();
+  }
+
+  private void applyInvalidation(String key, long version) {
+    Long tombstone = tombstones.get(key);
+    if (tombstone == null || tombstone < version) {
+      tombstones.put(key, version);
+    }
+    Long loadStamp = loadStamps.get(key);
+    // Also true when the writer's wall clock lags ours, see the class comment
+    if (loadStamp != null && loadStamp > version) {
+      ignoredAsStale.incrementAndGet();
+      return;
+    }
+    loadStamps.invalidate(key);
+    target.invalidate(key);
+  }
+
+  private void scheduleFlush(boolean immediately) {
+    if (flusher.isShutdown()) {
+      return;
+    }
+    if (immediately) {
+      flusher.execute(this::flush);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      flusher.schedule(this::flush, lingerNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void flush() {
+    List<Invalidation> batch;
+    synchronized (pending) {
+      flushScheduled = false;
+      if (pending.isEmpty() && pendingClear == 0) {
+        return;
+      }
+      batch = new ArrayList<>(Math.min(pending.size() + 1, maxBatchSize));
+      if (pendingClear != 0) {
+        batch.add(new Invalidation(null, pendingClear));
+        pendingClear = 0;
+      }
+      Iterator<Map.Entry<String, Long>> entries = pending.entrySet().iterator();
+      while (entries.hasNext() && batch.size() < maxBatchSize) {
+        Map.Entry<String, Long> entry = entries.next();
+        batch.add(new Invalidation(entry.getKey(), entry.getValue()));
+        entries.remove();
+      }
+      if (!pending.isEmpty()) {
+        scheduleFlush(true);
+      }
+    }
+    try {
+      bus.publish(batch);
+      batchesSent.incrementAndGet();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to publish {} invalidations", batch.size(), e);
+    }
+  }
+
+  private long tick() {
+    long physical = System.currentTimeMillis() << LOGICAL_BITS;
+    return clock.updateAndGet(last -> Math.max(last + 1, physical));
+  }
+
+  private void observe(long remote) {
+    clock.accumulateAndGet(remote, Math::max);
+  }
+}
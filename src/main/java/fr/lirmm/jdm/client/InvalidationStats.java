@@ -0,0 +1,16 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about invalidations exchanged through an {@link InvalidationBus}.
+ *
+ * @param published number of local invalidations queued for broadcast
+ * @param coalesced number of queued invalidations merged into another one for the same key, or
+ *     superseded by a clear, before being sent
+ * @param batchesSent number of batches published
+ * @param received number of invalidations received from other members
+ * @param ignoredAsStale number of received invalidations that did not remove the local entry
+ *     because it was loaded after the invalidation, or appears to have been because the sender's
+ *     clock lags this member's
+ */
+public record InvalidationStats(
+    long published, long coalesced, long batchesSent, long received, long ignoredAsStale) {}
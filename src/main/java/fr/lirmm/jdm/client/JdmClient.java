@@ -1,25 +1,46 @@
 package fr.lirmm.jdm.client;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import fr.lirmm.jdm.cache.Cache;
 import fr.lirmm.jdm.cache.CacheConfig;
+import fr.lirmm.jdm.cache.ClockCache;
+import fr.lirmm.jdm.cache.ClockProCache;
+import fr.lirmm.jdm.cache.CompressedCache;
+import fr.lirmm.jdm.cache.CostAwareCache;
+import fr.lirmm.jdm.cache.GdsfCache;
 import fr.lirmm.jdm.cache.LruCache;
+import fr.lirmm.jdm.cache.ShardedCache;
 import fr.lirmm.jdm.cache.TtlCache;
 import fr.lirmm.jdm.client.model.PublicNode;
 import fr.lirmm.jdm.client.model.PublicNodeType;
+import fr.lirmm.jdm.client.model.PublicRelation;
 import fr.lirmm.jdm.client.model.PublicRelationType;
 import fr.lirmm.jdm.client.model.RelationsResponse;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 
@@ -44,32 +65,192 @@ import okhttp3.Response;
  * List<PublicNodeType> nodeTypes = client.getNodeTypes();
  * }</pre>
  */
-public class JdmClient {
+public class JdmClient implements AutoCloseable {
 
   private static final Logger logger = LoggerFactory.getLogger(JdmClient.class);
   private static final String DEFAULT_BASE_URL = "https://jdm-api.demo.lirmm.fr";
+  private static final int DEFAULT_NODE_STORE_SIZE = 10_000;
+  private static final int DEFAULT_PREFETCH_BUDGET = 64;
+  private static final int DEFAULT_MAX_REQUESTS = 256;
+  private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 64;
+  private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 64;
+  private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+  private static final int DEFAULT_INVALIDATION_BATCH_SIZE = 256;
+  private static final Duration DEFAULT_INVALIDATION_LINGER = Duration.ofMillis(10);
+  private static final String NODE_ID_KEY_PREFIX = "node:id:";
+  private static final String NODE_NAME_KEY_PREFIX = "node:name:";
+  private static final String RELATIONS_FROM_KEY_PREFIX = "relations:from:";
+  private static final String RELATIONS_FROM_ID_KEY_PREFIX = "relations:from:id:";
+  private static final String RELATIONS_TO_KEY_PREFIX = "relations:to:";
+  private static final String RELATIONS_TO_SEPARATOR = ":to:";
+  private static final String REFINEMENTS_KEY_PREFIX = "refinements:";
+  private static final String NODE_TYPES_KEY = "node_types";
+  private static final String RELATION_TYPES_KEY = "relation_types";
+  // Sizes values for cost-aware caches; it only counts bytes, so it needs no interner
+  private static final ModelCodec SIZER = new ModelCodec();
 
   private final String baseUrl;
   private final OkHttpClient httpClient;
+  private final HttpMetrics httpMetrics;
   private final ObjectMapper objectMapper;
   private final Cache<String, Object> cache;
+  private final StringInterner stringInterner;
+  private final NodeStore nodeStore;
+  private final RelationIndex relationIndex;
+  private final Prefetcher prefetcher;
+  private final Revalidator revalidator;
+  private final NegativeCache negativeCache;
+  private final NameFilter nameFilter;
+  private final NodeBatcher nodeBatcher;
+  private final PeerTier peerTier;
+  private final InvalidationCoordinator invalidations;
+  private final boolean prefetchOnNodeLookup;
+  private final boolean compression;
 
   private JdmClient(Builder builder) {
     this.baseUrl = builder.baseUrl;
-    this.httpClient = builder.httpClient != null ? builder.httpClient : new OkHttpClient();
+    this.httpMetrics = new HttpMetrics();
+    this.httpClient = buildHttpClient(builder, httpMetrics);
     this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
+    // Deduplicate node names and help texts shared by many cached responses
+    this.stringInterner =
+        builder.internTableSize > 0 ? new StringInterner(builder.internTableSize) : null;
+    if (stringInterner != null) {
+      objectMapper.registerModule(
+          new SimpleModule("StringInterning")
+              .addDeserializer(String.class, new InterningStringDeserializer(stringInterner)));
+    }
+
     // Initialize cache based on configuration
     CacheConfig config = builder.cacheConfig != null ? builder.cacheConfig : CacheConfig.defaultConfig();
-    this.cache =
-        switch (config.getEvictionStrategy()) {
-          case LRU -> new LruCache<>(config);
-          case TTL -> new TtlCache<>(config);
-        };
+    if (builder.compressedHotSize > 0) {
+      this.cache =
+          new CompressedCache<>(config, builder.compressedHotSize, new ModelCodec(stringInterner));
+    } else {
+      this.cache =
+          switch (config.getEvictionStrategy()) {
+            case LRU -> new LruCache<>(config);
+            // Expired entries stay one more TTL, to be revalidated rather than refetched
+            case TTL ->
+                builder.conditionalRevalidation
+                    ? new TtlCache<>(config.getMaxSize(), config.getTtl().multipliedBy(2))
+                    : new TtlCache<>(config);
+            case CLOCK -> new ClockCache<>(config);
+            case CLOCK_PRO -> new ClockProCache<>(config);
+            // ARC locks on every read, so shards keep it from serializing requests
+            case ARC -> new ShardedCache<>(config);
+            // Not sharded: priorities are only comparable within one cache
+            case GDSF -> new GdsfCache<>(config);
+          };
+    }
+    this.nodeStore =
+        builder.nodeStoreSize > 0
+            ? new NodeStore(
+                CacheConfig.builder()
+                    .maxSize(builder.nodeStoreSize)
+                    .ttl(config.getTtl())
+                    .evictionStrategy(config.getEvictionStrategy())
+                    .build())
+            : null;
+    this.relationIndex =
+        builder.relationIndexSize > 0 ? new RelationIndex(builder.relationIndexSize) : null;
+    this.prefetchOnNodeLookup = builder.prefetchOnNodeLookup;
+    this.compression = builder.compression;
+    this.prefetcher =
+        builder.prefetchTopK > 0 || prefetchOnNodeLookup
+            ? new Prefetcher(builder.prefetchTopK, builder.prefetchBudget)
+            : null;
+    this.revalidator =
+        builder.conditionalRevalidation && cache instanceof TtlCache
+            ? new Revalidator(config.getMaxSize(), config.getTtl())
+            : null;
+    this.negativeCache =
+        builder.negativeCacheSize > 0
+            ? new NegativeCache(builder.negativeCacheSize, builder.negativeCacheTtl.toNanos())
+            : null;
+    this.nameFilter = builder.nameFilter;
+    this.nodeBatcher =
+        builder.nodeBatchSize > 0
+            ? new NodeBatcher(this::fetchNodeAsync, builder.nodeBatchSize, builder.nodeBatchLinger)
+            : null;
+    this.peerTier =
+        builder.peerSelf != null
+            ? new PeerTier(
+                builder.peerSelf,
+                builder.peerMembers,
+                new ModelCodec(stringInterner),
+                this::serveForPeer)
+            : null;
+    this.invalidations =
+        builder.invalidationBus != null
+            ? new InvalidationCoordinator(
+                builder.invalidationBus,
+                new InvalidationCoordinator.Target() {
+                  @Override
+                  public void invalidate(String key) {
+                    invalidateLocally(key);
+                  }
+
+                  @Override
+                  public void clear() {
+                    clearLocally();
+                  }
+                },
+                builder.invalidationBatchSize,
+                builder.invalidationLinger,
+                config.getMaxSize())
+            : null;
 
     logger.info("JdmClient initialized with baseUrl={}, cache={}", baseUrl, config.getEvictionStrategy());
   }
 
+  /**
+   * Builds the HTTP client from the builder settings.
+   *
+   * <p>A caller-supplied client keeps its own settings unless they are explicitly overridden;
+   * otherwise the high-throughput defaults apply. OkHttp's own defaults (5 idle connections, 5
+   * async requests per host) cause connection churn with hundreds of caller threads.
+   */
+  private static OkHttpClient buildHttpClient(Builder builder, HttpMetrics metrics) {
+    boolean custom = builder.httpClient != null;
+    OkHttpClient.Builder http =
+        custom ? builder.httpClient.newBuilder() : new OkHttpClient.Builder();
+
+    if (!custom || builder.maxRequests != null || builder.maxRequestsPerHost != null) {
+      Dispatcher dispatcher = new Dispatcher();
+      dispatcher.setMaxRequests(
+          builder.maxRequests != null ? builder.maxRequests : DEFAULT_MAX_REQUESTS);
+      dispatcher.setMaxRequestsPerHost(
+          builder.maxRequestsPerHost != null
+              ? builder.maxRequestsPerHost
+              : DEFAULT_MAX_REQUESTS_PER_HOST);
+      http.dispatcher(dispatcher);
+    }
+    if (!custom || builder.maxIdleConnections != null || builder.keepAlive != null) {
+      int maxIdle =
+          builder.maxIdleConnections != null
+              ? builder.maxIdleConnections
+              : DEFAULT_MAX_IDLE_CONNECTIONS;
+      Duration keepAlive = builder.keepAlive != null ? builder.keepAlive : DEFAULT_KEEP_ALIVE;
+      http.connectionPool(new ConnectionPool(maxIdle, keepAlive.toMillis(), TimeUnit.MILLISECONDS));
+    }
+    if (builder.http2 != null) {
+      http.protocols(
+          builder.http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1));
+    }
+    if (builder.connectTimeout != null) {
+      http.connectTimeout(builder.connectTimeout);
+    }
+    if (builder.readTimeout != null) {
+      http.readTimeout(builder.readTimeout);
+    }
+    if (builder.callTimeout != null) {
+      http.callTimeout(builder.callTimeout);
+    }
+    return http.eventListenerFactory(metrics).build();
+  }
+
   /**
    * Creates a new builder for JdmClient.
    *
@@ -91,23 +272,38 @@ public class JdmClient {
   /**
    * Retrieves a node by its ID.
    *
+   * <p>Nodes already seen in another response (for example as a neighbour in a relations
+   * response) are served from the node store without an HTTP request.
+   *
    * @param nodeId the node ID
    * @return the node, or null if not found
+   * @throws JdmNotFoundException if the API reports that the node does not exist
    * @throws JdmApiException if the API request fails
    */
   public PublicNode getNodeById(int nodeId) throws JdmApiException {
-    String cacheKey = "node:id:" + nodeId;
+    String cacheKey = NODE_ID_KEY_PREFIX + nodeId;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/node_by_id/" + nodeId;
-      return fetchJson(url, PublicNode.class);
+      PublicNode known = nodeStore != null ? nodeStore.getById(nodeId) : null;
+      if (known != null) {
+        return known;
+      }
+      PublicNode fetched =
+          nodeBatcher != null && (peerTier == null || peerTier.isLocal(cacheKey))
+              ? nodeBatcher.get(nodeId)
+              : fetchJson(cacheKey, "/v0/node_by_id/" + nodeId, ResponseType.NODE);
+      return normalize(fetched);
     });
   }
 
   /**
    * Retrieves a node by its name.
    *
+   * <p>Nodes already seen in another response are served from the node store without an HTTP
+   * request.
+   *
    * @param nodeName the node name
    * @return the node, or null if not found
+   * @throws JdmNotFoundException if the API reports that the node does not exist
    * @throws JdmApiException if the API request fails
    * @throws IllegalArgumentException if nodeName is null or empty
    */
@@ -115,11 +311,21 @@ public class JdmClient {
     if (nodeName == null || nodeName.trim().isEmpty()) {
       throw new IllegalArgumentException("Node name must not be null or empty");
     }
-    String cacheKey = "node:name:" + nodeName;
-    return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/node_by_name/" + nodeName;
-      return fetchJson(url, PublicNode.class);
+    requireKnownName(nodeName);
+    String cacheKey = NODE_NAME_KEY_PREFIX + nodeName;
+    PublicNode node = getCached(cacheKey, () -> {
+      PublicNode known = nodeStore != null ? nodeStore.getByName(nodeName) : null;
+      if (known != null) {
+        return known;
+      }
+      PublicNode fetched =
+          fetchJson(cacheKey, "/v0/node_by_name/" + nodeName, ResponseType.NODE);
+      return normalize(fetched);
     });
+    if (node != null && prefetchOnNodeLookup) {
+      prefetchRelationsFrom(nodeName);
+    }
+    return node;
   }
 
   /**
@@ -134,10 +340,12 @@ public class JdmClient {
     if (nodeName == null || nodeName.trim().isEmpty()) {
       throw new IllegalArgumentException("Node name must not be null or empty");
     }
-    String cacheKey = "refinements:" + nodeName;
+    requireKnownName(nodeName);
+    String cacheKey = REFINEMENTS_KEY_PREFIX + nodeName;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/refinements/" + nodeName;
-      return fetchJsonList(url, new TypeReference<List<PublicNode>>() {});
+      List<PublicNode> nodes =
+          fetchJson(cacheKey, "/v0/refinements/" + nodeName, ResponseType.NODE_LIST);
+      return nodeStore != null ? nodeStore.normalize(nodes) : nodes;
     });
   }
 
@@ -148,10 +356,9 @@ public class JdmClient {
    * @throws JdmApiException if the API request fails
    */
   public List<PublicNodeType> getNodeTypes() throws JdmApiException {
-    String cacheKey = "node_types";
+    String cacheKey = NODE_TYPES_KEY;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/nodes_types";
-      return fetchJsonList(url, new TypeReference<List<PublicNodeType>>() {});
+      return fetchJson(cacheKey, "/v0/nodes_types", ResponseType.NODE_TYPES);
     });
   }
 
@@ -162,10 +369,9 @@ public class JdmClient {
    * @throws JdmApiException if the API request fails
    */
   public List<PublicRelationType> getRelationTypes() throws JdmApiException {
-    String cacheKey = "relation_types";
+    String cacheKey = RELATION_TYPES_KEY;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/relations_types";
-      return fetchJsonList(url, new TypeReference<List<PublicRelationType>>() {});
+      return fetchJson(cacheKey, "/v0/relations_types", ResponseType.RELATION_TYPES);
     });
   }
 
@@ -177,13 +383,27 @@ public class JdmClient {
    * @throws JdmApiException if the API request fails
    */
   public RelationsResponse getRelationsFrom(String nodeName) throws JdmApiException {
-    String cacheKey = "relations:from:" + nodeName;
-    return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/relations/from/" + nodeName;
-      return fetchJson(url, RelationsResponse.class);
+    requireKnownName(nodeName);
+    return getCached(RELATIONS_FROM_KEY_PREFIX + nodeName, () -> {
+      RelationsResponse response = fetchRelationsFrom(nodeName);
+      if (prefetcher != null) {
+        prefetchNeighboursByName(response, idOf(response, nodeName));
+      }
+      return response;
     });
   }
 
+  private RelationsResponse fetchRelationsFrom(String nodeName) throws JdmApiException {
+    RelationsResponse response =
+        fetchJson(
+            RELATIONS_FROM_KEY_PREFIX + nodeName,
+            "/v0/relations/from/" + nodeName,
+            ResponseType.RELATIONS);
+    response = normalize(response);
+    return indexRelations(
+        response, idOf(response, nodeName), null, RELATIONS_FROM_KEY_PREFIX + nodeName);
+  }
+
   /**
    * Retrieves relations from a given node by ID.
    *
@@ -192,13 +412,47 @@ public class JdmClient {
    * @throws JdmApiException if the API request fails
    */
   public RelationsResponse getRelationsFromById(int nodeId) throws JdmApiException {
-    String cacheKey = "relations:from:id:" + nodeId;
-    return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/relations/from_by_id/" + nodeId;
-      return fetchJson(url, RelationsResponse.class);
+    return getCached(RELATIONS_FROM_ID_KEY_PREFIX + nodeId, () -> {
+      RelationsResponse response = fetchRelationsFromById(nodeId);
+      if (prefetcher != null) {
+        prefetchNeighboursById(response, nodeId);
+      }
+      return response;
     });
   }
 
+  /**
+   * Returns the cached relations from a node, without going to the API on a miss.
+   *
+   * <p>Used by {@link GraphTraversal} to serve cache hits before scheduling fetches.
+   */
+  RelationsResponse peekRelationsFromById(int nodeId) {
+    String key = RELATIONS_FROM_ID_KEY_PREFIX + nodeId;
+    RelationsResponse cached = (RelationsResponse) cache.get(key);
+    // An entry kept for revalidation is reloaded through loadRelationsFromById
+    return cached != null && revalidator != null && !revalidator.isFresh(key) ? null : cached;
+  }
+
+  /**
+   * Fetches relations from a node and caches them, without a prior cache lookup.
+   *
+   * <p>Used by {@link GraphTraversal} after a {@link #peekRelationsFromById(int)} miss, so that
+   * the miss is only counted once.
+   */
+  RelationsResponse loadRelationsFromById(int nodeId) throws JdmApiException {
+    return load(RELATIONS_FROM_ID_KEY_PREFIX + nodeId, () -> fetchRelationsFromById(nodeId));
+  }
+
+  private RelationsResponse fetchRelationsFromById(int nodeId) throws JdmApiException {
+    RelationsResponse response =
+        fetchJson(
+            RELATIONS_FROM_ID_KEY_PREFIX + nodeId,
+            "/v0/relations/from_by_id/" + nodeId,
+            ResponseType.RELATIONS);
+    return indexRelations(
+        normalize(response), nodeId, null, RELATIONS_FROM_ID_KEY_PREFIX + nodeId);
+  }
+
   /**
    * Retrieves relations to a given node by name.
    *
@@ -207,16 +461,23 @@ public class JdmClient {
    * @throws JdmApiException if the API request fails
    */
   public RelationsResponse getRelationsTo(String nodeName) throws JdmApiException {
-    String cacheKey = "relations:to:" + nodeName;
+    requireKnownName(nodeName);
+    String cacheKey = RELATIONS_TO_KEY_PREFIX + nodeName;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/relations/to/" + nodeName;
-      return fetchJson(url, RelationsResponse.class);
+      RelationsResponse response =
+          fetchJson(cacheKey, "/v0/relations/to/" + nodeName, ResponseType.RELATIONS);
+      response = normalize(response);
+      return indexRelations(response, null, idOf(response, nodeName), cacheKey);
     });
   }
 
   /**
    * Retrieves relations between two nodes by name.
    *
+   * <p>When the relation index is enabled and the full outgoing neighbourhood of the source (or
+   * the full incoming neighbourhood of the target) has already been fetched, the answer is built
+   * locally without an HTTP request.
+   *
    * @param node1Name the source node name
    * @param node2Name the target node name
    * @return relations response containing nodes and relations
@@ -224,10 +485,17 @@ public class JdmClient {
    */
   public RelationsResponse getRelationsFromTo(String node1Name, String node2Name)
       throws JdmApiException {
-    String cacheKey = "relations:from:" + node1Name + ":to:" + node2Name;
+    requireKnownName(node1Name);
+    requireKnownName(node2Name);
+    String cacheKey = RELATIONS_FROM_KEY_PREFIX + node1Name + RELATIONS_TO_SEPARATOR + node2Name;
     return getCached(cacheKey, () -> {
-      String url = baseUrl + "/v0/relations/from/" + node1Name + "/to/" + node2Name;
-      return fetchJson(url, RelationsResponse.class);
+      RelationsResponse local = findRelationsLocally(node1Name, node2Name);
+      if (local != null) {
+        return local;
+      }
+      String path = "/v0/relations/from/" + node1Name + "/to/" + node2Name;
+      RelationsResponse response = fetchJson(cacheKey, path, ResponseType.RELATIONS);
+      return indexRelations(normalize(response), null, null, null);
     });
   }
 
@@ -240,87 +508,718 @@ public class JdmClient {
     return cache.getStats();
   }
 
+  /**
+   * Returns string deduplication statistics.
+   *
+   * <p>Hits count strings from API responses that were replaced by an already retained instance.
+   *
+   * @return interner statistics, or null if string interning is disabled
+   */
+  public fr.lirmm.jdm.cache.CacheStats getInternerStats() {
+    return stringInterner != null ? stringInterner.getStats() : null;
+  }
+
+  /**
+   * Returns node store statistics.
+   *
+   * <p>Hits count node lookups answered from nodes embedded in earlier responses, without an
+   * HTTP request.
+   *
+   * @return node store statistics, or null if the node store is disabled
+   */
+  public fr.lirmm.jdm.cache.CacheStats getNodeStoreStats() {
+    return nodeStore != null ? nodeStore.getStats() : null;
+  }
+
+  /**
+   * Returns relation index statistics.
+   *
+   * <p>Hits count {@link #getRelationsFromTo(String, String)} calls answered from previously
+   * fetched neighbourhoods.
+   *
+   * @return relation index statistics, or null if the relation index is disabled
+   */
+  public fr.lirmm.jdm.cache.CacheStats getRelationIndexStats() {
+    return relationIndex != null ? relationIndex.getStats() : null;
+  }
+
+  /**
+   * Returns negative cache statistics.
+   *
+   * <p>Hits count lookups answered as absent, from an empty response or a {@code 404} seen less
+   * than a TTL ago, without an HTTP request.
+   *
+   * @return negative cache statistics, or null if negative caching is disabled
+   */
+  public fr.lirmm.jdm.cache.CacheStats getNegativeCacheStats() {
+    return negativeCache != null ? negativeCache.getStats() : null;
+  }
+
+  /**
+   * Returns name filter statistics.
+   *
+   * @return name filter statistics, or null if no name filter is configured
+   */
+  public NameFilterStats getNameFilterStats() {
+    return nameFilter != null ? nameFilter.getStats() : null;
+  }
+
+  /**
+   * Returns statistics about the batching of node lookups by id.
+   *
+   * @return node batching statistics, or null if node batching is disabled
+   */
+  public NodeBatchStats getNodeBatchStats() {
+    return nodeBatcher != null ? nodeBatcher.getStats() : null;
+  }
+
+  /**
+   * Returns HTTP-level statistics, including the time calls spent waiting for a connection.
+   *
+   * @return HTTP statistics
+   */
+  public HttpStats getHttpStats() {
+    Dispatcher dispatcher = httpClient.dispatcher();
+    return httpMetrics.snapshot(dispatcher.queuedCallsCount(), dispatcher.runningCallsCount());
+  }
+
+  /**
+   * Returns background prefetching statistics.
+   *
+   * @return prefetch statistics, or null if prefetching is disabled
+   */
+  public PrefetchStats getPrefetchStats() {
+    return prefetcher != null ? prefetcher.getStats() : null;
+  }
+
+  /**
+   * Returns conditional revalidation statistics.
+   *
+   * @return revalidation statistics, or null if conditional revalidation is disabled
+   */
+  public RevalidationStats getRevalidationStats() {
+    return revalidator != null ? revalidator.getStats() : null;
+  }
+
+  /**
+   * Returns statistics about invalidations exchanged with other members.
+   *
+   * @return invalidation statistics, or null if no invalidation bus is configured
+   */
+  public InvalidationStats getInvalidationStats() {
+    return invalidations != null ? invalidations.getStats() : null;
+  }
+
+  /**
+   * Returns peer tier statistics.
+   *
+   * @return peer statistics, or null if the peer tier is disabled
+   */
+  public PeerStats getPeerStats() {
+    return peerTier != null ? peerTier.getStats() : null;
+  }
+
   /**
    * Clears all cached data.
+   *
+   * <p>With an invalidation bus, the clear is also broadcast to the other members.
    */
   public void clearCache() {
-    cache.clear();
-    logger.info("Cache cleared");
+    clearLocally();
+    if (invalidations != null) {
+      invalidations.cleared();
+    }
   }
 
   /**
    * Invalidates a specific cache entry.
    *
+   * <p>With an invalidation bus, the invalidation is also broadcast to the other members, where
+   * it removes the entry unless it was loaded after this call.
+   *
    * @param key the cache key to invalidate
    */
   public void invalidateCacheEntry(String key) {
+    invalidateLocally(key);
+    if (invalidations != null) {
+      invalidations.invalidated(key);
+    }
+  }
+
+  private void clearLocally() {
+    cache.clear();
+    if (nodeStore != null) {
+      nodeStore.clear();
+    }
+    if (relationIndex != null) {
+      relationIndex.clear();
+    }
+    if (prefetcher != null) {
+      prefetcher.clear();
+    }
+    if (revalidator != null) {
+      revalidator.clear();
+    }
+    if (negativeCache != null) {
+      negativeCache.clear();
+    }
+    logger.info("Cache cleared");
+  }
+
+  private void invalidateLocally(String key) {
     cache.invalidate(key);
+    if (revalidator != null) {
+      revalidator.invalidate(key);
+    }
+    if (negativeCache != null) {
+      negativeCache.invalidate(key);
+    }
+    if (nodeStore != null) {
+      invalidateNode(key);
+    }
+    if (relationIndex != null) {
+      invalidateRelations(key);
+    }
+  }
+
+  /**
+   * Releases the resources held by this client. Stops serving peers if the peer tier is enabled,
+   * abandons pending prefetches, dispatches queued node lookups, and publishes pending
+   * invalidations before closing the invalidation bus.
+   */
+  @Override
+  public void close() {
+    if (peerTier != null) {
+      peerTier.close();
+    }
+    if (prefetcher != null) {
+      prefetcher.close();
+    }
+    if (nodeBatcher != null) {
+      nodeBatcher.close();
+    }
+    if (invalidations != null) {
+      invalidations.close();
+    }
+  }
+
+  private void invalidateNode(String key) {
+    if (key.startsWith(NODE_NAME_KEY_PREFIX)) {
+      nodeStore.invalidateByName(key.substring(NODE_NAME_KEY_PREFIX.length()));
+    } else if (key.startsWith(NODE_ID_KEY_PREFIX)) {
+      try {
+        nodeStore.invalidateById(Integer.parseInt(key.substring(NODE_ID_KEY_PREFIX.length())));
+      } catch (NumberFormatException e) {
+        logger.debug("Ignoring malformed node cache key: {}", key);
+      }
+    }
+  }
+
+  /** Drops the neighbourhoods indexed from an invalidated relations response. */
+  private void invalidateRelations(String key) {
+    if (key.startsWith(RELATIONS_FROM_ID_KEY_PREFIX)) {
+      try {
+        relationIndex.invalidate(
+            Integer.parseInt(key.substring(RELATIONS_FROM_ID_KEY_PREFIX.length())), key);
+      } catch (NumberFormatException e) {
+        logger.debug("Ignoring malformed relations cache key: {}", key);
+      }
+      return;
+    }
+    String nodeName =
+        key.startsWith(RELATIONS_FROM_KEY_PREFIX)
+            ? key.substring(RELATIONS_FROM_KEY_PREFIX.length())
+            : key.startsWith(RELATIONS_TO_KEY_PREFIX)
+                ? key.substring(RELATIONS_TO_KEY_PREFIX.length())
+                : null;
+    // Unresolved names are dropped lazily, once their response is found missing from the cache
+    PublicNode node = nodeName != null && nodeStore != null ? nodeStore.getByName(nodeName) : null;
+    if (node != null && node.getId() != null) {
+      relationIndex.invalidate(node.getId(), key);
+    }
+  }
+
+  private PublicNode normalize(PublicNode node) {
+    return nodeStore != null ? nodeStore.register(node) : node;
+  }
+
+  private RelationsResponse normalize(RelationsResponse response) {
+    return nodeStore != null ? nodeStore.normalize(response) : response;
+  }
+
+  private void prefetchRelationsFrom(String nodeName) {
+    String key = RELATIONS_FROM_KEY_PREFIX + nodeName;
+    if (!cache.containsKey(key)) {
+      prefetcher.schedule(key, () -> load(key, () -> fetchRelationsFrom(nodeName)));
+    }
+  }
+
+  private void prefetchNeighboursById(RelationsResponse response, int sourceId) {
+    for (int neighbourId : prefetcher.topNeighbours(response, sourceId)) {
+      String key = RELATIONS_FROM_ID_KEY_PREFIX + neighbourId;
+      if (!cache.containsKey(key)) {
+        prefetcher.schedule(key, () -> loadRelationsFromById(neighbourId));
+      }
+    }
+  }
+
+  private void prefetchNeighboursByName(RelationsResponse response, Integer sourceId) {
+    if (sourceId == null || response.getNodes() == null) {
+      return;
+    }
+    for (int neighbourId : prefetcher.topNeighbours(response, sourceId)) {
+      for (PublicNode node : response.getNodes()) {
+        if (node.getId() != null && node.getId() == neighbourId && node.getName() != null) {
+          prefetchRelationsFrom(node.getName());
+          break;
+        }
+      }
+    }
+  }
+
+  private RelationsResponse indexRelations(
+      RelationsResponse response, Integer completeSource, Integer completeTarget, String cacheKey) {
+    if (relationIndex != null) {
+      relationIndex.index(response, completeSource, completeTarget, cacheKey);
+    }
+    return response;
+  }
+
+  private RelationsResponse findRelationsLocally(String sourceName, String targetName) {
+    if (relationIndex == null || nodeStore == null) {
+      return null;
+    }
+    PublicNode source = nodeStore.getByName(sourceName);
+    PublicNode target = nodeStore.getByName(targetName);
+    if (source == null || target == null) {
+      return null;
+    }
+    // Neighbourhoods are only trusted while the response they came from is cached and fresh
+    List<PublicRelation> relations =
+        relationIndex.findBetween(
+            source.getId(),
+            target.getId(),
+            key -> cache.containsKey(key) && (revalidator == null || revalidator.isFresh(key)));
+    if (relations == null) {
+      return null;
+    }
+    logger.debug("Answered relations {} -> {} from relation index", sourceName, targetName);
+    RelationsResponse response = new RelationsResponse();
+    response.setNodes(List.of(source, target));
+    response.setRelations(relations);
+    return response;
+  }
+
+  private static Integer idOf(RelationsResponse response, String nodeName) {
+    if (response == null || response.getNodes() == null) {
+      return null;
+    }
+    for (PublicNode node : response.getNodes()) {
+      if (nodeName.equals(node.getName())) {
+        return node.getId();
+      }
+    }
+    return null;
+  }
+
+  /** Answers a name the name filter rejects as not found, before any cache lookup. */
+  private void requireKnownName(String nodeName) throws JdmNotFoundException {
+    if (nameFilter != null && nodeName != null && !nameFilter.mightContain(nodeName)) {
+      throw new JdmNotFoundException("Unknown node name: " + nodeName);
+    }
   }
 
   @SuppressWarnings("unchecked")
   private <T> T getCached(String key, ThrowingSupplier<T> supplier) throws JdmApiException {
     T cached = (T) cache.get(key);
+    if (cached != null && revalidator != null && !revalidator.isFresh(key)) {
+      logger.debug("Cache entry expired for key: {}, revalidating", key);
+      return revalidate(key, cached, supplier);
+    }
     if (cached != null) {
       logger.debug("Cache hit for key: {}", key);
+      if (prefetcher != null) {
+        prefetcher.recordHit(key);
+      }
       return cached;
     }
 
+    if (negativeCache != null) {
+      byte absent = negativeCache.lookup(key);
+      if (absent != NegativeCache.UNKNOWN) {
+        logger.debug("Negative cache hit for key: {}", key);
+        if (absent == NegativeCache.NOT_FOUND) {
+          throw new JdmNotFoundException("API request failed with status: 404 (cached)");
+        }
+        return null;
+      }
+    }
+
     logger.debug("Cache miss for key: {}, fetching from API", key);
-    T result = supplier.get();
+    return load(key, supplier);
+  }
+
+  /** Reloads an expired entry, letting the fetch serve the cached value again if unchanged. */
+  private <T> T revalidate(String key, T cached, ThrowingSupplier<T> supplier)
+      throws JdmApiException {
+    revalidator.beginRevalidation(key, cached);
+    try {
+      T result = load(key, supplier);
+      if (result == null) {
+        cache.invalidate(key);
+      }
+      return result;
+    } catch (JdmNotFoundException e) {
+      cache.invalidate(key);
+      throw e;
+    } finally {
+      revalidator.endRevalidation(key, cached);
+    }
+  }
+
+  private <T> T load(String key, ThrowingSupplier<T> supplier) throws JdmApiException {
+    long loadStamp = invalidations != null ? invalidations.beginLoad() : 0;
+    long start = System.nanoTime();
+    T result;
+    try {
+      result = supplier.get();
+    } catch (JdmNotFoundException e) {
+      if (negativeCache != null) {
+        commit(key, loadStamp, () -> negativeCache.record(key, NegativeCache.NOT_FOUND));
+      }
+      throw e;
+    }
+    long loadNanos = System.nanoTime() - start;
     if (result != null) {
-      cache.put(key, result);
+      commit(key, loadStamp, () -> store(key, result, loadNanos));
+    } else if (negativeCache != null) {
+      commit(key, loadStamp, () -> negativeCache.record(key, NegativeCache.EMPTY));
     }
     return result;
   }
 
-  private <T> T fetchJson(String url, Class<T> clazz) throws JdmApiException {
+  /** Applies the outcome of a load, unless an invalidation overtook it. */
+  private void commit(String key, long loadStamp, Runnable write) {
+    if (invalidations == null) {
+      write.run();
+    } else {
+      invalidations.commitLoad(key, loadStamp, write);
+    }
+  }
+
+  /** Caches a loaded value, along with what it cost to load when the cache weighs entries. */
+  private void store(String key, Object value, long loadNanos) {
+    if (negativeCache != null) {
+      negativeCache.invalidate(key);
+    }
+    if (cache instanceof CostAwareCache<String, Object> costAware) {
+      costAware.put(key, value, loadNanos, sizeOf(value));
+    } else {
+      cache.put(key, value);
+    }
+    if (revalidator != null) {
+      revalidator.refresh(key);
+    }
+  }
+
+  private static int sizeOf(Object value) {
     try {
-      String json = executeRequest(url);
-      return objectMapper.readValue(json, clazz);
-    } catch (IOException e) {
-      throw new JdmApiException("Failed to parse JSON response", e);
+      return SIZER.encodedSize(value);
+    } catch (IllegalArgumentException e) {
+      // Not a model type: weigh it by load time alone
+      return 1;
+    }
+  }
+
+  /**
+   * Fetches and parses an API response, from the owning peer when the peer tier is enabled and
+   * another member owns the cache key.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T fetchJson(String cacheKey, String path, ResponseType type)
+      throws JdmApiException {
+    if (peerTier != null && !peerTier.isLocal(cacheKey)) {
+      try {
+        return (T) peerTier.fetch(cacheKey, type);
+      } catch (IOException e) {
+        logger.warn("Peer fetch failed for key {}, falling back to the API", cacheKey, e);
+      }
+    }
+    return fetchUpstream(cacheKey, path, type);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T fetchUpstream(String cacheKey, String path, ResponseType type)
+      throws JdmApiException {
+    return fetch(
+        cacheKey, baseUrl + path, json -> (T) objectMapper.readValue(json, type.typeReference()));
+  }
+
+  /**
+   * Answers a peer for a key this instance owns, fetching upstream at most once. The request is
+   * derived from the key, so peers cannot make this instance fetch arbitrary URLs.
+   */
+  private Object serveForPeer(String cacheKey, ResponseType type) throws JdmApiException {
+    String path = upstreamPath(cacheKey, type);
+    if (path == null) {
+      throw new JdmApiException("Not a " + type + " cache key: " + cacheKey);
+    }
+    return getCached(cacheKey, () -> {
+      Object value = fetchUpstream(cacheKey, path, type);
+      return switch (type) {
+        case NODE -> normalize((PublicNode) value);
+        case RELATIONS -> normalize((RelationsResponse) value);
+        default -> value;
+      };
+    });
+  }
+
+  /**
+   * Returns the API path of the response cached under a key, as the lookup methods build it, or
+   * null if the key does not hold a response of the given type.
+   */
+  private static String upstreamPath(String cacheKey, ResponseType type) {
+    return switch (type) {
+      case NODE -> nodePath(cacheKey);
+      case NODE_LIST ->
+          cacheKey.startsWith(REFINEMENTS_KEY_PREFIX)
+              ? "/v0/refinements/" + cacheKey.substring(REFINEMENTS_KEY_PREFIX.length())
+              : null;
+      case NODE_TYPES -> cacheKey.equals(NODE_TYPES_KEY) ? "/v0/nodes_types" : null;
+      case RELATION_TYPES -> cacheKey.equals(RELATION_TYPES_KEY) ? "/v0/relations_types" : null;
+      case RELATIONS -> relationsPath(cacheKey);
+    };
+  }
+
+  private static String nodePath(String cacheKey) {
+    if (cacheKey.startsWith(NODE_ID_KEY_PREFIX)) {
+      String id = nodeIdSuffix(cacheKey, NODE_ID_KEY_PREFIX);
+      return id != null ? "/v0/node_by_id/" + id : null;
+    }
+    return cacheKey.startsWith(NODE_NAME_KEY_PREFIX)
+        ? "/v0/node_by_name/" + cacheKey.substring(NODE_NAME_KEY_PREFIX.length())
+        : null;
+  }
+
+  private static String relationsPath(String cacheKey) {
+    if (cacheKey.startsWith(RELATIONS_FROM_ID_KEY_PREFIX)) {
+      String id = nodeIdSuffix(cacheKey, RELATIONS_FROM_ID_KEY_PREFIX);
+      return id != null ? "/v0/relations/from_by_id/" + id : null;
+    }
+    if (cacheKey.startsWith(RELATIONS_TO_KEY_PREFIX)) {
+      return "/v0/relations/to/" + cacheKey.substring(RELATIONS_TO_KEY_PREFIX.length());
+    }
+    if (!cacheKey.startsWith(RELATIONS_FROM_KEY_PREFIX)) {
+      return null;
     }
+    String names = cacheKey.substring(RELATIONS_FROM_KEY_PREFIX.length());
+    int to = names.indexOf(RELATIONS_TO_SEPARATOR);
+    if (to < 0) {
+      return "/v0/relations/from/" + names;
+    }
+    String target = names.substring(to + RELATIONS_TO_SEPARATOR.length());
+    return "/v0/relations/from/" + names.substring(0, to) + "/to/" + target;
   }
 
-  private <T> T fetchJsonList(String url, TypeReference<T> typeRef) throws JdmApiException {
+  /** Returns the node id ending a cache key, or null if it is not a valid id. */
+  private static String nodeIdSuffix(String cacheKey, String prefix) {
     try {
-      String json = executeRequest(url);
-      return objectMapper.readValue(json, typeRef);
-    } catch (IOException e) {
-      throw new JdmApiException("Failed to parse JSON response", e);
+      return String.valueOf(Integer.parseInt(cacheKey.substring(prefix.length())));
+    } catch (NumberFormatException e) {
+      return null;
     }
   }
 
-  @SuppressWarnings("NullAway")
-  private String executeRequest(String url) throws JdmApiException {
-    Request request = new Request.Builder().url(url).get().build();
+  /**
+   * Fetches and parses a response. When the entry for the cache key is being revalidated, the
+   * request is conditional and an unchanged response returns the cached value.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T fetch(String cacheKey, String url, JsonReader<T> reader) throws JdmApiException {
+    if (revalidator == null) {
+      return parse(executeRequest(url, null).body(), reader);
+    }
+
+    T stale = (T) revalidator.staleValue(cacheKey);
+    Revalidator.Validated prior = stale != null ? revalidator.get(cacheKey) : null;
+    FetchedBody fetched = executeRequest(url, prior);
+    if (fetched.notModified()) {
+      logger.debug("Revalidated unchanged response for URL: {}", url);
+      revalidator.notModified(prior);
+      return stale;
+    }
 
-    try (Response response = httpClient.newCall(request).execute()) {
-      if (!response.isSuccessful()) {
-        throw new JdmApiException("API request failed with status: " + response.code());
-      }
+    // Servers without validators still let an unchanged body skip deserialization
+    byte[] hash = Revalidator.hash(fetched.body());
+    T value = revalidator.unchanged(prior, hash) ? stale : parse(fetched.body(), reader);
+    revalidator.store(
+        cacheKey, fetched.etag(), fetched.lastModified(), hash, fetched.bodyLength());
+    return value;
+  }
 
-      okhttp3.ResponseBody body = response.body();
-      if (body == null) {
-        throw new JdmApiException("Empty response body");
-      }
+  private static <T> T parse(String json, JsonReader<T> reader) throws JdmApiException {
+    try {
+      return reader.read(json);
+    } catch (IOException e) {
+      throw new JdmApiException("Failed to parse JSON response", e);
+    }
+  }
 
-      return body.string();
+  private FetchedBody executeRequest(String url, Revalidator.Validated prior)
+      throws JdmApiException {
+    try (Response response = httpClient.newCall(newRequest(url, prior)).execute()) {
+      return readResponse(response, prior);
     } catch (IOException e) {
       throw new JdmApiException("HTTP request failed for URL: " + url, e);
     }
   }
 
+  private Request newRequest(String url, Revalidator.Validated prior) {
+    Request.Builder requestBuilder = new Request.Builder().url(url).get();
+    if (prior != null && prior.etag() != null) {
+      requestBuilder.header("If-None-Match", prior.etag());
+    }
+    if (prior != null && prior.lastModified() != null) {
+      requestBuilder.header("If-Modified-Since", prior.lastModified());
+    }
+    if (!compression) {
+      // An explicit Accept-Encoding also turns off OkHttp's transparent gzip
+      requestBuilder.header("Accept-Encoding", "identity");
+    }
+    return requestBuilder.build();
+  }
+
+  private FetchedBody readResponse(Response response, Revalidator.Validated prior)
+      throws JdmApiException, IOException {
+    if (response.code() == 304 && prior != null) {
+      return new FetchedBody(true, null, 0, null, null);
+    }
+    if (response.code() == 404) {
+      throw new JdmNotFoundException("API request failed with status: 404");
+    }
+    if (!response.isSuccessful()) {
+      throw new JdmApiException("API request failed with status: " + response.code());
+    }
+
+    okhttp3.ResponseBody body = response.body();
+    if (body == null) {
+      throw new JdmApiException("Empty response body");
+    }
+
+    byte[] bytes = body.bytes();
+    httpMetrics.recordDecodedBytes(bytes.length);
+    MediaType contentType = body.contentType();
+    Charset charset =
+        contentType != null
+            ? contentType.charset(StandardCharsets.UTF_8)
+            : StandardCharsets.UTF_8;
+    return new FetchedBody(
+        false,
+        new String(bytes, charset),
+        bytes.length,
+        response.header("ETag"),
+        response.header("Last-Modified"));
+  }
+
+  /**
+   * Starts fetching a node upstream on OkHttp's dispatcher, for {@link NodeBatcher}. Batched
+   * fetches skip conditional revalidation.
+   */
+  private CompletableFuture<PublicNode> fetchNodeAsync(int nodeId) {
+    String url = baseUrl + "/v0/node_by_id/" + nodeId;
+    CompletableFuture<PublicNode> result = new CompletableFuture<>();
+    httpClient
+        .newCall(newRequest(url, null))
+        .enqueue(
+            new Callback() {
+              @Override
+              public void onResponse(Call call, Response response) {
+                try (response) {
+                  String json = readResponse(response, null).body();
+                  result.complete(parse(json, j -> objectMapper.readValue(j, PublicNode.class)));
+                } catch (JdmApiException e) {
+                  result.completeExceptionally(e);
+                } catch (IOException e) {
+                  onFailure(call, e);
+                }
+              }
+
+              @Override
+              public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(
+                    new JdmApiException("HTTP request failed for URL: " + url, e));
+              }
+            });
+    return result;
+  }
+
+  /**
+   * A response body with its length in bytes and its validators, or a 304 marker when {@code
+   * notModified} is set.
+   */
+  private record FetchedBody(
+      boolean notModified, String body, int bodyLength, String etag, String lastModified) {}
+
+  @FunctionalInterface
+  private interface JsonReader<T> {
+    T read(String json) throws IOException;
+  }
+
   @FunctionalInterface
   private interface ThrowingSupplier<T> {
     T get() throws JdmApiException;
   }
 
+  /** Deserializes string values through a {@link StringInterner}. */
+  private static final class InterningStringDeserializer extends StdScalarDeserializer<String> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient StringInterner interner;
+
+    InterningStringDeserializer(StringInterner interner) {
+      super(String.class);
+      this.interner = interner;
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context)
+        throws IOException {
+      return interner.intern(StringDeserializer.instance.deserialize(parser, context));
+    }
+  }
+
   /** Builder for JdmClient. */
   public static class Builder {
     private String baseUrl = DEFAULT_BASE_URL;
     private OkHttpClient httpClient;
     private CacheConfig cacheConfig;
+    private int internTableSize = StringInterner.DEFAULT_TABLE_SIZE;
+    private int nodeStoreSize = DEFAULT_NODE_STORE_SIZE;
+    private int relationIndexSize;
+    private int prefetchTopK;
+    private int prefetchBudget = DEFAULT_PREFETCH_BUDGET;
+    private boolean prefetchOnNodeLookup;
+    private boolean conditionalRevalidation;
+    private int negativeCacheSize;
+    private Duration negativeCacheTtl;
+    private NameFilter nameFilter;
+    private int nodeBatchSize;
+    private Duration nodeBatchLinger;
+    private boolean compression = true;
+    private int compressedHotSize;
+    private String peerSelf;
+    private List<String> peerMembers;
+    private InvalidationBus invalidationBus;
+    private int invalidationBatchSize = DEFAULT_INVALIDATION_BATCH_SIZE;
+    private Duration invalidationLinger = DEFAULT_INVALIDATION_LINGER;
+    private Integer maxRequests;
+    private Integer maxRequestsPerHost;
+    private Integer maxIdleConnections;
+    private Duration keepAlive;
+    private Boolean http2;
+    private Duration connectTimeout;
+    private Duration readTimeout;
+    private Duration callTimeout;
 
     /**
      * Sets the base URL for the JDM API.
@@ -336,6 +1235,10 @@ public class JdmClient {
     /**
      * Sets the HTTP client to use.
      *
+     * <p>The client keeps its own dispatcher, connection pool, protocols and timeouts unless they
+     * are also set on this builder. Its event listener is replaced by the HTTP metrics
+     * collector behind {@link JdmClient#getHttpStats()}.
+     *
      * @param httpClient the OkHttp client
      * @return this builder
      */
@@ -344,6 +1247,98 @@ public class JdmClient {
       return this;
     }
 
+    /**
+     * Sets the dispatcher limits for concurrent asynchronous requests.
+     *
+     * <p>Defaults to 256 requests overall and 64 per host, instead of OkHttp's 64 and 5.
+     *
+     * @param maxRequests the maximum number of concurrent requests
+     * @param maxRequestsPerHost the maximum number of concurrent requests per host
+     * @return this builder
+     * @throws IllegalArgumentException if either limit is less than 1
+     */
+    public Builder maxConcurrentRequests(int maxRequests, int maxRequestsPerHost) {
+      if (maxRequests < 1 || maxRequestsPerHost < 1) {
+        throw new IllegalArgumentException("Request limits must be at least 1");
+      }
+      this.maxRequests = maxRequests;
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
+
+    /**
+     * Sets the connection pool size and keep-alive duration.
+     *
+     * <p>Defaults to 64 idle connections kept for 5 minutes, instead of OkHttp's 5. With
+     * HTTP/1.1 each concurrent request needs its own connection, so a small pool makes busy
+     * threads reconnect constantly.
+     *
+     * @param maxIdleConnections the maximum number of idle connections to keep
+     * @param keepAlive how long an idle connection is kept
+     * @return this builder
+     * @throws IllegalArgumentException if maxIdleConnections is negative or keepAlive is not
+     *     positive
+     */
+    public Builder connectionPool(int maxIdleConnections, Duration keepAlive) {
+      if (maxIdleConnections < 0) {
+        throw new IllegalArgumentException("maxIdleConnections must not be negative");
+      }
+      if (keepAlive == null || keepAlive.isNegative() || keepAlive.isZero()) {
+        throw new IllegalArgumentException("keepAlive must be positive");
+      }
+      this.maxIdleConnections = maxIdleConnections;
+      this.keepAlive = keepAlive;
+      return this;
+    }
+
+    /**
+     * Sets whether HTTP/2 may be negotiated. When enabled (OkHttp's default), all requests to
+     * the API are multiplexed over a single TLS connection.
+     *
+     * @param enabled true to prefer HTTP/2, false to force HTTP/1.1
+     * @return this builder
+     */
+    public Builder http2(boolean enabled) {
+      this.http2 = enabled;
+      return this;
+    }
+
+    /**
+     * Enables or disables gzip-compressed responses.
+     *
+     * <p>When enabled (the default), OkHttp requests gzip and decodes it transparently. Wire and
+     * decoded byte counts are reported by {@link JdmClient#getHttpStats()}. Disabling it asks the
+     * server for uncompressed bodies, which only helps on very fast local links.
+     *
+     * @param enabled whether to accept compressed responses
+     * @return this builder
+     */
+    public Builder compression(boolean enabled) {
+      this.compression = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the HTTP timeouts.
+     *
+     * @param connect the connect timeout
+     * @param read the read timeout
+     * @param call the timeout for a whole call, or {@link Duration#ZERO} for none
+     * @return this builder
+     * @throws IllegalArgumentException if any timeout is null or negative
+     */
+    public Builder timeouts(Duration connect, Duration read, Duration call) {
+      for (Duration timeout : new Duration[] {connect, read, call}) {
+        if (timeout == null || timeout.isNegative()) {
+          throw new IllegalArgumentException("Timeouts must be non-null and non-negative");
+        }
+      }
+      this.connectTimeout = connect;
+      this.readTimeout = read;
+      this.callTimeout = call;
+      return this;
+    }
+
     /**
      * Sets the cache configuration.
      *
@@ -387,6 +1382,272 @@ public class JdmClient {
       return this;
     }
 
+    /**
+     * Stores colder cache entries compressed.
+     *
+     * <p>The {@code hotEntries} most recently used responses stay as objects. Older ones, up to
+     * the cache's maximum size, are kept as deflated {@link ModelCodec} bytes and decoded again on
+     * access, so the same heap holds several times more responses. Compressed entries are evicted
+     * in LRU order; a TTL in the cache configuration is not applied.
+     *
+     * @param hotEntries the number of entries kept uncompressed, or 0 to disable (the default)
+     * @return this builder
+     * @throws IllegalArgumentException if hotEntries is negative
+     */
+    public Builder compressedCache(int hotEntries) {
+      if (hotEntries < 0) {
+        throw new IllegalArgumentException("hotEntries must not be negative");
+      }
+      this.compressedHotSize = hotEntries;
+      return this;
+    }
+
+    /**
+     * Sets the number of slots of the string interner applied to API responses.
+     *
+     * @param tableSize the number of slots, or 0 to disable string interning
+     * @return this builder
+     * @throws IllegalArgumentException if tableSize is negative
+     */
+    public Builder stringInterning(int tableSize) {
+      if (tableSize < 0) {
+        throw new IllegalArgumentException("tableSize must not be negative");
+      }
+      this.internTableSize = tableSize;
+      return this;
+    }
+
+    /**
+     * Sets the capacity of the node store, which indexes every node embedded in API responses by
+     * id and by name.
+     *
+     * @param maxNodes the maximum number of nodes, or 0 to disable the node store
+     * @return this builder
+     * @throws IllegalArgumentException if maxNodes is negative
+     */
+    public Builder nodeStoreSize(int maxNodes) {
+      if (maxNodes < 0) {
+        throw new IllegalArgumentException("maxNodes must not be negative");
+      }
+      this.nodeStoreSize = maxNodes;
+      return this;
+    }
+
+    /**
+     * Enables the bidirectional relation index, which answers {@link
+     * JdmClient#getRelationsFromTo(String, String)} from previously fetched neighbourhoods.
+     *
+     * <p>Answering by name also requires the node store (enabled by default). A neighbourhood is
+     * only used while the response it came from is still cached, so answers never outlive the
+     * cache's own expiry, eviction or invalidation.
+     *
+     * @param maxNodes the maximum number of adjacency lists per direction, or 0 to disable the
+     *     index (the default)
+     * @return this builder
+     * @throws IllegalArgumentException if maxNodes is negative
+     */
+    public Builder relationIndexSize(int maxNodes) {
+      if (maxNodes < 0) {
+        throw new IllegalArgumentException("maxNodes must not be negative");
+      }
+      this.relationIndexSize = maxNodes;
+      return this;
+    }
+
+    /**
+     * Enables prefetching of the relations of the top-K neighbours, by weight, whenever the
+     * relations of a node are fetched. Neighbours are prefetched through the same endpoint (by
+     * name or by id) as the original request.
+     *
+     * @param topK the number of neighbours to prefetch, or 0 to disable (the default)
+     * @return this builder
+     * @throws IllegalArgumentException if topK is negative
+     */
+    public Builder prefetchNeighbours(int topK) {
+      if (topK < 0) {
+        throw new IllegalArgumentException("topK must not be negative");
+      }
+      this.prefetchTopK = topK;
+      return this;
+    }
+
+    /**
+     * Enables prefetching of a node's outgoing relations whenever it is looked up by name.
+     *
+     * @param enabled whether to prefetch relations after {@link JdmClient#getNodeByName(String)}
+     * @return this builder
+     */
+    public Builder prefetchOnNodeLookup(boolean enabled) {
+      this.prefetchOnNodeLookup = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of queued prefetches. Prefetches beyond this budget are dropped.
+     *
+     * @param maxQueued the prefetch budget
+     * @return this builder
+     * @throws IllegalArgumentException if maxQueued is less than 1
+     */
+    public Builder prefetchBudget(int maxQueued) {
+      if (maxQueued < 1) {
+        throw new IllegalArgumentException("maxQueued must be at least 1");
+      }
+      this.prefetchBudget = maxQueued;
+      return this;
+    }
+
+    /**
+     * Enables conditional revalidation of expired entries of a TTL cache.
+     *
+     * <p>The {@code ETag} and {@code Last-Modified} headers and a hash of the body of the last
+     * response are kept for each cache entry, and the cache keeps expired entries for one more
+     * TTL. Hitting an expired entry sends {@code If-None-Match}/{@code If-Modified-Since}; a
+     * {@code 304 Not Modified} serves the cached value again and refreshes its TTL without
+     * transferring or parsing the body. Other caches never expire entries, so the option has no
+     * effect on them.
+     *
+     * @param enabled whether to revalidate instead of refetching (disabled by default)
+     * @return this builder
+     */
+    public Builder conditionalRevalidation(boolean enabled) {
+      this.conditionalRevalidation = enabled;
+      return this;
+    }
+
+    /**
+     * Enables negative caching: lookups that found nothing, from an empty response or a {@code
+     * 404 Not Found}, are answered the same way without an HTTP request until the TTL expires.
+     *
+     * <p>A cached {@code 404} is thrown again as a {@link JdmNotFoundException}; other errors,
+     * which may be transient, are never cached. Absent keys are kept as fingerprints, not strings,
+     * so that typo-heavy input costs little memory.
+     *
+     * @param maxEntries the maximum number of absent keys remembered, or 0 to disable (the
+     *     default)
+     * @param ttl how long an absent key is remembered
+     * @return this builder
+     * @throws IllegalArgumentException if maxEntries is negative, or ttl is null or not positive
+     */
+    public Builder negativeCaching(int maxEntries, Duration ttl) {
+      if (maxEntries < 0) {
+        throw new IllegalArgumentException("maxEntries must not be negative");
+      }
+      if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+        throw new IllegalArgumentException("ttl must be positive");
+      }
+      this.negativeCacheSize = maxEntries;
+      this.negativeCacheTtl = ttl;
+      return this;
+    }
+
+    /**
+     * Places a filter of all valid node names in front of every lookup by name.
+     *
+     * <p>Names the filter rejects are answered with a {@link JdmNotFoundException} without a
+     * cache lookup or HTTP request. The filter must be built from a dump no older than the names
+     * the application looks up, or nodes created since are reported as not found.
+     *
+     * @param filter the name filter, for example from {@link NameFilter#open(java.nio.file.Path)}
+     * @return this builder
+     * @throws IllegalArgumentException if filter is null
+     */
+    public Builder nameFilter(NameFilter filter) {
+      if (filter == null) {
+        throw new IllegalArgumentException("filter cannot be null");
+      }
+      this.nameFilter = filter;
+      return this;
+    }
+
+    /**
+     * Enables micro-batching of {@link JdmClient#getNodeById(int)} cache misses.
+     *
+     * <p>Misses are queued for up to {@code linger}, or until {@code maxBatchSize} distinct ids
+     * are queued, then sent together as concurrent asynchronous requests, multiplexed on one
+     * connection when HTTP/2 is enabled; each caller waits for its own node. Concurrent misses
+     * for the same id share one request. Batched fetches skip conditional revalidation.
+     *
+     * @param maxBatchSize the maximum number of ids per batch, or 0 to disable (the default)
+     * @param linger the maximum time a miss waits for others to join its batch
+     * @return this builder
+     * @throws IllegalArgumentException if maxBatchSize is negative or linger is null or
+     *     negative
+     */
+    public Builder nodeBatching(int maxBatchSize, Duration linger) {
+      if (maxBatchSize < 0) {
+        throw new IllegalArgumentException("maxBatchSize must not be negative");
+      }
+      if (linger == null || linger.isNegative()) {
+        throw new IllegalArgumentException("linger must not be null or negative");
+      }
+      this.nodeBatchSize = maxBatchSize;
+      this.nodeBatchLinger = linger;
+      return this;
+    }
+
+    /**
+     * Enables the peer tier: a group of clients, typically one per replica, that share cached
+     * responses over TCP.
+     *
+     * <p>Cache keys are spread over the members with consistent hashing. A miss on a key owned by
+     * another member is answered by that member, which fetches from the API at most once for the
+     * whole group. If the owner cannot be reached, the client falls back to the API. The member
+     * list must be identical on every member. Call {@link JdmClient#close()} to stop serving.
+     *
+     * @param self this client's {@code host:port}, on which it accepts peer requests
+     * @param members the {@code host:port} of every member, including self
+     * @return this builder
+     * @throws IllegalArgumentException if self is not one of the members
+     */
+    public Builder peers(String self, List<String> members) {
+      if (self == null || members == null || !members.contains(self)) {
+        throw new IllegalArgumentException("self must be one of the members");
+      }
+      this.peerSelf = self;
+      this.peerMembers = List.copyOf(members);
+      return this;
+    }
+
+    /**
+     * Broadcasts invalidations and clears to, and applies those of, the other members of a bus.
+     *
+     * <p>The client takes ownership of the bus and closes it in {@link JdmClient#close()}.
+     *
+     * @param bus the invalidation bus, for example a {@link TcpInvalidationBus}
+     * @return this builder
+     * @throws IllegalArgumentException if bus is null
+     */
+    public Builder invalidationBus(InvalidationBus bus) {
+      if (bus == null) {
+        throw new IllegalArgumentException("bus cannot be null");
+      }
+      this.invalidationBus = bus;
+      return this;
+    }
+
+    /**
+     * Sets how local invalidations are batched before being broadcast.
+     *
+     * @param maxBatchSize the maximum number of invalidations per batch (default 256)
+     * @param linger the maximum time an invalidation waits for others to join its batch (default
+     *     10 ms)
+     * @return this builder
+     * @throws IllegalArgumentException if maxBatchSize is less than 1 or linger is null or
+     *     negative
+     */
+    public Builder invalidationBatching(int maxBatchSize, Duration linger) {
+      if (maxBatchSize < 1) {
+        throw new IllegalArgumentException("maxBatchSize must be at least 1");
+      }
+      if (linger == null || linger.isNegative()) {
+        throw new IllegalArgumentException("linger must not be null or negative");
+      }
+      this.invalidationBatchSize = maxBatchSize;
+      this.invalidationLinger = linger;
+      return this;
+    }
+
     /**
      * Builds the JdmClient instance.
      *
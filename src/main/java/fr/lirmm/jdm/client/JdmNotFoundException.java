@@ -0,0 +1,22 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Exception thrown when the JDM API reports that the requested resource does not exist.
+ *
+ * <p>Unlike other {@link JdmApiException}s, which may be transient, retrying the same request
+ * gives the same answer until the data changes upstream, so it may be served from the negative
+ * cache.
+ */
+public class JdmNotFoundException extends JdmApiException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new JdmNotFoundException with the specified message.
+   *
+   * @param message the error message
+   */
+  public JdmNotFoundException(String message) {
+    super(message);
+  }
+}
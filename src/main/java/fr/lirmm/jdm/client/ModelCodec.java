@@ -0,0 +1,563 @@
+package fr.lirmm.jdm.client;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.lirmm.jdm.cache.ValueCodec;
+import fr.lirmm.jdm.client.model.PublicNode;
+import fr.lirmm.jdm.client.model.PublicNodeType;
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.PublicRelationType;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * A compact binary codec for the values {@link JdmClient} caches.
+ *
+ * <p>Handles {@link PublicNode}, {@link PublicRelation}, {@link PublicNodeType}, {@link
+ * PublicRelationType}, {@link RelationsResponse} and lists of them. Each value starts with a type
+ * tag. Each object then starts with a varint bitmask of its non-null fields, followed by the
+ * present fields only:
+ *
+ * <ul>
+ *   <li>integers as zigzag varints (1 byte for small ids, types and weights)
+ *   <li>doubles as 8 raw bytes
+ *   <li>dates as zigzag varint epoch days, date-times as epoch seconds (UTC) plus nanoseconds
+ *   <li>strings as a varint byte length followed by UTF-8
+ * </ul>
+ *
+ * <p>Encoding writes straight into the target buffer without intermediate arrays; the exact
+ * size is computed by the same code path in counting mode. Decoding allocates only the decoded
+ * objects and strings, which can be deduplicated through a {@link StringInterner}.
+ *
+ * <p>This codec is stateless and thread-safe.
+ */
+public final class ModelCodec implements ValueCodec<Object> {
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_NODE = 1;
+  private static final byte TAG_RELATION = 2;
+  private static final byte TAG_NODE_TYPE = 3;
+  private static final byte TAG_RELATION_TYPE = 4;
+  private static final byte TAG_RELATIONS_RESPONSE = 5;
+  private static final byte TAG_LIST = 6;
+
+  private final StringInterner interner;
+
+  /** Creates a codec that does not deduplicate decoded strings. */
+  public ModelCodec() {
+    this(null);
+  }
+
+  /**
+   * Creates a codec that interns decoded strings.
+   *
+   * @param interner the interner for decoded strings, or null to disable interning
+   */
+  public ModelCodec(StringInterner interner) {
+    this.interner = interner;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the value is not a supported model type
+   */
+  @Override
+  public int encodedSize(Object value) {
+    Writer writer = new Writer(null);
+    writer.value(value);
+    return writer.size;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the value is not a supported model type
+   */
+  @Override
+  public void encode(Object value, ByteBuffer target) {
+    new Writer(target).value(value);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the buffer does not hold a valid encoding
+   */
+  @Override
+  public Object decode(ByteBuffer source) {
+    try {
+      return new Reader(source, interner).value();
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated model encoding", e);
+    }
+  }
+
+  /** Writes values to a buffer, or only counts their size when the buffer is null. */
+  private static final class Writer {
+    private final ByteBuffer target;
+    private int size;
+
+    Writer(ByteBuffer target) {
+      this.target = target;
+    }
+
+    void value(Object value) {
+      if (value == null) {
+        tag(TAG_NULL);
+      } else if (value instanceof PublicNode node) {
+        tag(TAG_NODE);
+        node(node);
+      } else if (value instanceof PublicRelation relation) {
+        tag(TAG_RELATION);
+        relation(relation);
+      } else if (value instanceof PublicNodeType nodeType) {
+        tag(TAG_NODE_TYPE);
+        nodeType(nodeType);
+      } else if (value instanceof PublicRelationType relationType) {
+        tag(TAG_RELATION_TYPE);
+        relationType(relationType);
+      } else if (value instanceof RelationsResponse response) {
+        tag(TAG_RELATIONS_RESPONSE);
+        relationsResponse(response);
+      } else if (value instanceof List<?> list) {
+        tag(TAG_LIST);
+        varint(list.size());
+        for (Object element : list) {
+          value(element);
+        }
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported value type: " + value.getClass().getName());
+      }
+    }
+
+    void node(PublicNode node) {
+      varint(
+          mask(
+              node.getId(),
+              node.getName(),
+              node.getType(),
+              node.getWeight(),
+              node.getC(),
+              node.getLevel(),
+              node.getInfoId(),
+              node.getCreationDate(),
+              node.getTouchDate()));
+      integer(node.getId());
+      string(node.getName());
+      integer(node.getType());
+      integer(node.getWeight());
+      integer(node.getC());
+      decimal(node.getLevel());
+      integer(node.getInfoId());
+      date(node.getCreationDate());
+      dateTime(node.getTouchDate());
+    }
+
+    void relation(PublicRelation relation) {
+      varint(
+          mask(
+              relation.getId(),
+              relation.getNode1(),
+              relation.getNode2(),
+              relation.getType(),
+              relation.getWeight(),
+              relation.getC(),
+              relation.getInfoId(),
+              relation.getCreationDate(),
+              relation.getTouchDate(),
+              relation.getNormalizedWeight()));
+      integer(relation.getId());
+      integer(relation.getNode1());
+      integer(relation.getNode2());
+      integer(relation.getType());
+      decimal(relation.getWeight());
+      decimal(relation.getC());
+      integer(relation.getInfoId());
+      date(relation.getCreationDate());
+      dateTime(relation.getTouchDate());
+      decimal(relation.getNormalizedWeight());
+    }
+
+    void nodeType(PublicNodeType nodeType) {
+      varint(mask(nodeType.getId(), nodeType.getName(), nodeType.getHelp()));
+      integer(nodeType.getId());
+      string(nodeType.getName());
+      string(nodeType.getHelp());
+    }
+
+    void relationType(PublicRelationType type) {
+      varint(
+          mask(
+              type.getId(),
+              type.getName(),
+              type.getGroupName(),
+              type.getQuot(),
+              type.getQuotMin(),
+              type.getQuotMax(),
+              type.getPrice(),
+              type.getHelp(),
+              type.getPlayable(),
+              type.getOpposite(),
+              type.getPosYes(),
+              type.getPosNo(),
+              type.getConstraintEnt(),
+              type.getConstraintsStart(),
+              type.getConstraintsEnd(),
+              type.getCharacteristics()));
+      integer(type.getId());
+      string(type.getName());
+      string(type.getGroupName());
+      decimal(type.getQuot());
+      decimal(type.getQuotMin());
+      decimal(type.getQuotMax());
+      integer(type.getPrice());
+      string(type.getHelp());
+      integer(type.getPlayable());
+      integer(type.getOpposite());
+      string(type.getPosYes());
+      string(type.getPosNo());
+      integer(type.getConstraintEnt());
+      string(type.getConstraintsStart());
+      string(type.getConstraintsEnd());
+      string(type.getCharacteristics());
+    }
+
+    void relationsResponse(RelationsResponse response) {
+      List<PublicNode> nodes = response.getNodes();
+      List<PublicRelation> relations = response.getRelations();
+      varint(mask(nodes, relations));
+      if (nodes != null) {
+        varint(nodes.size());
+        for (PublicNode node : nodes) {
+          node(node);
+        }
+      }
+      if (relations != null) {
+        varint(relations.size());
+        for (PublicRelation relation : relations) {
+          relation(relation);
+        }
+      }
+    }
+
+    private static int mask(Object... fields) {
+      int mask = 0;
+      for (int i = 0; i < fields.length; i++) {
+        if (fields[i] != null) {
+          mask |= 1 << i;
+        }
+      }
+      return mask;
+    }
+
+    private void tag(byte tag) {
+      if (target != null) {
+        target.put(tag);
+      }
+      size++;
+    }
+
+    private void integer(Integer value) {
+      if (value != null) {
+        varlong(zigzag(value));
+      }
+    }
+
+    private void decimal(Double value) {
+      if (value != null) {
+        if (target != null) {
+          target.putDouble(value);
+        }
+        size += Double.BYTES;
+      }
+    }
+
+    private void date(LocalDate value) {
+      if (value != null) {
+        varlong(zigzag(value.toEpochDay()));
+      }
+    }
+
+    private void dateTime(LocalDateTime value) {
+      if (value != null) {
+        varlong(zigzag(value.toEpochSecond(ZoneOffset.UTC)));
+        varint(value.getNano());
+      }
+    }
+
+    private void string(String value) {
+      if (value == null) {
+        return;
+      }
+      int length = value.length();
+      int utf8Length = utf8Length(value);
+      varint(utf8Length);
+      size += utf8Length;
+      if (target == null) {
+        return;
+      }
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          target.put((byte) c);
+        } else if (c < 0x800) {
+          target.put((byte) (0xC0 | (c >>> 6)));
+          target.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+          if (Character.isHighSurrogate(c)
+              && i + 1 < length
+              && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            target.put((byte) (0xF0 | (codePoint >>> 18)));
+            target.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+            target.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+            target.put((byte) (0x80 | (codePoint & 0x3F)));
+          } else {
+            // Same replacement as String.getBytes for an unpaired surrogate
+            target.put((byte) '?');
+          }
+        } else {
+          target.put((byte) (0xE0 | (c >>> 12)));
+          target.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+          target.put((byte) (0x80 | (c & 0x3F)));
+        }
+      }
+    }
+
+    private static int utf8Length(String value) {
+      int length = value.length();
+      int bytes = length;
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c >= 0x800) {
+          if (Character.isHighSurrogate(c)
+              && i + 1 < length
+              && Character.isLowSurrogate(value.charAt(i + 1))) {
+            bytes += 2;
+            i++;
+          } else if (!Character.isSurrogate(c)) {
+            bytes += 2;
+          }
+        } else if (c >= 0x80) {
+          bytes++;
+        }
+      }
+      return bytes;
+    }
+
+    private void varint(int value) {
+      varlong(value & 0xFFFFFFFFL);
+    }
+
+    private void varlong(long value) {
+      while ((value & ~0x7FL) != 0) {
+        if (target != null) {
+          target.put((byte) ((value & 0x7F) | 0x80));
+        }
+        size++;
+        value >>>= 7;
+      }
+      if (target != null) {
+        target.put((byte) value);
+      }
+      size++;
+    }
+
+    private static long zigzag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  /** Reads values written by {@link Writer}. */
+  private static final class Reader {
+    private final ByteBuffer source;
+    private final StringInterner interner;
+
+    Reader(ByteBuffer source, StringInterner interner) {
+      this.source = source;
+      this.interner = interner;
+    }
+
+    Object value() {
+      byte tag = source.get();
+      return switch (tag) {
+        case TAG_NULL -> null;
+        case TAG_NODE -> node();
+        case TAG_RELATION -> relation();
+        case TAG_NODE_TYPE -> nodeType();
+        case TAG_RELATION_TYPE -> relationType();
+        case TAG_RELATIONS_RESPONSE -> relationsResponse();
+        case TAG_LIST -> {
+          int count = count();
+          List<Object> list = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            list.add(value());
+          }
+          yield list;
+        }
+        default -> throw new IllegalArgumentException("Unknown model tag: " + tag);
+      };
+    }
+
+    PublicNode node() {
+      int mask = varint();
+      PublicNode node = new PublicNode();
+      node.setId(integer(mask, 0));
+      node.setName(string(mask, 1));
+      node.setType(integer(mask, 2));
+      node.setWeight(integer(mask, 3));
+      node.setC(integer(mask, 4));
+      node.setLevel(decimal(mask, 5));
+      node.setInfoId(integer(mask, 6));
+      node.setCreationDate(date(mask, 7));
+      node.setTouchDate(dateTime(mask, 8));
+      return node;
+    }
+
+    PublicRelation relation() {
+      int mask = varint();
+      PublicRelation relation = new PublicRelation();
+      relation.setId(integer(mask, 0));
+      relation.setNode1(integer(mask, 1));
+      relation.setNode2(integer(mask, 2));
+      relation.setType(integer(mask, 3));
+      relation.setWeight(decimal(mask, 4));
+      relation.setC(decimal(mask, 5));
+      relation.setInfoId(integer(mask, 6));
+      relation.setCreationDate(date(mask, 7));
+      relation.setTouchDate(dateTime(mask, 8));
+      relation.setNormalizedWeight(decimal(mask, 9));
+      return relation;
+    }
+
+    PublicNodeType nodeType() {
+      int mask = varint();
+      PublicNodeType nodeType = new PublicNodeType();
+      nodeType.setId(integer(mask, 0));
+      nodeType.setName(string(mask, 1));
+      nodeType.setHelp(string(mask, 2));
+      return nodeType;
+    }
+
+    PublicRelationType relationType() {
+      int mask = varint();
+      PublicRelationType type = new PublicRelationType();
+      type.setId(integer(mask, 0));
+      type.setName(string(mask, 1));
+      type.setGroupName(string(mask, 2));
+      type.setQuot(decimal(mask, 3));
+      type.setQuotMin(decimal(mask, 4));
+      type.setQuotMax(decimal(mask, 5));
+      type.setPrice(integer(mask, 6));
+      type.setHelp(string(mask, 7));
+      type.setPlayable(integer(mask, 8));
+      type.setOpposite(integer(mask, 9));
+      type.setPosYes(string(mask, 10));
+      type.setPosNo(string(mask, 11));
+      type.setConstraintEnt(integer(mask, 12));
+      type.setConstraintsStart(string(mask, 13));
+      type.setConstraintsEnd(string(mask, 14));
+      type.setCharacteristics(string(mask, 15));
+      return type;
+    }
+
+    RelationsResponse relationsResponse() {
+      int mask = varint();
+      RelationsResponse response = new RelationsResponse();
+      if ((mask & 1) != 0) {
+        int count = count();
+        List<PublicNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          nodes.add(node());
+        }
+        response.setNodes(nodes);
+      }
+      if ((mask & 2) != 0) {
+        int count = count();
+        List<PublicRelation> relations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          relations.add(relation());
+        }
+        response.setRelations(relations);
+      }
+      return response;
+    }
+
+    private Integer integer(int mask, int bit) {
+      return (mask & (1 << bit)) != 0 ? (int) unzigzag(varlong()) : null;
+    }
+
+    private Double decimal(int mask, int bit) {
+      return (mask & (1 << bit)) != 0 ? source.getDouble() : null;
+    }
+
+    private LocalDate date(int mask, int bit) {
+      return (mask & (1 << bit)) != 0 ? LocalDate.ofEpochDay(unzigzag(varlong())) : null;
+    }
+
+    private LocalDateTime dateTime(int mask, int bit) {
+      if ((mask & (1 << bit)) == 0) {
+        return null;
+      }
+      long epochSecond = unzigzag(varlong());
+      return LocalDateTime.ofEpochSecond(epochSecond, varint(), ZoneOffset.UTC);
+    }
+
+    private String string(int mask, int bit) {
+      if ((mask & (1 << bit)) == 0) {
+        return null;
+      }
+      int length = count();
+      String value;
+      if (source.hasArray()) {
+        int position = source.position();
+        value =
+            new String(
+                source.array(), source.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        source.position(position + length);
+      } else {
+        byte[] bytes = new byte[length];
+        source.get(bytes);
+        value = new String(bytes, StandardCharsets.UTF_8);
+      }
+      return interner != null ? interner.intern(value) : value;
+    }
+
+    /** Reads a length, rejecting values that cannot fit in the remaining bytes. */
+    private int count() {
+      int count = varint();
+      if (count < 0 || count > source.remaining()) {
+        throw new IllegalArgumentException("Invalid length in model encoding: " + count);
+      }
+      return count;
+    }
+
+    private int varint() {
+      return (int) varlong();
+    }
+
+    private long varlong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = source.get();
+        value |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in model encoding");
+    }
+
+    private static long unzigzag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package fr.lirmm.jdm.client;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter of every valid node name, memory-mapped from a file built offline from a dump.
+ *
+ * <p>A name the filter rejects is certainly not a node, so {@link JdmClient} answers it as not
+ * found without touching the cache or the network. A name it accepts may still be absent, with
+ * the probability reported by {@link #getFalsePositiveRate()}; such lookups proceed as usual.
+ *
+ * <p>The file holds a header followed by the bit array, read in place from the mapping: opening
+ * the filter loads nothing on the heap, and pages are brought in by the operating system as
+ * lookups touch them. Lookups only read the mapping, so any number of threads can query the
+ * filter without locking.
+ *
+ * <p>Build the file with {@link #build(Path, Path, double)}, or from the command line:
+ *
+ * <pre>
+ * java -cp ... fr.lirmm.jdm.client.NameFilter names.txt names.filter [falsePositiveRate]
+ * </pre>
+ */
+public final class NameFilter {
+
+  private static final int MAGIC = 0x4A444D46; // "JDMF"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 32;
+  private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+  // A single mapping is indexed by int
+  private static final long MAX_BITS = (Integer.MAX_VALUE - HEADER_BYTES) * 8L & ~63L;
+
+  private final ByteBuffer bits;
+  private final long bitCount;
+  private final int hashCount;
+  private final long nameCount;
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder accepted = new LongAdder();
+
+  private NameFilter(ByteBuffer bits, long bitCount, int hashCount, long nameCount) {
+    this.bits = bits;
+    this.bitCount = bitCount;
+    this.hashCount = hashCount;
+    this.nameCount = nameCount;
+  }
+
+  /**
+   * Builds a filter file from a file of node names, one per line in UTF-8.
+   *
+   * <p>The names file is read twice, to size the filter and then to fill it, so that dumps of
+   * any size are streamed. Blank lines are skipped.
+   *
+   * @param names the file of names
+   * @param filter the filter file to write, replaced if it exists
+   * @param falsePositiveRate the target probability that an absent name is accepted
+   * @throws IOException if a file cannot be read or written
+   * @throws IllegalArgumentException if falsePositiveRate is not between 0 and 1 exclusive, or
+   *     the filter would exceed 2 GB
+   */
+  public static void build(Path names, Path filter, double falsePositiveRate) throws IOException {
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1 exclusive");
+    }
+    long nameCount = 0;
+    try (BufferedReader reader = Files.newBufferedReader(names, StandardCharsets.UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.isBlank()) {
+          nameCount++;
+        }
+      }
+    }
+
+    // Optimal sizing: m = -n ln p / (ln 2)^2 bits and k = (m / n) ln 2 hash functions
+    double optimalBits = -Math.max(1, nameCount) * Math.log(falsePositiveRate)
+        / (Math.log(2) * Math.log(2));
+    if (optimalBits > MAX_BITS) {
+      throw new IllegalArgumentException("Filter for " + nameCount + " names exceeds 2 GB");
+    }
+    long bitCount = Math.max(64, ((long) Math.ceil(optimalBits) + 63) & ~63L);
+    int hashCount =
+        (int) Math.max(1, Math.round((double) bitCount / Math.max(1, nameCount) * Math.log(2)));
+
+    long[] words = new long[(int) (bitCount / 64)];
+    try (BufferedReader reader = Files.newBufferedReader(names, StandardCharsets.UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.isBlank()) {
+          long hash = hash(line);
+          long step = step(hash);
+          for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+          }
+        }
+      }
+    }
+
+    try (OutputStream file = Files.newOutputStream(filter);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(hashCount);
+      out.writeInt(0); // Reserved
+      out.writeLong(nameCount);
+      out.writeLong(bitCount);
+      for (long word : words) {
+        out.writeLong(word);
+      }
+    }
+  }
+
+  /**
+   * Memory-maps a filter file written by {@link #build(Path, Path, double)}.
+   *
+   * <p>The mapping stays valid after the file is closed, until the filter is garbage collected.
+   *
+   * @param filter the filter file
+   * @return the filter
+   * @throws IOException if the file cannot be read or is not a valid filter
+   */
+  public static NameFilter open(Path filter) throws IOException {
+    try (FileChannel channel = FileChannel.open(filter, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a name filter: " + filter);
+      }
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+        throw new IOException("Not a name filter: " + filter);
+      }
+      int hashCount = mapped.getInt(8);
+      long nameCount = mapped.getLong(16);
+      long bitCount = mapped.getLong(24);
+      if (hashCount < 1 || bitCount < 64 || HEADER_BYTES + bitCount / 8 != channel.size()) {
+        throw new IOException("Corrupt name filter: " + filter);
+      }
+      ByteBuffer bits = mapped.slice(HEADER_BYTES, (int) (bitCount / 8));
+      return new NameFilter(bits, bitCount, hashCount, nameCount);
+    }
+  }
+
+  /**
+   * Returns whether a name may be a node. A false answer is always right.
+   *
+   * @param name the node name
+   * @return false if the name is certainly not a node
+   */
+  public boolean mightContain(String name) {
+    long hash = hash(name);
+    long step = step(hash);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+      // Absolute reads leave the buffer's position alone, so threads share it safely
+      if ((bits.getLong((int) (bit >>> 6) << 3) & (1L << bit)) == 0) {
+        rejected.increment();
+        return false;
+      }
+    }
+    accepted.increment();
+    return true;
+  }
+
+  /**
+   * Returns the probability that a name absent from the dump is accepted, given the number of
+   * names, bits and hash functions of this filter: {@code (1 - e^(-kn/m))^k}.
+   *
+   * @return the expected false positive rate
+   */
+  public double getFalsePositiveRate() {
+    return Math.pow(1 - Math.exp(-(double) hashCount * nameCount / bitCount), hashCount);
+  }
+
+  /**
+   * Returns the number of names the filter was built from.
+   *
+   * @return the name count
+   */
+  public long getNameCount() {
+    return nameCount;
+  }
+
+  /**
+   * Returns lookup statistics since the filter was opened.
+   *
+   * @return name filter statistics
+   */
+  public NameFilterStats getStats() {
+    return new NameFilterStats(
+        rejected.sum(), accepted.sum(), getFalsePositiveRate(), bitCount / 8);
+  }
+
+  /** Hashes a name to 64 bits with FNV-1a over its characters and a final mix. */
+  private static long hash(String name) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < name.length(); i++) {
+      hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  /** Derives the second hash of double hashing; odd, so that steps never repeat early. */
+  private static long step(long hash) {
+    long step = hash * 0xc4ceb9fe1a85ec53L;
+    return (step ^ (step >>> 29)) | 1;
+  }
+
+  /**
+   * Builds a filter file from the command line.
+   *
+   * @param args the names file, the filter file, and optionally the false positive rate
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("Usage: NameFilter <names.txt> <filter> [falsePositiveRate]");
+      System.exit(2);
+    }
+    double falsePositiveRate =
+        args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+    build(Path.of(args[0]), Path.of(args[1]), falsePositiveRate);
+    NameFilter filter = open(Path.of(args[1]));
+    System.out.printf("Built filter of %,d names: %,d bytes, false positive rate %.4f%%%n",
+        filter.getNameCount(), filter.bitCount / 8, 100 * filter.getFalsePositiveRate());
+  }
+}
@@ -0,0 +1,12 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about the name filter placed in front of lookups by name.
+ *
+ * @param rejected number of names answered as not found without a cache lookup or HTTP request
+ * @param accepted number of names that went on to the cache and, on a miss, to the API
+ * @param falsePositiveRate expected probability that a name absent from the dump is accepted
+ * @param sizeBytes size of the memory-mapped bit array
+ */
+public record NameFilterStats(
+    long rejected, long accepted, double falsePositiveRate, long sizeBytes) {}
@@ -0,0 +1,148 @@
+package fr.lirmm.jdm.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.lirmm.jdm.cache.CacheStats;
+
+/**
+ * Remembers, for a short time, the cache keys whose lookup found nothing, so that repeated
+ * lookups of nonexistent words do not each reach the API.
+ *
+ * <p>Keys are kept as 64-bit fingerprints in a 4-way set-associative table, without the key
+ * strings: each entry takes 17 bytes. Two keys share a fingerprint with negligible probability,
+ * whereas a Bloom filter could neither expire nor remove entries, and its false positives would
+ * hide existing nodes. When a set is full, the entry closest to expiring is replaced.
+ *
+ * <p>An entry records how the lookup ended: an empty response, or a {@code 404}. Transient
+ * errors are never recorded.
+ */
+final class NegativeCache {
+
+  /** Returned by {@link #lookup(String)} when the key is not known to be absent. */
+  static final byte UNKNOWN = 0;
+  /** The API answered with an empty body. */
+  static final byte EMPTY = 1;
+  /** The API answered {@code 404 Not Found}. */
+  static final byte NOT_FOUND = 2;
+
+  private static final int WAYS = 4;
+
+  // Guarded by this; a fingerprint of 0 marks a free slot
+  private final long[] fingerprints;
+  private final long[] deadlines;
+  private final byte[] outcomes;
+  private final int setMask;
+  private final long ttlNanos;
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+  private final AtomicLong evictions = new AtomicLong(0);
+
+  NegativeCache(int maxEntries, long ttlNanos) {
+    int sets = Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS));
+    if (sets * WAYS < maxEntries) {
+      sets <<= 1;
+    }
+    this.fingerprints = new long[sets * WAYS];
+    this.deadlines = new long[sets * WAYS];
+    this.outcomes = new byte[sets * WAYS];
+    this.setMask = sets - 1;
+    this.ttlNanos = ttlNanos;
+  }
+
+  /**
+   * Returns how the last lookup of a key ended, if it found nothing less than a TTL ago.
+   *
+   * @return {@link #EMPTY}, {@link #NOT_FOUND}, or {@link #UNKNOWN}
+   */
+  synchronized byte lookup(String key) {
+    long fingerprint = fingerprint(key);
+    int slot = find(fingerprint);
+    if (slot >= 0) {
+      if (deadlines[slot] - System.nanoTime() > 0) {
+        hits.incrementAndGet();
+        return outcomes[slot];
+      }
+      fingerprints[slot] = 0;
+    }
+    misses.incrementAndGet();
+    return UNKNOWN;
+  }
+
+  /** Records that a lookup of the key found nothing. */
+  synchronized void record(String key, byte outcome) {
+    long fingerprint = fingerprint(key);
+    long now = System.nanoTime();
+    int slot = find(fingerprint);
+    if (slot < 0) {
+      int base = ((int) fingerprint & setMask) * WAYS;
+      slot = base;
+      for (int i = base; i < base + WAYS; i++) {
+        if (fingerprints[i] == 0 || deadlines[i] - now <= 0) {
+          slot = i;
+          break;
+        }
+        if (deadlines[i] - deadlines[slot] < 0) {
+          slot = i;
+        }
+      }
+      if (fingerprints[slot] != 0 && deadlines[slot] - now > 0) {
+        evictions.incrementAndGet();
+      }
+    }
+    fingerprints[slot] = fingerprint;
+    deadlines[slot] = now + ttlNanos;
+    outcomes[slot] = outcome;
+  }
+
+  /** Forgets a key, for example once it has been found or invalidated. */
+  synchronized void invalidate(String key) {
+    int slot = find(fingerprint(key));
+    if (slot >= 0) {
+      fingerprints[slot] = 0;
+    }
+  }
+
+  synchronized void clear() {
+    Arrays.fill(fingerprints, 0);
+    hits.set(0);
+    misses.set(0);
+    evictions.set(0);
+  }
+
+  /** Returns the lookup statistics, the size counting only entries that have not expired. */
+  CacheStats getStats() {
+    int size = 0;
+    synchronized (this) {
+      long now = System.nanoTime();
+      for (int i = 0; i < fingerprints.length; i++) {
+        if (fingerprints[i] != 0 && deadlines[i] - now > 0) {
+          size++;
+        }
+      }
+    }
+    return new CacheStats(hits.get(), misses.get(), evictions.get(), size);
+  }
+
+  private int find(long fingerprint) {
+    int base = ((int) fingerprint & setMask) * WAYS;
+    for (int i = base; i < base + WAYS; i++) {
+      if (fingerprints[i] == fingerprint) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Hashes a key to 64 bits with FNV-1a and a final mix, reserving 0 for free slots. */
+  private static long fingerprint(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return hash != 0 ? hash : 1;
+  }
+}
@@ -0,0 +1,19 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about the micro-batching of node lookups by id.
+ *
+ * @param requested number of node ids requested from the batcher by cache misses
+ * @param coalesced number of requests that joined a pending request for the same id, so that
+ *     only one fetch was sent for both
+ * @param batches number of batches dispatched
+ * @param averageBatchSize mean number of distinct ids per batch
+ * @param averageLingerMillis mean time, in milliseconds, from the first id queued in a batch to
+ *     its dispatch
+ */
+public record NodeBatchStats(
+    long requested,
+    long coalesced,
+    long batches,
+    double averageBatchSize,
+    double averageLingerMillis) {}
@@ -0,0 +1,191 @@
+package fr.lirmm.jdm.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.lirmm.jdm.client.model.PublicNode;
+
+/**
+ * Collects node lookups by id that missed the cache, and dispatches them together.
+ *
+ * <p>Each miss queues its id and waits. A batch is dispatched once {@code maxBatchSize} distinct
+ * ids are queued, or {@code linger} after the first of them, whichever comes first. Concurrent
+ * misses for the same id share one fetch. The JDM API has no batch endpoint, so a batch is sent
+ * as back-to-back asynchronous requests: over HTTP/2 they are multiplexed on one connection, and
+ * over HTTP/1.1 they are spread over the connection pool, instead of each waiting for a
+ * caller's thread to issue it.
+ */
+final class NodeBatcher implements AutoCloseable {
+
+  /** Starts the fetch of one node, completing the future with the node or the failure. */
+  @FunctionalInterface
+  interface Fetcher {
+    CompletableFuture<PublicNode> fetch(int nodeId);
+  }
+
+  private final Fetcher fetcher;
+  private final int maxBatchSize;
+  private final long lingerNanos;
+  private final ScheduledExecutorService flusher;
+  private final AtomicLong requested = new AtomicLong(0);
+  private final AtomicLong coalesced = new AtomicLong(0);
+  private final AtomicLong batches = new AtomicLong(0);
+  private final AtomicLong batchedIds = new AtomicLong(0);
+  private final AtomicLong lingeredNanos = new AtomicLong(0);
+
+  // Guarded by pending
+  private final Map<Integer, CompletableFuture<PublicNode>> pending = new LinkedHashMap<>();
+  private long firstQueuedAt;
+  private boolean flushScheduled;
+
+  NodeBatcher(Fetcher fetcher, int maxBatchSize, Duration linger) {
+    this.fetcher = fetcher;
+    this.maxBatchSize = maxBatchSize;
+    this.lingerNanos = linger.toNanos();
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "JDM-Node-Batcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Fetches a node as part of the next batch, waiting for the batch to complete.
+   *
+   * @return the node, or null if the API returned an empty body
+   * @throws JdmApiException if the fetch failed
+   */
+  PublicNode get(int nodeId) throws JdmApiException {
+    CompletableFuture<PublicNode> result;
+    synchronized (pending) {
+      // Counted once queued, so a caller seeing the count knows the lookup joined a batch
+      requested.incrementAndGet();
+      if (flusher.isShutdown()) {
+        result = null;
+      } else {
+        result = pending.get(nodeId);
+        if (result != null) {
+          coalesced.incrementAndGet();
+        } else {
+          result = new CompletableFuture<>();
+          if (pending.isEmpty()) {
+            firstQueuedAt = System.nanoTime();
+          }
+          pending.put(nodeId, result);
+          scheduleFlush(pending.size() >= maxBatchSize);
+        }
+      }
+    }
+    // Once closed, lookups are no longer batched
+    return await(result != null ? result : start(nodeId));
+  }
+
+  NodeBatchStats getStats() {
+    long batchCount = batches.get();
+    return new NodeBatchStats(
+        requested.get(),
+        coalesced.get(),
+        batchCount,
+        batchCount > 0 ? (double) batchedIds.get() / batchCount : 0,
+        batchCount > 0 ? lingeredNanos.get() / 1e6 / batchCount : 0);
+  }
+
+  /** Dispatches the queued lookups, then stops the flusher. */
+  @Override
+  public void close() {
+    // Under the lock, so that no lookup is queued without a flush to dispatch it
+    synchronized (pending) {
+      flusher.shutdown();
+    }
+    boolean more;
+    do {
+      flush();
+      synchronized (pending) {
+        more = !pending.isEmpty();
+      }
+    } while (more);
+  }
+
+  private void scheduleFlush(boolean immediately) {
+    if (immediately) {
+      flusher.execute(this::flush);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      flusher.schedule(this::flush, lingerNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void flush() {
+    List<Map.Entry<Integer, CompletableFuture<PublicNode>>> batch;
+    synchronized (pending) {
+      flushScheduled = false;
+      if (pending.isEmpty()) {
+        return;
+      }
+      long now = System.nanoTime();
+      lingeredNanos.addAndGet(now - firstQueuedAt);
+      batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+      Iterator<Map.Entry<Integer, CompletableFuture<PublicNode>>> entries =
+          pending.entrySet().iterator();
+      while (entries.hasNext() && batch.size() < maxBatchSize) {
+        batch.add(entries.next());
+        entries.remove();
+      }
+      if (!pending.isEmpty()) {
+        // The rest were queued while the batch filled up: they have waited long enough
+        firstQueuedAt = now;
+        if (!flusher.isShutdown()) {
+          scheduleFlush(true);
+        }
+      }
+    }
+    batches.incrementAndGet();
+    batchedIds.addAndGet(batch.size());
+    for (Map.Entry<Integer, CompletableFuture<PublicNode>> entry : batch) {
+      CompletableFuture<PublicNode> waiting = entry.getValue();
+      start(entry.getKey())
+          .whenComplete(
+              (node, error) -> {
+                if (error != null) {
+                  waiting.completeExceptionally(error);
+                } else {
+                  waiting.complete(node);
+                }
+              });
+    }
+  }
+
+  private CompletableFuture<PublicNode> start(int nodeId) {
+    try {
+      return fetcher.fetch(nodeId);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static PublicNode await(CompletableFuture<PublicNode> result) throws JdmApiException {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof JdmApiException cause) {
+        throw cause;
+      }
+      throw new JdmApiException("Batched fetch failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JdmApiException("Interrupted while waiting for a batched fetch", e);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package fr.lirmm.jdm.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.lirmm.jdm.cache.Cache;
+import fr.lirmm.jdm.cache.CacheConfig;
+import fr.lirmm.jdm.cache.CacheFactory;
+import fr.lirmm.jdm.cache.CacheStats;
+import fr.lirmm.jdm.cache.IntKeyCache;
+import fr.lirmm.jdm.client.model.PublicNode;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * Shared store of node entities, indexed by id and by name.
+ *
+ * <p>Every API response that embeds nodes is normalized through this store: nodes already known
+ * are replaced by their canonical instance, and new or changed nodes become available to {@link
+ * JdmClient#getNodeById(int)} and {@link JdmClient#getNodeByName(String)} without another HTTP
+ * request. Each node is therefore held once, however many relation entries reference it. A
+ * fetched node whose data differs from the stored one replaces it, so that the store always
+ * holds the newest data seen.
+ *
+ * <p>Both indexes are bounded caches built from the client's cache configuration. Unless entries
+ * expire, the id index is an {@link IntKeyCache}, so lookups by id box nothing.
+ */
+final class NodeStore {
+
+  // Exactly one id index is set: the int-keyed one, or a generic one for expiring entries
+  private final IntKeyCache<PublicNode> byIntId;
+  private final Cache<Integer, PublicNode> byId;
+  private final Cache<String, PublicNode> byName;
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+
+  NodeStore(CacheConfig config) {
+    if (config.getEvictionStrategy() != CacheConfig.EvictionStrategy.TTL) {
+      this.byIntId = new IntKeyCache<>(config.getMaxSize());
+      this.byId = null;
+    } else {
+      this.byIntId = null;
+      this.byId = CacheFactory.create(config);
+    }
+    this.byName = CacheFactory.create(config);
+  }
+
+  PublicNode getById(int nodeId) {
+    return record(lookup(nodeId));
+  }
+
+  PublicNode getByName(String nodeName) {
+    return record(byName.get(nodeName));
+  }
+
+  /**
+   * Registers a node and returns its canonical instance.
+   *
+   * @param node the node to register, may be null
+   * @return the instance already stored for the same id if it holds the same data, or {@code
+   *     node} itself, which then replaces it
+   */
+  PublicNode register(PublicNode node) {
+    if (node == null || node.getId() == null) {
+      return node;
+    }
+    int nodeId = node.getId();
+    PublicNode existing = lookup(nodeId);
+    if (existing != null) {
+      if (sameData(existing, node)) {
+        return existing;
+      }
+      if (existing.getName() != null && !existing.getName().equals(node.getName())) {
+        byName.invalidate(existing.getName());
+      }
+    }
+    if (byIntId != null) {
+      byIntId.put(nodeId, node);
+    } else {
+      byId.put(nodeId, node);
+    }
+    if (node.getName() != null) {
+      byName.put(node.getName(), node);
+    }
+    return node;
+  }
+
+  /** Replaces the nodes of a list with their canonical instances. */
+  List<PublicNode> normalize(List<PublicNode> nodes) {
+    if (nodes == null) {
+      return null;
+    }
+    List<PublicNode> canonical = new ArrayList<>(nodes.size());
+    for (PublicNode node : nodes) {
+      canonical.add(register(node));
+    }
+    return canonical;
+  }
+
+  /** Replaces the nodes of a relations response with their canonical instances. */
+  RelationsResponse normalize(RelationsResponse response) {
+    if (response != null) {
+      response.setNodes(normalize(response.getNodes()));
+    }
+    return response;
+  }
+
+  void invalidateById(int nodeId) {
+    PublicNode removed = lookup(nodeId);
+    removeId(nodeId);
+    if (removed != null && removed.getName() != null) {
+      byName.invalidate(removed.getName());
+    }
+  }
+
+  void invalidateByName(String nodeName) {
+    PublicNode removed = byName.get(nodeName);
+    byName.invalidate(nodeName);
+    if (removed != null && removed.getId() != null) {
+      removeId(removed.getId());
+    }
+  }
+
+  void clear() {
+    if (byIntId != null) {
+      byIntId.clear();
+    } else {
+      byId.clear();
+    }
+    byName.clear();
+    hits.set(0);
+    misses.set(0);
+  }
+
+  /**
+   * Returns lookup statistics.
+   *
+   * <p>Hits and misses only count lookups made on behalf of callers, not registrations.
+   *
+   * @return the store statistics
+   */
+  CacheStats getStats() {
+    CacheStats idStats = byIntId != null ? byIntId.getStats() : byId.getStats();
+    return new CacheStats(hits.get(), misses.get(), idStats.getEvictionCount(), idStats.getSize());
+  }
+
+  private static boolean sameData(PublicNode a, PublicNode b) {
+    return Objects.equals(a.getName(), b.getName())
+        && Objects.equals(a.getType(), b.getType())
+        && Objects.equals(a.getWeight(), b.getWeight())
+        && Objects.equals(a.getC(), b.getC())
+        && Objects.equals(a.getLevel(), b.getLevel())
+        && Objects.equals(a.getInfoId(), b.getInfoId())
+        && Objects.equals(a.getCreationDate(), b.getCreationDate())
+        && Objects.equals(a.getTouchDate(), b.getTouchDate());
+  }
+
+  private PublicNode lookup(int nodeId) {
+    return byIntId != null ? byIntId.get(nodeId) : byId.get(nodeId);
+  }
+
+  private void removeId(int nodeId) {
+    if (byIntId != null) {
+      byIntId.invalidate(nodeId);
+    } else {
+      byId.invalidate(nodeId);
+    }
+  }
+
+  private PublicNode record(PublicNode node) {
+    if (node != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return node;
+  }
+}
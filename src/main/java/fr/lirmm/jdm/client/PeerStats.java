@@ -0,0 +1,10 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about the peer tier shared by several {@link JdmClient} instances.
+ *
+ * @param remoteFetches number of misses answered by the owning peer instead of the API
+ * @param remoteFailures number of peer requests that failed and fell back to the API
+ * @param servedToPeers number of requests this instance answered for other peers
+ */
+public record PeerStats(long remoteFetches, long remoteFailures, long servedToPeers) {}
@@ -0,0 +1,331 @@
+package fr.lirmm.jdm.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A statically configured group of {@link JdmClient} instances sharing their cached responses.
+ *
+ * <p>Cache keys are assigned to members with a {@link ConsistentHashRing}. On a miss for a key
+ * owned by another member, the client asks the owner instead of the API; the owner answers from
+ * its cache or fetches upstream once on behalf of the whole group. Each upstream response is
+ * therefore fetched by a single member, whatever the number of replicas.
+ *
+ * <p>The protocol is a minimal request/response exchange over persistent TCP connections:
+ *
+ * <pre>
+ * request:  byte op (1 = GET), UTF key, byte response type
+ * response: byte status (0 = OK, 1 = ERROR, 2 = NOT FOUND), then int length + ModelCodec bytes,
+ *           or UTF message
+ * </pre>
+ *
+ * <p>A request carries no URL: the owner derives the upstream request from the cache key, the
+ * same way it would for its own lookups, and only answers for keys it owns. Connections are only
+ * accepted from the addresses of the configured members, resolved when the tier starts.
+ *
+ * <p>Connections to each peer are pooled. A peer that cannot be reached is not retried within
+ * the same call: the caller falls back to the API, so the tier never makes availability worse.
+ */
+final class PeerTier implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PeerTier.class);
+  private static final byte OP_GET = 1;
+  private static final byte STATUS_OK = 0;
+  private static final byte STATUS_ERROR = 1;
+  private static final byte STATUS_NOT_FOUND = 2;
+  private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+  private static final int READ_TIMEOUT_MILLIS = 30_000;
+  private static final int MAX_IDLE_CONNECTIONS_PER_PEER = 8;
+
+  /** Resolves a request from another peer, typically through the local cache. */
+  @FunctionalInterface
+  interface Handler {
+    Object serve(String key, ResponseType type) throws JdmApiException;
+  }
+
+  private final String self;
+  private final Set<InetAddress> memberAddresses;
+  private final ConsistentHashRing ring;
+  private final ModelCodec codec;
+  private final Handler handler;
+  private final ServerSocket serverSocket;
+  private final Thread acceptor;
+  private final Map<String, Queue<Connection>> idle = new ConcurrentHashMap<>();
+  private final AtomicLong remoteFetches = new AtomicLong(0);
+  private final AtomicLong remoteFailures = new AtomicLong(0);
+  private final AtomicLong servedToPeers = new AtomicLong(0);
+  private volatile boolean closed;
+
+  /**
+   * Joins the group and starts serving requests on this member's address.
+   *
+   * @param self this member's {@code host:port}, which must appear in members
+   * @param members the {@code host:port} of every member, identical on all of them
+   * @param codec the codec for values exchanged between members
+   * @param handler resolves requests received from other members
+   * @throws IllegalArgumentException if self is not a member or an address is malformed
+   * @throws IllegalStateException if the local address cannot be bound
+   */
+  PeerTier(String self, List<String> members, ModelCodec codec, Handler handler) {
+    if (members == null || !members.contains(self)) {
+      throw new IllegalArgumentException("self must be one of the members");
+    }
+    this.memberAddresses = memberAddresses(members);
+    this.self = self;
+    this.ring = new ConsistentHashRing(members, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    this.codec = codec;
+    this.handler = handler;
+    try {
+      this.serverSocket = new ServerSocket();
+      serverSocket.setReuseAddress(true);
+      serverSocket.bind(parseAddress(self));
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot bind peer address " + self, e);
+    }
+    this.acceptor = new Thread(this::acceptLoop, "JDM-Peer-" + self);
+    acceptor.setDaemon(true);
+    acceptor.start();
+    logger.info("Peer tier started on {} with {} members", self, members.size());
+  }
+
+  /** Returns whether this member owns a key. */
+  boolean isLocal(String key) {
+    return ring.ownerOf(key).equals(self);
+  }
+
+  /**
+   * Fetches a value from the member owning a key.
+   *
+   * @return the decoded value, which may be null
+   * @throws JdmApiException if the owner failed to resolve the key
+   * @throws IOException if the owner could not be reached
+   */
+  Object fetch(String key, ResponseType type) throws JdmApiException, IOException {
+    String owner = ring.ownerOf(key);
+    Connection connection;
+    try {
+      connection = borrow(owner);
+    } catch (IOException e) {
+      remoteFailures.incrementAndGet();
+      throw e;
+    }
+    boolean reusable = false;
+    try {
+      connection.out.writeByte(OP_GET);
+      connection.out.writeUTF(key);
+      connection.out.writeByte(type.ordinal());
+      connection.out.flush();
+
+      byte status = connection.in.readByte();
+      if (status == STATUS_ERROR || status == STATUS_NOT_FOUND) {
+        String message = connection.in.readUTF();
+        reusable = true;
+        throw status == STATUS_NOT_FOUND
+            ? new JdmNotFoundException(message)
+            : new JdmApiException(message);
+      }
+      byte[] encoded = new byte[connection.in.readInt()];
+      connection.in.readFully(encoded);
+      reusable = true;
+      remoteFetches.incrementAndGet();
+      return codec.decode(ByteBuffer.wrap(encoded));
+    } catch (IOException e) {
+      remoteFailures.incrementAndGet();
+      throw e;
+    } finally {
+      if (reusable) {
+        release(owner, connection);
+      } else {
+        connection.close();
+      }
+    }
+  }
+
+  PeerStats getStats() {
+    return new PeerStats(remoteFetches.get(), remoteFailures.get(), servedToPeers.get());
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      logger.debug("Error closing peer server socket", e);
+    }
+    for (Queue<Connection> connections : idle.values()) {
+      Connection connection;
+      while ((connection = connections.poll()) != null) {
+        connection.close();
+      }
+    }
+  }
+
+  private Connection borrow(String peer) throws IOException {
+    Queue<Connection> connections = idle.get(peer);
+    Connection connection = connections != null ? connections.poll() : null;
+    if (connection != null) {
+      return connection;
+    }
+    Socket socket = new Socket();
+    try {
+      socket.connect(parseAddress(peer), CONNECT_TIMEOUT_MILLIS);
+      socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+      socket.setTcpNoDelay(true);
+      return new Connection(socket);
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  private void release(String peer, Connection connection) {
+    Queue<Connection> connections = idle.computeIfAbsent(peer, p -> new ConcurrentLinkedQueue<>());
+    // The size check is racy; the pool may briefly hold a few extra connections
+    if (closed || connections.size() >= MAX_IDLE_CONNECTIONS_PER_PEER) {
+      connection.close();
+    } else {
+      connections.offer(connection);
+    }
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        if (!memberAddresses.contains(socket.getInetAddress())) {
+          logger.warn("Rejecting peer connection from non-member {}", socket.getInetAddress());
+          socket.close();
+          continue;
+        }
+        socket.setTcpNoDelay(true);
+        Thread.ofVirtual().name("JDM-Peer-Conn").start(() -> serve(socket));
+      } catch (IOException e) {
+        if (!closed) {
+          logger.warn("Peer accept failed on {}", self, e);
+        }
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (Connection connection = new Connection(socket)) {
+      while (!closed) {
+        byte op;
+        try {
+          op = connection.in.readByte();
+        } catch (EOFException e) {
+          return;
+        }
+        if (op != OP_GET) {
+          logger.warn("Closing peer connection after unknown op {}", op);
+          return;
+        }
+        String key = connection.in.readUTF();
+        ResponseType type = ResponseType.of(connection.in.readByte());
+        servedToPeers.incrementAndGet();
+        respond(connection.out, key, type);
+      }
+    } catch (SocketException e) {
+      logger.debug("Peer connection closed: {}", e.getMessage());
+    } catch (IOException | IllegalArgumentException e) {
+      logger.warn("Peer connection failed", e);
+    }
+  }
+
+  private void respond(DataOutputStream out, String key, ResponseType type) throws IOException {
+    Object value;
+    try {
+      if (!isLocal(key)) {
+        throw new JdmApiException("Key not owned by " + self + ": " + key);
+      }
+      value = handler.serve(key, type);
+    } catch (JdmApiException | RuntimeException e) {
+      // Not found is kept apart so that the requesting member can cache it too
+      out.writeByte(e instanceof JdmNotFoundException ? STATUS_NOT_FOUND : STATUS_ERROR);
+      out.writeUTF(String.valueOf(e.getMessage()));
+      out.flush();
+      return;
+    }
+    ByteBuffer encoded = ByteBuffer.allocate(codec.encodedSize(value));
+    codec.encode(value, encoded);
+    out.writeByte(STATUS_OK);
+    out.writeInt(encoded.position());
+    out.write(encoded.array(), 0, encoded.position());
+    out.flush();
+  }
+
+  /**
+   * Resolves the hosts of the members to the addresses their connections come from.
+   *
+   * @throws IllegalArgumentException if an address is malformed
+   */
+  static Set<InetAddress> memberAddresses(List<String> members) {
+    Set<InetAddress> addresses = new HashSet<>();
+    for (String member : members) {
+      InetSocketAddress address = parseAddress(member);
+      if (address.isUnresolved()) {
+        logger.warn("Cannot resolve member {}; its connections will be rejected", member);
+      } else {
+        addresses.add(address.getAddress());
+      }
+    }
+    return addresses;
+  }
+
+  static InetSocketAddress parseAddress(String address) {
+    int colon = address != null ? address.lastIndexOf(':') : -1;
+    if (colon <= 0 || colon == address.length() - 1) {
+      throw new IllegalArgumentException("Peer address must be host:port: " + address);
+    }
+    try {
+      return new InetSocketAddress(
+          address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Peer address must be host:port: " + address, e);
+    }
+  }
+
+  /** A socket with buffered data streams. */
+  private static final class Connection implements AutoCloseable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    @Override
+    public void close() {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        logger.debug("Error closing peer connection", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about background prefetching.
+ *
+ * @param issued number of prefetches scheduled
+ * @param dropped number of prefetches skipped because the prefetch budget was exhausted
+ * @param failed number of prefetches whose API request failed
+ * @param hits number of prefetched entries later served to a caller from the cache
+ */
+public record PrefetchStats(long issued, long dropped, long failed, long hits) {
+
+  /**
+   * Returns the fraction of issued prefetches that were later used.
+   *
+   * @return the prefetch hit rate, or 0.0 if nothing was prefetched
+   */
+  public double hitRate() {
+    return issued == 0 ? 0.0 : (double) hits / issued;
+  }
+}
@@ -0,0 +1,197 @@
+package fr.lirmm.jdm.client;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import fr.lirmm.jdm.cache.Cache;
+import fr.lirmm.jdm.cache.LruCache;
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * Background loader that populates the cache ahead of demand.
+ *
+ * <p>Prefetches run on a small pool of low-priority daemon threads. The prefetch budget is the
+ * capacity of the pool's queue: when it is full, new prefetches are dropped rather than queued,
+ * so prefetching never builds an unbounded backlog or competes with demand fetches for long.
+ *
+ * <p>Every completed prefetch is remembered in a bounded tracker; the first demand hit on a
+ * prefetched key counts as a prefetch hit, which measures how much of the prefetch traffic paid
+ * off.
+ */
+final class Prefetcher implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(Prefetcher.class);
+  private static final int PREFETCH_THREADS = 2;
+  private static final int TRACKED_KEYS_PER_BUDGET_SLOT = 16;
+
+  private final int topK;
+  private final ThreadPoolExecutor executor;
+  private final Cache<String, Boolean> prefetched;
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+  private final AtomicLong issued = new AtomicLong(0);
+  private final AtomicLong dropped = new AtomicLong(0);
+  private final AtomicLong failed = new AtomicLong(0);
+  private final AtomicLong hits = new AtomicLong(0);
+
+  Prefetcher(int topK, int budget) {
+    this.topK = topK;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            PREFETCH_THREADS,
+            PREFETCH_THREADS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(budget),
+            r -> {
+              Thread thread = new Thread(r, "JDM-Prefetch-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            });
+    this.prefetched = new LruCache<>(budget * TRACKED_KEYS_PER_BUDGET_SLOT);
+  }
+
+  /**
+   * Selects the ids of the most heavily weighted outgoing neighbours of a node.
+   *
+   * @param response the relations from the source node
+   * @param sourceId the source node id
+   * @return up to {@code topK} distinct neighbour ids, heaviest first
+   */
+  List<Integer> topNeighbours(RelationsResponse response, int sourceId) {
+    if (topK == 0 || response == null || response.getRelations() == null) {
+      return List.of();
+    }
+    // Min-heap holding the K heaviest relations seen so far
+    PriorityQueue<PublicRelation> heaviest =
+        new PriorityQueue<>(Comparator.comparingDouble(PublicRelation::getWeight));
+    for (PublicRelation relation : response.getRelations()) {
+      if (relation.getNode1() == null
+          || relation.getNode1() != sourceId
+          || relation.getNode2() == null
+          || relation.getNode2() == sourceId
+          || relation.getWeight() == null
+          || relation.getWeight() <= 0) {
+        continue;
+      }
+      heaviest.add(relation);
+      if (heaviest.size() > topK * 2) {
+        // Keep some slack for relations of several types pointing to the same neighbour
+        heaviest.poll();
+      }
+    }
+    List<PublicRelation> ordered = new ArrayList<>(heaviest);
+    ordered.sort(Comparator.comparingDouble(PublicRelation::getWeight).reversed());
+    List<Integer> neighbours = new ArrayList<>(topK);
+    for (PublicRelation relation : ordered) {
+      if (!neighbours.contains(relation.getNode2())) {
+        neighbours.add(relation.getNode2());
+        if (neighbours.size() == topK) {
+          break;
+        }
+      }
+    }
+    return neighbours;
+  }
+
+  /**
+   * Schedules a background load, unless the key is already being prefetched or the budget is
+   * exhausted.
+   *
+   * @param key the cache key the loader populates
+   * @param loader the loader to run
+   */
+  void schedule(String key, Loader loader) {
+    if (!inFlight.add(key)) {
+      return;
+    }
+    try {
+      executor.execute(new Task(key, loader));
+      issued.incrementAndGet();
+    } catch (RejectedExecutionException e) {
+      inFlight.remove(key);
+      dropped.incrementAndGet();
+    }
+  }
+
+  /** Records a demand cache hit, counting it if the key was populated by a prefetch. */
+  void recordHit(String key) {
+    if (prefetched.containsKey(key)) {
+      prefetched.invalidate(key);
+      hits.incrementAndGet();
+    }
+  }
+
+  void clear() {
+    List<Runnable> queued = new ArrayList<>();
+    executor.getQueue().drainTo(queued);
+    forget(queued);
+    prefetched.clear();
+    issued.set(0);
+    dropped.set(0);
+    failed.set(0);
+    hits.set(0);
+  }
+
+  PrefetchStats getStats() {
+    return new PrefetchStats(issued.get(), dropped.get(), failed.get(), hits.get());
+  }
+
+  /** Drops the queued prefetches and interrupts the running ones, then stops the pool. */
+  @Override
+  public void close() {
+    forget(executor.shutdownNow());
+  }
+
+  /** Releases the keys of prefetches removed from the queue before they ran. */
+  private void forget(List<Runnable> tasks) {
+    for (Runnable task : tasks) {
+      inFlight.remove(((Task) task).key);
+    }
+  }
+
+  /** A queued prefetch, carrying its key so that it can be released if it never runs. */
+  private final class Task implements Runnable {
+    private final String key;
+    private final Loader loader;
+
+    Task(String key, Loader loader) {
+      this.key = key;
+      this.loader = loader;
+    }
+
+    @Override
+    public void run() {
+      try {
+        loader.load();
+        prefetched.put(key, Boolean.TRUE);
+      } catch (JdmApiException | RuntimeException e) {
+        failed.incrementAndGet();
+        logger.debug("Prefetch failed for key: {}", key, e);
+      } finally {
+        inFlight.remove(key);
+      }
+    }
+  }
+
+  /** A prefetch action. */
+  @FunctionalInterface
+  interface Loader {
+    void load() throws JdmApiException;
+  }
+}
@@ -0,0 +1,244 @@
+package fr.lirmm.jdm.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import fr.lirmm.jdm.cache.CacheStats;
+import fr.lirmm.jdm.cache.IntKeyCache;
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/**
+ * In-memory adjacency index over every relation seen in API responses, in both directions.
+ *
+ * <p>Each node id maps to an outgoing and an incoming adjacency list, stored as primitive arrays
+ * of neighbour ids and relation ids alongside the relation objects. A list is marked
+ * <em>complete</em> once the full neighbourhood of its node has been fetched ({@code
+ * relations/from} for outgoing, {@code relations/to} for incoming); only complete lists can prove
+ * that no other relation exists between two nodes, so only they are used to answer queries.
+ *
+ * <p>A complete list remembers the cache key of the response it was built from, and is only used
+ * while that response is still cached: once the response expires, is evicted or is invalidated,
+ * the list may be outdated and is dropped. {@link #invalidate(int, String)} drops it right away
+ * when the client knows the key was invalidated.
+ *
+ * <p>The index is bounded by node count, with lists keyed by primitive node id in an {@link
+ * IntKeyCache} per direction, which evicts lists that were not queried recently first. All
+ * access goes through a single lock, since writes happen once per response and queries are rare
+ * compared to cache hits.
+ */
+final class RelationIndex {
+
+  private final IntKeyCache<Adjacency> outgoing;
+  private final IntKeyCache<Adjacency> incoming;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+
+  RelationIndex(int maxNodes) {
+    this.outgoing = new IntKeyCache<>(maxNodes);
+    this.incoming = new IntKeyCache<>(maxNodes);
+  }
+
+  /**
+   * Indexes all relations of a response.
+   *
+   * @param response the response to index
+   * @param completeSource id of the node whose full outgoing neighbourhood this response holds,
+   *     or null
+   * @param completeTarget id of the node whose full incoming neighbourhood this response holds,
+   *     or null
+   * @param cacheKey the cache key of the response, required for a complete neighbourhood
+   */
+  void index(
+      RelationsResponse response, Integer completeSource, Integer completeTarget, String cacheKey) {
+    if (response == null || response.getRelations() == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      // A complete neighbourhood replaces whatever was known, dropping stale relations
+      if (completeSource != null) {
+        outgoing.put(completeSource, new Adjacency(cacheKey));
+      }
+      if (completeTarget != null) {
+        incoming.put(completeTarget, new Adjacency(cacheKey));
+      }
+      for (PublicRelation relation : response.getRelations()) {
+        if (relation.getId() == null || relation.getNode1() == null || relation.getNode2() == null) {
+          continue;
+        }
+        int source = relation.getNode1();
+        int target = relation.getNode2();
+        // Relations of one response are unique, so fresh complete lists skip the duplicate scan
+        adjacency(outgoing, source)
+            .add(target, relation, completeSource == null || completeSource != source);
+        adjacency(incoming, target)
+            .add(source, relation, completeTarget == null || completeTarget != target);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns all relations from one node to another, if the index holds enough information.
+   *
+   * @param sourceId the source node id
+   * @param targetId the target node id
+   * @param cached tells whether the response stored under a cache key is still cached
+   * @return the relations between both nodes (possibly empty), or null if neither the outgoing
+   *     neighbourhood of the source nor the incoming neighbourhood of the target is complete and
+   *     still cached
+   */
+  List<PublicRelation> findBetween(int sourceId, int targetId, Predicate<String> cached) {
+    List<PublicRelation> result = null;
+    lock.lock();
+    try {
+      Adjacency out = completeList(outgoing, sourceId, cached);
+      if (out != null) {
+        result = out.relationsTo(targetId);
+      } else {
+        Adjacency in = completeList(incoming, targetId, cached);
+        if (in != null) {
+          result = in.relationsTo(sourceId);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (result != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Drops the neighbourhoods of a node that were built from the response cached under a key.
+   *
+   * @param nodeId the node whose neighbourhoods to check
+   * @param cacheKey the invalidated cache key
+   */
+  void invalidate(int nodeId, String cacheKey) {
+    lock.lock();
+    try {
+      dropIfBuiltFrom(outgoing, nodeId, cacheKey);
+      dropIfBuiltFrom(incoming, nodeId, cacheKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void clear() {
+    lock.lock();
+    try {
+      outgoing.clear();
+      incoming.clear();
+      hits.set(0);
+      misses.set(0);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns query statistics.
+   *
+   * <p>Hits are queries answered locally, misses are queries that had to go to the API. The size
+   * is the number of adjacency lists held in both directions.
+   *
+   * @return the index statistics
+   */
+  CacheStats getStats() {
+    lock.lock();
+    try {
+      long evictions =
+          outgoing.getStats().getEvictionCount() + incoming.getStats().getEvictionCount();
+      return new CacheStats(hits.get(), misses.get(), evictions, outgoing.size() + incoming.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static Adjacency adjacency(IntKeyCache<Adjacency> direction, int nodeId) {
+    Adjacency adjacency = direction.get(nodeId);
+    if (adjacency == null) {
+      adjacency = new Adjacency(null);
+      direction.put(nodeId, adjacency);
+    }
+    return adjacency;
+  }
+
+  /** Returns the complete list of a node, dropping it if its response is no longer cached. */
+  private static Adjacency completeList(
+      IntKeyCache<Adjacency> direction, int nodeId, Predicate<String> cached) {
+    Adjacency adjacency = direction.get(nodeId);
+    if (adjacency == null || adjacency.sourceKey == null) {
+      return null;
+    }
+    if (!cached.test(adjacency.sourceKey)) {
+      direction.invalidate(nodeId);
+      return null;
+    }
+    return adjacency;
+  }
+
+  private static void dropIfBuiltFrom(IntKeyCache<Adjacency> direction, int nodeId, String key) {
+    Adjacency adjacency = direction.get(nodeId);
+    if (adjacency != null && key.equals(adjacency.sourceKey)) {
+      direction.invalidate(nodeId);
+    }
+  }
+
+  /** Adjacency list of one node in one direction. */
+  private static final class Adjacency {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** Cache key of the response holding the full neighbourhood, or null if incomplete. */
+    final String sourceKey;
+    int[] neighbours = new int[INITIAL_CAPACITY];
+    int[] relationIds = new int[INITIAL_CAPACITY];
+    PublicRelation[] relations = new PublicRelation[INITIAL_CAPACITY];
+    int size;
+
+    Adjacency(String sourceKey) {
+      this.sourceKey = sourceKey;
+    }
+
+    void add(int neighbour, PublicRelation relation, boolean dedupe) {
+      int relationId = relation.getId();
+      for (int i = 0; dedupe && i < size; i++) {
+        if (relationIds[i] == relationId) {
+          relations[i] = relation;
+          return;
+        }
+      }
+      if (size == neighbours.length) {
+        int capacity = size * 2;
+        neighbours = Arrays.copyOf(neighbours, capacity);
+        relationIds = Arrays.copyOf(relationIds, capacity);
+        relations = Arrays.copyOf(relations, capacity);
+      }
+      neighbours[size] = neighbour;
+      relationIds[size] = relationId;
+      relations[size] = relation;
+      size++;
+    }
+
+    List<PublicRelation> relationsTo(int neighbour) {
+      List<PublicRelation> result = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        if (neighbours[i] == neighbour) {
+          result.add(relations[i]);
+        }
+      }
+      return result;
+    }
+  }
+}
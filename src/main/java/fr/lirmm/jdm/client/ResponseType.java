@@ -0,0 +1,43 @@
+package fr.lirmm.jdm.client;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import fr.lirmm.jdm.client.model.PublicNode;
+import fr.lirmm.jdm.client.model.PublicNodeType;
+import fr.lirmm.jdm.client.model.PublicRelationType;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/** The JSON shapes returned by the JDM API endpoints, with their deserialization target. */
+enum ResponseType {
+  NODE(new TypeReference<PublicNode>() {}),
+  NODE_LIST(new TypeReference<List<PublicNode>>() {}),
+  NODE_TYPES(new TypeReference<List<PublicNodeType>>() {}),
+  RELATION_TYPES(new TypeReference<List<PublicRelationType>>() {}),
+  RELATIONS(new TypeReference<RelationsResponse>() {});
+
+  private static final ResponseType[] VALUES = values();
+
+  private final TypeReference<?> typeReference;
+
+  ResponseType(TypeReference<?> typeReference) {
+    this.typeReference = typeReference;
+  }
+
+  TypeReference<?> typeReference() {
+    return typeReference;
+  }
+
+  /**
+   * Returns the type with the given ordinal.
+   *
+   * @throws IllegalArgumentException if the ordinal is out of range
+   */
+  static ResponseType of(int ordinal) {
+    if (ordinal < 0 || ordinal >= VALUES.length) {
+      throw new IllegalArgumentException("Unknown response type: " + ordinal);
+    }
+    return VALUES[ordinal];
+  }
+}
@@ -0,0 +1,14 @@
+package fr.lirmm.jdm.client;
+
+/**
+ * Statistics about conditional revalidation of expired entries.
+ *
+ * @param conditionalRequests number of requests sent with {@code If-None-Match} or {@code
+ *     If-Modified-Since}
+ * @param notModified number of {@code 304 Not Modified} responses
+ * @param unchangedBodies number of full responses whose body matched the stored content hash,
+ *     so parsing was skipped
+ * @param bytesSaved response body bytes not transferred thanks to {@code 304} responses
+ */
+public record RevalidationStats(
+    long conditionalRequests, long notModified, long unchangedBodies, long bytesSaved) {}
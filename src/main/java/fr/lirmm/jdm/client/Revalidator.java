@@ -0,0 +1,145 @@
+package fr.lirmm.jdm.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.lirmm.jdm.cache.Cache;
+import fr.lirmm.jdm.cache.LruCache;
+
+/**
+ * Keeps HTTP validators for cached entries so that expired entries can be revalidated instead of
+ * downloaded and parsed again.
+ *
+ * <p>For each cache key, the {@code ETag}, {@code Last-Modified} and a SHA-256 hash of the body
+ * of the last response are stored, with the time the entry stops being fresh. The value itself
+ * is not stored here: the main cache keeps an expired entry for a while, and when it is hit
+ * after its freshness ends the client sends a conditional request. A {@code 304 Not Modified}
+ * serves the cached value again without a body transfer, and a {@code 200} whose body hash is
+ * unchanged serves it again without parsing.
+ *
+ * <p>The validators are kept in a bounded LRU cache; an entry without validators, or evicted
+ * from the main cache, is simply fetched in full.
+ */
+final class Revalidator {
+
+  private final long freshNanos;
+  private final Cache<String, Validated> validated;
+  // Cached values being revalidated by a load in progress
+  private final Map<String, Object> revalidating = new ConcurrentHashMap<>();
+  private final AtomicLong conditionalRequests = new AtomicLong(0);
+  private final AtomicLong notModified = new AtomicLong(0);
+  private final AtomicLong unchangedBodies = new AtomicLong(0);
+  private final AtomicLong bytesSaved = new AtomicLong(0);
+
+  Revalidator(int maxEntries, Duration freshFor) {
+    this.freshNanos = freshFor.toNanos();
+    this.validated = new LruCache<>(maxEntries);
+  }
+
+  /** Returns whether a cached entry can be served without revalidation. */
+  boolean isFresh(String key) {
+    Validated entry = validated.get(key);
+    return entry != null && entry.freshUntil() - System.nanoTime() > 0;
+  }
+
+  /** Makes a cached value available to the load revalidating it. */
+  void beginRevalidation(String key, Object cached) {
+    revalidating.put(key, cached);
+  }
+
+  void endRevalidation(String key, Object cached) {
+    revalidating.remove(key, cached);
+  }
+
+  /** Returns the cached value being revalidated for a key, or null if it is loaded afresh. */
+  Object staleValue(String key) {
+    return revalidating.get(key);
+  }
+
+  /** Returns the stored validators for a key, or null if none. */
+  Validated get(String key) {
+    Validated entry = validated.get(key);
+    if (entry != null && entry.hasValidators()) {
+      conditionalRequests.incrementAndGet();
+    }
+    return entry;
+  }
+
+  /** Records a 304 response, whose body was not transferred. */
+  void notModified(Validated entry) {
+    notModified.incrementAndGet();
+    bytesSaved.addAndGet(entry.bodyLength());
+  }
+
+  /** Returns whether a full response body is identical to the one the cached value came from. */
+  boolean unchanged(Validated entry, byte[] bodyHash) {
+    if (entry == null || !Arrays.equals(entry.bodyHash(), bodyHash)) {
+      return false;
+    }
+    unchangedBodies.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Stores the validators of a response.
+   *
+   * @param bodyLength the length of the body in bytes, as received before any charset decoding
+   */
+  void store(String key, String etag, String lastModified, byte[] bodyHash, int bodyLength) {
+    validated.put(
+        key,
+        new Validated(etag, lastModified, bodyHash, bodyLength, System.nanoTime() + freshNanos));
+  }
+
+  /** Starts a new freshness period for a key stored in the main cache. */
+  void refresh(String key) {
+    Validated entry = validated.get(key);
+    long freshUntil = System.nanoTime() + freshNanos;
+    validated.put(
+        key,
+        entry != null
+            ? new Validated(
+                entry.etag(), entry.lastModified(), entry.bodyHash(), entry.bodyLength(), freshUntil)
+            : new Validated(null, null, null, 0, freshUntil));
+  }
+
+  void invalidate(String key) {
+    validated.invalidate(key);
+  }
+
+  void clear() {
+    validated.clear();
+    conditionalRequests.set(0);
+    notModified.set(0);
+    unchangedBodies.set(0);
+    bytesSaved.set(0);
+  }
+
+  RevalidationStats getStats() {
+    return new RevalidationStats(
+        conditionalRequests.get(), notModified.get(), unchangedBodies.get(), bytesSaved.get());
+  }
+
+  static byte[] hash(String body) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** The validators of the response a cached value came from, and when it stops being fresh. */
+  record Validated(
+      String etag, String lastModified, byte[] bodyHash, int bodyLength, long freshUntil) {
+
+    boolean hasValidators() {
+      return etag != null || lastModified != null;
+    }
+  }
+}
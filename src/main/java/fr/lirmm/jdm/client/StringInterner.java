@@ -0,0 +1,99 @@
+package fr.lirmm.jdm.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import fr.lirmm.jdm.cache.CacheStats;
+
+/**
+ * A bounded, lock-free string interner.
+ *
+ * <p>Strings are deduplicated through a fixed-size, direct-mapped table: each string hashes to a
+ * single slot, and a colliding string simply replaces the previous occupant. Unlike {@link
+ * String#intern()}, memory use is bounded by the table size and entries are never pinned, while
+ * frequently repeated strings (node names, relation type help texts) stay resident and are
+ * shared across all cached responses.
+ *
+ * <p>Interning is best effort: a replaced string is not canonical anymore, so two equal strings
+ * may still be distinct instances.
+ */
+public class StringInterner {
+
+  /** Default number of table slots. */
+  public static final int DEFAULT_TABLE_SIZE = 8192;
+
+  private final AtomicReferenceArray<String> table;
+  private final int mask;
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+  private final AtomicLong replacements = new AtomicLong(0);
+
+  /**
+   * Creates an interner with the given number of slots.
+   *
+   * @param tableSize the number of slots (rounded up to the next power of 2)
+   * @throws IllegalArgumentException if tableSize is not positive
+   */
+  public StringInterner(int tableSize) {
+    if (tableSize < 1 || tableSize > (1 << 30)) {
+      throw new IllegalArgumentException("tableSize must be between 1 and 2^30");
+    }
+    int size = tableSize == 1 ? 1 : Integer.highestOneBit(tableSize - 1) << 1;
+    this.table = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Returns a canonical instance equal to the given string.
+   *
+   * @param value the string to intern, may be null
+   * @return a previously seen equal instance, or {@code value} itself
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    int h = value.hashCode();
+    int index = (h ^ (h >>> 16)) & mask;
+
+    String existing = table.getAcquire(index);
+    if (value.equals(existing)) {
+      hits.incrementAndGet();
+      return existing;
+    }
+    if (existing != null) {
+      replacements.incrementAndGet();
+    }
+    table.setRelease(index, value);
+    misses.incrementAndGet();
+    return value;
+  }
+
+  /**
+   * Returns deduplication statistics.
+   *
+   * <p>Hits are strings that were collapsed onto an existing instance, misses are strings that
+   * were stored, and evictions count slot replacements. Computing the size scans the table.
+   *
+   * @return the interner statistics
+   */
+  public CacheStats getStats() {
+    long size = 0;
+    for (int i = 0; i < table.length(); i++) {
+      if (table.getAcquire(i) != null) {
+        size++;
+      }
+    }
+    return new CacheStats(hits.get(), misses.get(), replacements.get(), size);
+  }
+
+  /** Removes all strings and resets the statistics. */
+  public void clear() {
+    for (int i = 0; i < table.length(); i++) {
+      table.setRelease(i, null);
+    }
+    hits.set(0);
+    misses.set(0);
+    replacements.set(0);
+  }
+}
@@ -0,0 +1,283 @@
+package fr.lirmm.jdm.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link InvalidationBus} fanning batches out to a static list of members over TCP.
+ *
+ * <p>Each member listens on its own {@code host:port} and keeps one persistent connection to
+ * every other member. A batch is written as one frame:
+ *
+ * <pre>
+ * int count, then per invalidation: boolean hasKey, [UTF key], long version
+ * </pre>
+ *
+ * <p>Each member has its own sender thread and a bounded queue of batches, so publishing never
+ * waits on the network. A member that cannot be reached is skipped for that batch and
+ * reconnected on the next one. If a member falls so far behind that its queue fills up, its
+ * backlog is dropped and its connection reset: a slow member only misses invalidations, which
+ * its entries recover from by expiring, and never delays the others or {@link #close()}.
+ *
+ * <p>Connections are only accepted from the addresses of the members, resolved when the bus
+ * starts, so that no other host can invalidate or clear their caches.
+ */
+public final class TcpInvalidationBus implements InvalidationBus {
+
+  private static final Logger logger = LoggerFactory.getLogger(TcpInvalidationBus.class);
+  private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+  private static final int CLOSE_TIMEOUT_MILLIS = 1_000;
+  private static final int MAX_BATCH_SIZE = 1 << 20;
+  private static final int MAX_QUEUED_BATCHES = 64;
+
+  private final String self;
+  private final Set<InetAddress> memberAddresses;
+  private final List<Sender> senders;
+  private final ServerSocket serverSocket;
+  private volatile Listener listener;
+  private volatile boolean closed;
+
+  /**
+   * Joins the bus and starts listening on this member's address.
+   *
+   * @param self this member's {@code host:port}, which must appear in members
+   * @param members the {@code host:port} of every member
+   * @throws IllegalArgumentException if self is not a member or an address is malformed
+   * @throws IllegalStateException if the local address cannot be bound
+   */
+  public TcpInvalidationBus(String self, List<String> members) {
+    if (members == null || !members.contains(self)) {
+      throw new IllegalArgumentException("self must be one of the members");
+    }
+    this.memberAddresses = PeerTier.memberAddresses(members);
+    this.self = self;
+    try {
+      this.serverSocket = new ServerSocket();
+      serverSocket.setReuseAddress(true);
+      serverSocket.bind(PeerTier.parseAddress(self));
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot bind invalidation bus address " + self, e);
+    }
+    this.senders =
+        members.stream()
+            .filter(member -> !member.equals(self))
+            .distinct()
+            .map(Sender::new)
+            .toList();
+    Thread acceptor = new Thread(this::acceptLoop, "JDM-Invalidation-" + self);
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  @Override
+  public void subscribe(Listener listener) {
+    this.listener = listener;
+  }
+
+  /** Queues the batch for each member, without waiting for it to be sent. */
+  @Override
+  public void publish(List<Invalidation> batch) {
+    if (closed) {
+      return;
+    }
+    for (Sender sender : senders) {
+      sender.enqueue(batch);
+    }
+  }
+
+  /**
+   * Stops listening, then gives the senders up to a second in total to deliver the batches
+   * already queued before closing their connections.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      logger.debug("Error closing invalidation bus socket", e);
+    }
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+    for (Sender sender : senders) {
+      try {
+        sender.thread.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    for (Sender sender : senders) {
+      sender.thread.interrupt();
+      sender.disconnect();
+    }
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        if (!memberAddresses.contains(socket.getInetAddress())) {
+          logger.warn(
+              "Rejecting invalidation connection from non-member {}", socket.getInetAddress());
+          socket.close();
+          continue;
+        }
+        Thread.ofVirtual().name("JDM-Invalidation-Conn").start(() -> receive(socket));
+      } catch (IOException e) {
+        if (!closed) {
+          logger.warn("Invalidation bus accept failed on {}", self, e);
+        }
+      }
+    }
+  }
+
+  private void receive(Socket socket) {
+    try (socket;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+      while (!closed) {
+        int count;
+        try {
+          count = in.readInt();
+        } catch (EOFException e) {
+          return;
+        }
+        if (count < 0 || count > MAX_BATCH_SIZE) {
+          logger.warn("Closing invalidation connection after invalid batch size {}", count);
+          return;
+        }
+        List<Invalidation> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          String key = in.readBoolean() ? in.readUTF() : null;
+          batch.add(new Invalidation(key, in.readLong()));
+        }
+        Listener target = listener;
+        if (target != null) {
+          target.onInvalidations(batch);
+        }
+      }
+    } catch (IOException e) {
+      if (!closed) {
+        logger.debug("Invalidation connection closed: {}", e.getMessage());
+      }
+    }
+  }
+
+  /** Delivers the batches queued for one member, in order, on a dedicated thread. */
+  private final class Sender {
+
+    private final String peer;
+    private final BlockingQueue<List<Invalidation>> queue =
+        new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES);
+    private final Thread thread;
+    // Guarded by this; written only by the sender thread once connected
+    private Socket socket;
+    private DataOutputStream out;
+
+    Sender(String peer) {
+      this.peer = peer;
+      this.thread = new Thread(this::sendLoop, "JDM-Invalidation-Send-" + peer);
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    void enqueue(List<Invalidation> batch) {
+      if (!queue.offer(batch)) {
+        int dropped = queue.size();
+        queue.clear();
+        logger.warn("Dropping {} invalidation batches queued for {}: member too slow",
+            dropped, peer);
+        // Unblocks a write stuck on the member; the next batch reconnects
+        disconnect();
+        queue.offer(batch);
+      }
+    }
+
+    private void sendLoop() {
+      while (true) {
+        List<Invalidation> batch;
+        try {
+          batch = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (batch == null) {
+          if (closed) {
+            return;
+          }
+          continue;
+        }
+        try {
+          DataOutputStream connection = connection();
+          connection.writeInt(batch.size());
+          for (Invalidation invalidation : batch) {
+            connection.writeBoolean(!invalidation.isClear());
+            if (!invalidation.isClear()) {
+              connection.writeUTF(invalidation.key());
+            }
+            connection.writeLong(invalidation.version());
+          }
+          connection.flush();
+        } catch (IOException e) {
+          logger.warn("Dropping invalidation batch for {}: {}", peer, e.getMessage());
+          disconnect();
+        }
+      }
+    }
+
+    private DataOutputStream connection() throws IOException {
+      synchronized (this) {
+        if (out != null) {
+          return out;
+        }
+      }
+      Socket created = new Socket();
+      DataOutputStream stream;
+      try {
+        created.connect(PeerTier.parseAddress(peer), CONNECT_TIMEOUT_MILLIS);
+        created.setTcpNoDelay(true);
+        stream = new DataOutputStream(new BufferedOutputStream(created.getOutputStream()));
+      } catch (IOException e) {
+        created.close();
+        throw e;
+      }
+      synchronized (this) {
+        socket = created;
+        out = stream;
+      }
+      return stream;
+    }
+
+    private void disconnect() {
+      Socket current;
+      synchronized (this) {
+        current = socket;
+        socket = null;
+        out = null;
+      }
+      if (current != null) {
+        try {
+          current.close();
+        } catch (IOException e) {
+          logger.debug("Error closing invalidation connection to {}", peer, e);
+        }
+      }
+    }
+  }
+}
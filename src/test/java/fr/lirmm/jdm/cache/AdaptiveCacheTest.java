@@ -0,0 +1,118 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import fr.lirmm.jdm.cache.AdaptiveCache.Layout;
+
+/** Unit tests for AdaptiveCache. */
+class AdaptiveCacheTest {
+
+  private static final CacheConfig CONFIG = CacheConfig.builder().maxSize(100_000).build();
+
+  @Test
+  void testSingleThreadMovesToBaseline() {
+    AdaptiveCache<Integer, Integer> cache = new AdaptiveCache<>(CONFIG, Layout.SHARDED, 1024);
+    for (int i = 0; i < 20_000; i++) {
+      cache.put(i % 5_000, i % 5_000);
+      cache.get(i % 5_000);
+    }
+
+    assertEquals(Layout.BASELINE, cache.getLayout());
+    assertEquals(1, cache.getLayoutChangeCount());
+    assertNotNull(cache.getTelemetry());
+    assertEquals(5_000, cache.size());
+    for (int i = 0; i < 5_000; i++) {
+      assertEquals(i, cache.get(i));
+    }
+  }
+
+  @Test
+  void testConcurrentReadHeavyMovesToL1() throws Exception {
+    AdaptiveCache<Integer, Integer> cache = new AdaptiveCache<>(CONFIG, Layout.BASELINE, 16_384);
+    for (int i = 0; i < 1_000; i++) {
+      cache.put(i, i);
+    }
+
+    // Threads advance in lockstep so every window sees all of them, even on one core
+    Phaser phaser = new Phaser(16);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<?>> workers = new ArrayList<>();
+    for (int t = 0; t < 16; t++) {
+      workers.add(executor.submit(() -> {
+        for (int i = 0; i < 20_000; i++) {
+          if (i % 100 == 0) {
+            phaser.arriveAndAwaitAdvance();
+          }
+          int key = ThreadLocalRandom.current().nextInt(1_000);
+          if (i % 50 == 0) {
+            cache.put(key, key);
+          } else {
+            assertEquals(key, cache.get(key));
+          }
+        }
+      }));
+    }
+    for (Future<?> worker : workers) {
+      worker.get();
+    }
+    executor.shutdown();
+
+    assertEquals(Layout.L1_L2, cache.getLayout());
+    assertEquals(1_000, cache.size());
+  }
+
+  @Test
+  void testMovesKeepEntriesUnderConcurrentWrites() throws Exception {
+    AdaptiveCache<Integer, Integer> cache =
+        new AdaptiveCache<>(CONFIG, Layout.BASELINE, Integer.MAX_VALUE);
+    for (int i = 0; i < 10_000; i++) {
+      cache.put(i, -1);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int base = t * 2_500;
+      writers.add(executor.submit(() -> {
+        for (int i = base; i < base + 2_500; i++) {
+          cache.put(i, i);
+          cache.invalidate(i + 10_000);
+        }
+      }));
+    }
+
+    cache.moveTo(Layout.SHARDED);
+    cache.moveTo(Layout.L1_L2);
+    cache.moveTo(Layout.BASELINE);
+    for (Future<?> writer : writers) {
+      writer.get();
+    }
+    executor.shutdown();
+
+    assertEquals(3, cache.getLayoutChangeCount());
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals(i, cache.get(i));
+    }
+    assertNull(cache.get(10_001));
+    assertEquals(10_000, cache.size());
+  }
+
+  @Test
+  void testRequiresLru() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AdaptiveCache<String, String>(
+            CacheConfig.builder().evictionStrategy(CacheConfig.EvictionStrategy.TTL).build()));
+  }
+}
@@ -0,0 +1,107 @@
+package fr.lirmm.jdm.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ArcCache. */
+class ArcCacheTest {
+
+  @Test
+  void testBasicOperations() {
+    ArcCache<String, String> cache = new ArcCache<>(10);
+    cache.put("a", "1");
+    cache.put("a", "2");
+
+    assertEquals("2", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(1, cache.size());
+
+    cache.invalidate("a");
+    assertFalse(cache.containsKey("a"));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+  }
+
+  @Test
+  void testFrequentEntriesSurviveScan() {
+    ArcCache<Integer, Integer> cache = new ArcCache<>(100);
+    for (int key = 0; key < 50; key++) {
+      cache.put(key, key);
+      cache.get(key);
+    }
+
+    for (int key = 1_000; key < 2_000; key++) {
+      cache.put(key, key);
+    }
+
+    assertEquals(100, cache.size());
+    for (int key = 0; key < 50; key++) {
+      assertTrue(cache.containsKey(key), "Frequent key " + key + " was evicted");
+    }
+  }
+
+  @Test
+  void testTargetFollowsWorkloadPhases() {
+    ArcCache<Integer, Integer> cache = new ArcCache<>(100);
+    // Frequency: a vocabulary of 40 keys is read over and over
+    readRounds(cache, 0, 40, 3);
+    assertEquals(0, cache.getRecentTarget());
+
+    // Recency: 80 keys cycled, each coming back shortly after leaving the recency list
+    readRounds(cache, 1_000, 80, 10);
+    int recencyTarget = cache.getRecentTarget();
+    assertTrue(recencyTarget > 0, "Target " + recencyTarget);
+
+    // Frequency again: the vocabulary comes back from the frequency ghost list
+    readRounds(cache, 0, 40, 10);
+    assertTrue(cache.getRecentTarget() < recencyTarget);
+    for (int key = 0; key < 40; key++) {
+      assertTrue(cache.containsKey(key), "Frequent key " + key + " was evicted");
+    }
+  }
+
+  @Test
+  void testResizeEvicts() {
+    ArcCache<Integer, Integer> cache = new ArcCache<>(20);
+    for (int key = 0; key < 40; key++) {
+      cache.put(key, key);
+    }
+
+    cache.resize(5);
+
+    assertEquals(5, cache.size());
+    cache.put(100, 100);
+    assertEquals(5, cache.size());
+  }
+
+  /** Reads keys first to first + count - 1, writing the missing ones, for several rounds. */
+  private static void readRounds(ArcCache<Integer, Integer> cache, int first, int count,
+      int rounds) {
+    for (int round = 0; round < rounds; round++) {
+      for (int key = first; key < first + count; key++) {
+        if (cache.get(key) == null) {
+          cache.put(key, key);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testShardedThroughFactory() {
+    CacheConfig config =
+        CacheConfig.builder().maxSize(64).evictionStrategy(CacheConfig.EvictionStrategy.ARC).build();
+    assertInstanceOf(ArcCache.class, CacheFactory.create(config));
+
+    Cache<Integer, Integer> sharded = CacheFactory.createSharded(config, 4);
+    for (int key = 0; key < 1_000; key++) {
+      sharded.put(key, key);
+    }
+    assertTrue(sharded.size() <= 64);
+  }
+}
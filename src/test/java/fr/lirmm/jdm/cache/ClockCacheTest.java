@@ -0,0 +1,111 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ClockCache. */
+class ClockCacheTest {
+
+  @Test
+  void testBasicOperations() {
+    ClockCache<String, String> cache = new ClockCache<>(10);
+    cache.put("a", "1");
+    cache.put("a", "2");
+
+    assertEquals("2", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(1, cache.size());
+
+    cache.invalidate("a");
+    assertFalse(cache.containsKey("a"));
+    assertEquals(0, cache.size());
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+  }
+
+  @Test
+  void testReferencedEntriesSurviveEviction() {
+    ClockCache<Integer, String> cache = new ClockCache<>(10);
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, "v" + i);
+    }
+    cache.get(0);
+    cache.get(1);
+
+    for (int i = 10; i < 15; i++) {
+      cache.put(i, "v" + i);
+    }
+
+    assertEquals(10, cache.size());
+    assertEquals(5, cache.getStats().getEvictionCount());
+    assertTrue(cache.containsKey(0));
+    assertTrue(cache.containsKey(1));
+    assertFalse(cache.containsKey(2));
+  }
+
+  @Test
+  void testResizeEvicts() {
+    ClockCache<Integer, String> cache = new ClockCache<>(10);
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, "v");
+    }
+
+    cache.resize(4);
+
+    assertEquals(4, cache.size());
+    cache.put(100, "v");
+    assertEquals(4, cache.size());
+  }
+
+  @Test
+  void testConcurrentReadsAndWritesStayBounded() throws Exception {
+    ClockCache<Integer, Integer> cache = new ClockCache<>(100);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int seed = t;
+        futures.add(executor.submit(() -> {
+          Random random = new Random(seed);
+          for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+              cache.put(key, key);
+            } else if (random.nextInt(32) == 0) {
+              cache.invalidate(key);
+            } else {
+              Integer value = cache.get(key);
+              assertTrue(value == null || value == key);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(cache.size() <= 100);
+  }
+
+  @Test
+  void testSelectedByFactory() {
+    CacheConfig config =
+        CacheConfig.builder().evictionStrategy(CacheConfig.EvictionStrategy.CLOCK).build();
+    assertInstanceOf(ClockCache.class, CacheFactory.create(config));
+  }
+}
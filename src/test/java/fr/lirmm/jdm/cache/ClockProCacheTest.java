@@ -0,0 +1,99 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ClockProCache. */
+class ClockProCacheTest {
+
+  @Test
+  void testBasicOperations() {
+    ClockProCache<String, String> cache = new ClockProCache<>(10);
+    cache.put("a", "1");
+    cache.put("a", "2");
+
+    assertEquals("2", cache.get("a"));
+    assertNull(cache.get("b"));
+
+    cache.invalidate("a");
+    assertFalse(cache.containsKey("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testHotEntriesSurviveScans() {
+    ClockProCache<Integer, Integer> clockPro = new ClockProCache<>(100);
+    LruCache<Integer, Integer> lru = new LruCache<>(100);
+
+    double clockProHitRate = hotHitRate(clockPro);
+    double lruHitRate = hotHitRate(lru);
+
+    assertTrue(clockPro.getHotCount() > 0);
+    assertTrue(clockProHitRate > 0.8, "CLOCK-Pro hot hit rate " + clockProHitRate);
+    assertTrue(clockProHitRate > lruHitRate + 0.5, "LRU hot hit rate " + lruHitRate);
+  }
+
+  @Test
+  void testStaysBoundedUnderRandomOperations() {
+    ClockProCache<Integer, Integer> cache = new ClockProCache<>(64);
+    Map<Integer, Integer> written = new HashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(random.nextBoolean() ? 32 : 1_000);
+      switch (random.nextInt(8)) {
+        case 0 -> {
+          cache.put(key, i);
+          written.put(key, i);
+        }
+        case 1 -> {
+          cache.invalidate(key);
+          written.remove(key);
+        }
+        case 2 -> cache.resize(32 + random.nextInt(64));
+        default -> {
+          Integer value = cache.get(key);
+          assertTrue(value == null || value.equals(written.get(key)));
+        }
+      }
+      assertTrue(cache.size() <= 96);
+    }
+  }
+
+  @Test
+  void testSelectedByFactory() {
+    CacheConfig config =
+        CacheConfig.builder().evictionStrategy(CacheConfig.EvictionStrategy.CLOCK_PRO).build();
+    assertInstanceOf(ClockProCache.class, CacheFactory.create(config));
+  }
+
+  /** Reads 50 hot keys between scans of 100 keys read once, returning the final hot hit rate. */
+  private static double hotHitRate(Cache<Integer, Integer> cache) {
+    int scanKey = 1_000;
+    int hotHits = 0;
+    for (int round = 0; round < 20; round++) {
+      hotHits = 0;
+      for (int key = 0; key < 50; key++) {
+        if (cache.get(key) != null) {
+          hotHits++;
+        } else {
+          cache.put(key, key);
+        }
+      }
+      for (int i = 0; i < 100; i++, scanKey++) {
+        if (cache.get(scanKey) == null) {
+          cache.put(scanKey, scanKey);
+        }
+      }
+    }
+    return hotHits / 50.0;
+  }
+}
@@ -0,0 +1,82 @@
+package fr.lirmm.jdm.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for CompressedCache. */
+class CompressedCacheTest {
+
+  private CompressedCache<String, String> cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new CompressedCache<>(4, 2, ValueCodec.utf8());
+  }
+
+  @Test
+  void testColdEntriesAreCompressedAndPromotedOnHit() {
+    String payload = "{\"relations\": [" + "{\"type\": 6, \"w\": 25.0},".repeat(200) + "]}";
+    cache.put("a", payload);
+    cache.put("b", "b");
+    cache.put("c", "c");
+
+    // "a" was demoted to the compressed region
+    assertTrue(cache.getCompressedBytes() > 0);
+    assertTrue(cache.getCompressedBytes() * 5 < cache.getUncompressedBytes());
+
+    assertEquals(payload, cache.get("a"));
+    assertEquals(1, cache.getColdHitCount());
+    assertEquals(3, cache.size());
+
+    // Promoting "a" demoted "b"; a second hit on "a" is served hot
+    assertEquals(payload, cache.get("a"));
+    assertEquals(1, cache.getColdHitCount());
+    assertEquals("b", cache.get("b"));
+    assertEquals(2, cache.getColdHitCount());
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsedBeyondMaxSize() {
+    for (int i = 0; i < 6; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+
+    assertEquals(4, cache.size());
+    assertNull(cache.get("key0"));
+    assertNull(cache.get("key1"));
+    assertEquals("value2", cache.get("key2"));
+    assertEquals(2, cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  void testInvalidateAndOverwriteColdEntry() {
+    cache.put("a", "first");
+    cache.put("b", "b");
+    cache.put("c", "c");
+
+    cache.put("a", "second");
+    assertEquals("second", cache.get("a"));
+    cache.put("d", "d");
+    cache.put("e", "e");
+    cache.invalidate("a");
+
+    assertFalse(cache.containsKey("a"));
+    assertNull(cache.get("a"));
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getCompressedBytes());
+  }
+
+  @Test
+  void testInvalidSizes() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new CompressedCache<>(4, 0, ValueCodec.utf8()));
+    assertThrows(
+        IllegalArgumentException.class, () -> new CompressedCache<>(1, 2, ValueCodec.utf8()));
+  }
+}
@@ -0,0 +1,102 @@
+package fr.lirmm.jdm.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for GdsfCache. */
+class GdsfCacheTest {
+
+  @Test
+  void testBasicOperations() {
+    GdsfCache<String, String> cache = new GdsfCache<>(10);
+    cache.put("a", "1");
+    cache.put("a", "2");
+
+    assertEquals("2", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(1, cache.size());
+
+    cache.invalidate("a");
+    assertFalse(cache.containsKey("a"));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertThrows(IllegalArgumentException.class, () -> cache.put("c", "3", -1, 1));
+  }
+
+  @Test
+  void testExpensiveEntriesOutliveCheapOnes() {
+    GdsfCache<String, String> cache = new GdsfCache<>(3);
+    cache.put("hub", "relations", 1_000_000, 10);
+    cache.put("node1", "node", 1_000, 10);
+    cache.put("node2", "node", 1_000, 10);
+
+    cache.put("node3", "node", 1_000, 10);
+    cache.put("node4", "node", 1_000, 10);
+
+    assertTrue(cache.containsKey("hub"));
+    assertFalse(cache.containsKey("node1"));
+    assertFalse(cache.containsKey("node2"));
+    assertEquals(2, cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  void testLargeEntriesWeighLess() {
+    GdsfCache<String, String> cache = new GdsfCache<>(2);
+    cache.put("large", "v", 1_000, 1_000);
+    cache.put("small", "v", 1_000, 10);
+
+    cache.put("other", "v", 1_000, 10);
+
+    assertFalse(cache.containsKey("large"));
+    assertTrue(cache.containsKey("small"));
+  }
+
+  @Test
+  void testFrequencyAndAging() {
+    GdsfCache<Integer, Integer> cache = new GdsfCache<>(2);
+    cache.put(1, 1);
+    cache.put(2, 2);
+    for (int i = 0; i < 5; i++) {
+      cache.get(1);
+    }
+
+    // Unit costs: the key read most often stays
+    cache.put(3, 3);
+    assertTrue(cache.containsKey(1));
+    assertFalse(cache.containsKey(2));
+    assertEquals(1.0, cache.getInflation());
+
+    // Each eviction raises the floor, so new keys eventually outrank stale reads
+    for (int key = 4; key < 12; key++) {
+      cache.put(key, key);
+      cache.get(key);
+    }
+    assertFalse(cache.containsKey(1));
+    assertTrue(cache.getInflation() > 6);
+  }
+
+  @Test
+  void testResizeAndFactory() {
+    GdsfCache<Integer, Integer> cache = new GdsfCache<>(10);
+    for (int key = 0; key < 10; key++) {
+      cache.put(key, key, key, 1);
+    }
+    cache.resize(4);
+
+    assertEquals(4, cache.size());
+    for (int key = 6; key < 10; key++) {
+      assertTrue(cache.containsKey(key), "Expensive key " + key + " was evicted");
+    }
+
+    CacheConfig config =
+        CacheConfig.builder().evictionStrategy(CacheConfig.EvictionStrategy.GDSF).build();
+    assertInstanceOf(GdsfCache.class, CacheFactory.create(config));
+  }
+}
@@ -0,0 +1,137 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for IntKeyCache. */
+class IntKeyCacheTest {
+
+  @Test
+  void testPutGetAndInvalidate() {
+    IntKeyCache<String> cache = new IntKeyCache<>(100);
+    cache.put(0, "zero");
+    cache.put(-7, "negative");
+    cache.put(42, "first");
+    cache.put(42, "second");
+
+    assertEquals("zero", cache.get(0));
+    assertEquals("negative", cache.get(-7));
+    assertEquals("second", cache.get(42));
+    assertNull(cache.get(1));
+    assertEquals(3, cache.size());
+
+    cache.invalidate(0);
+    assertFalse(cache.containsKey(0));
+    assertTrue(cache.containsKey(42));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(3, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(2, stats.getSize());
+    assertThrows(IllegalArgumentException.class, () -> cache.put(1, null));
+    assertThrows(IllegalArgumentException.class, () -> new IntKeyCache<String>(0));
+  }
+
+  @Test
+  void testMatchesMapUnderRandomOperations() {
+    // Small, colliding key range so that deletions shift entries back
+    IntKeyCache<Integer> cache = new IntKeyCache<>(1_000, 1);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 50_000; i++) {
+      int key = random.nextInt(800) * 1024;
+      if (random.nextInt(3) == 0) {
+        cache.invalidate(key);
+        expected.remove(key);
+      } else {
+        cache.put(key, i);
+        expected.put(key, i);
+      }
+    }
+
+    assertEquals(expected.size(), cache.size());
+    for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), cache.get(entry.getKey()));
+    }
+  }
+
+  @Test
+  void testClockKeepsReferencedEntries() {
+    IntKeyCache<String> cache = new IntKeyCache<>(64, 1);
+    for (int i = 0; i < 64; i++) {
+      cache.put(i, "v" + i);
+    }
+    for (int i = 0; i < 8; i++) {
+      cache.get(i);
+    }
+
+    for (int i = 64; i < 96; i++) {
+      cache.put(i, "v" + i);
+    }
+
+    assertEquals(64, cache.size());
+    assertEquals(32, cache.getStats().getEvictionCount());
+    for (int i = 0; i < 8; i++) {
+      assertTrue(cache.containsKey(i), "Referenced key " + i + " was evicted");
+    }
+  }
+
+  @Test
+  void testSizeBoundedAcrossSegments() {
+    IntKeyCache<String> cache = new IntKeyCache<>(1_000, 8);
+    for (int i = 0; i < 10_000; i++) {
+      cache.put(i, "v");
+    }
+
+    assertEquals(8, cache.getSegmentCount());
+    assertEquals(1_000, cache.size());
+    assertEquals(9_000, cache.getStats().getEvictionCount());
+    assertEquals(1, new IntKeyCache<String>(20, 64).getSegmentCount());
+  }
+
+  @Test
+  void testReadersNeverSeeAnotherKeysValue() throws Exception {
+    IntKeyCache<Integer> cache = new IntKeyCache<>(512, 4);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int seed = t;
+        futures.add(executor.submit(() -> {
+          Random random = new Random(seed);
+          for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_048);
+            if (random.nextInt(4) == 0) {
+              cache.put(key, key);
+            } else if (random.nextInt(16) == 0) {
+              cache.invalidate(key);
+            } else {
+              Integer value = cache.get(key);
+              assertTrue(value == null || value == key, "Key " + key + " read " + value);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(cache.size() <= 512);
+  }
+}
@@ -1,5 +1,7 @@
 package fr.lirmm.jdm.cache;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -266,4 +268,29 @@ class LruCacheTest {
     CacheStats stats = cache.getStats();
     assertTrue(stats.getEvictionCount() > 0);
   }
+
+  @Test
+  void testBulkOperations() {
+    cache.putAll(Map.of("key1", "value1", "key2", "value2"));
+
+    Map<String, String> found = cache.getAll(List.of("key1", "key2", "key3"));
+    assertEquals(Map.of("key1", "value1", "key2", "value2"), found);
+    assertEquals(2, cache.getStats().getHitCount());
+    assertEquals(1, cache.getStats().getMissCount());
+
+    cache.getAll(List.of("key1", "key1", "key3", "key3"));
+    assertEquals(4, cache.getStats().getHitCount());
+    assertEquals(3, cache.getStats().getMissCount());
+
+    cache.invalidateAll(List.of("key1", "key3"));
+    assertFalse(cache.containsKey("key1"));
+    assertTrue(cache.containsKey("key2"));
+  }
+
+  @Test
+  void testPutAllEvictsBeyondMaxSize() {
+    cache.putAll(Map.of("key1", "v", "key2", "v", "key3", "v", "key4", "v", "key5", "v"));
+    assertEquals(3, cache.size());
+    assertEquals(2, cache.getStats().getEvictionCount());
+  }
 }
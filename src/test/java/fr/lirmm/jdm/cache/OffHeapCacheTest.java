@@ -0,0 +1,205 @@
+package fr.lirmm.jdm.cache;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for OffHeapCache. */
+class OffHeapCacheTest {
+
+  private OffHeapCache<String, String> cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new OffHeapCache<>(3, 4096, 1024, ValueCodec.utf8());
+  }
+
+  @AfterEach
+  void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  void testPutAndGet() {
+    cache.put("key1", "value1");
+    assertEquals("value1", cache.get("key1"));
+    assertNull(cache.get("missing"));
+  }
+
+  @Test
+  void testOverwriteReusesChunk() {
+    cache.put("key1", "value1");
+    long reserved = cache.getReservedBytes();
+    for (int i = 0; i < 100; i++) {
+      cache.put("key1", "value" + i);
+    }
+    assertEquals("value99", cache.get("key1"));
+    assertEquals(1, cache.size());
+    assertEquals(reserved, cache.getReservedBytes());
+  }
+
+  @Test
+  void testLruEvictionByEntryCount() {
+    cache.put("key1", "value1");
+    cache.put("key2", "value2");
+    cache.put("key3", "value3");
+    cache.get("key1");
+
+    cache.put("key4", "value4");
+
+    assertEquals(3, cache.size());
+    assertNotNull(cache.get("key1"));
+    assertNull(cache.get("key2"));
+    assertEquals(1, cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  void testEvictionWhenCapacityExhausted() {
+    // 4 slabs of 1024 bytes, each holding a single 1000-byte value
+    OffHeapCache<String, String> small = new OffHeapCache<>(100, 4096, 1024, ValueCodec.utf8());
+    String large = "x".repeat(1000);
+    for (int i = 0; i < 6; i++) {
+      small.put("key" + i, large);
+    }
+    assertEquals(4, small.size());
+    assertEquals(4096, small.getReservedBytes());
+    assertNull(small.get("key0"));
+    assertEquals(large, small.get("key5"));
+    small.close();
+  }
+
+  @Test
+  void testFailedEncodeReleasesChunk() {
+    ValueCodec<String> utf8 = ValueCodec.utf8();
+    ValueCodec<String> failing = new ValueCodec<>() {
+      @Override
+      public int encodedSize(String value) {
+        return utf8.encodedSize(value);
+      }
+
+      @Override
+      public void encode(String value, ByteBuffer target) {
+        if (value.startsWith("bad")) {
+          throw new IllegalArgumentException("Unsupported value");
+        }
+        utf8.encode(value, target);
+      }
+
+      @Override
+      public String decode(ByteBuffer source) {
+        return utf8.decode(source);
+      }
+    };
+    // A single chunk: leaking it would leave no room for any other value
+    try (OffHeapCache<String, String> single = new OffHeapCache<>(10, 1024, 1024, failing)) {
+      String bad = "bad" + "x".repeat(900);
+      String good = "x".repeat(900);
+      assertThrows(IllegalArgumentException.class, () -> single.put("key1", bad));
+
+      single.put("key2", good);
+      assertEquals(good, single.get("key2"));
+      assertEquals(0, single.getRejectionCount());
+    }
+  }
+
+  @Test
+  void testEmptySlabIsReassignedToAnotherSizeClass() {
+    try (OffHeapCache<String, String> small =
+        new OffHeapCache<>(100, 2048, 1024, ValueCodec.utf8())) {
+      // 16 chunks of 64 bytes per slab: fill both slabs, then empty the first one
+      for (int i = 0; i < 32; i++) {
+        small.put("key" + i, "v" + i);
+      }
+      for (int i = 0; i < 16; i++) {
+        small.invalidate("key" + i);
+      }
+
+      String large = "x".repeat(900);
+      small.put("large", large);
+
+      assertEquals(large, small.get("large"));
+      assertEquals(17, small.size());
+      assertEquals(0, small.getStats().getEvictionCount());
+      assertEquals(0, small.getRejectionCount());
+    }
+  }
+
+  @Test
+  void testStarvedSizeClassTakesOverSlab() {
+    try (OffHeapCache<String, String> small =
+        new OffHeapCache<>(100, 2048, 1024, ValueCodec.utf8())) {
+      for (int i = 0; i < 32; i++) {
+        small.put("key" + i, "v" + i);
+      }
+
+      String large = "x".repeat(900);
+      small.put("large", large);
+
+      assertEquals(large, small.get("large"));
+      assertEquals(0, small.getRejectionCount());
+      // The least occupied slab of the small size class is emptied
+      assertEquals(16, small.getStats().getEvictionCount());
+      assertEquals(17, small.size());
+      assertEquals("v31", small.get("key31"));
+    }
+  }
+
+  @Test
+  void testOversizedValueIsRejected() {
+    cache.put("key1", "small");
+    cache.put("key1", "x".repeat(2000));
+    assertNull(cache.get("key1"));
+    assertEquals(1, cache.getRejectionCount());
+  }
+
+  @Test
+  void testReadExposesStoredBytes() {
+    cache.put("key1", "hello");
+    Integer length = cache.read("key1", ByteBuffer::remaining);
+    assertEquals(5, length);
+    assertTrue(cache.read("key1", ByteBuffer::isReadOnly));
+    assertNull(cache.read("missing", ByteBuffer::remaining));
+  }
+
+  @Test
+  void testInvalidateAndClear() {
+    cache.put("key1", "value1");
+    cache.put("key2", "value2");
+    cache.invalidate("key1");
+    assertNull(cache.get("key1"));
+    assertEquals(6, cache.getStoredBytes());
+
+    long reserved = cache.getReservedBytes();
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getStoredBytes());
+
+    // Cleared slabs stay reserved and are reused, even by another size class
+    assertEquals(reserved, cache.getReservedBytes());
+    cache.put("key3", "x".repeat(500));
+    assertEquals(reserved, cache.getReservedBytes());
+  }
+
+  @Test
+  void testPutAfterCloseFails() {
+    cache.close();
+    assertThrows(IllegalStateException.class, () -> cache.put("key1", "value1"));
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new OffHeapCache<>(0, 4096, 1024, ValueCodec.utf8()));
+    assertThrows(
+        IllegalArgumentException.class, () -> new OffHeapCache<>(10, 512, 1024, ValueCodec.utf8()));
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapCache<>(10, 4096, 1024, null));
+    assertThrows(IllegalArgumentException.class, () -> cache.put(null, "value"));
+  }
+}
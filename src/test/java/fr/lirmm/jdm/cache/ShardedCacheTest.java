@@ -0,0 +1,162 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ShardedCache. */
+class ShardedCacheTest {
+
+  private ShardedCache<String, String> cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new ShardedCache<>(CacheConfig.builder().maxSize(1000).build(), 8);
+  }
+
+  @Test
+  void testPutAndGet() {
+    cache.put("key1", "value1");
+    assertEquals("value1", cache.get("key1"));
+    assertNull(cache.get("missing"));
+  }
+
+  @Test
+  void testShardCountRoundedToPowerOfTwo() {
+    assertEquals(8, new ShardedCache<String, String>(CacheConfig.defaultConfig(), 5).getShardCount());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ShardedCache<String, String>(CacheConfig.defaultConfig(), 0));
+  }
+
+  @Test
+  void testBulkOperationsAcrossShards() {
+    Map<String, String> entries = new HashMap<>();
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      entries.put("key" + i, "value" + i);
+      keys.add("key" + i);
+    }
+    cache.putAll(entries);
+    keys.add("missing");
+
+    Map<String, String> found = cache.getAll(keys);
+
+    assertEquals(entries, found);
+    assertEquals(100, cache.getStats().getHitCount());
+    assertEquals(1, cache.getStats().getMissCount());
+
+    cache.getAll(List.of("key0", "key0", "missing", "missing"));
+    assertEquals(102, cache.getStats().getHitCount());
+    assertEquals(3, cache.getStats().getMissCount());
+
+    cache.invalidateAll(keys.subList(0, 50));
+    assertEquals(50, cache.size());
+    assertFalse(cache.containsKey("key0"));
+    assertEquals("value99", cache.get("key99"));
+  }
+
+  @Test
+  void testSharedCapacityFollowsSkewedDemand() {
+    ShardedCache<String, String> fixed = new ShardedCache<>(
+        CacheConfig.builder().maxSize(800).build(), 8, false);
+    ShardedCache<String, String> shared = new ShardedCache<>(
+        CacheConfig.builder().maxSize(800).build(), 8, true);
+    List<String> hotKeys = new ArrayList<>();
+    for (int i = 0; hotKeys.size() < 400; i++) {
+      if (shared.shardIndex("key" + i) == 0) {
+        hotKeys.add("key" + i);
+      }
+    }
+
+    for (int round = 0; round < 5; round++) {
+      for (String key : hotKeys) {
+        fixed.put(key, "value");
+        shared.put(key, "value");
+      }
+    }
+
+    assertEquals(100, fixed.getStats().getSize());
+    assertEquals(400, shared.getStats().getSize());
+    int totalQuota = 0;
+    for (int i = 0; i < 8; i++) {
+      totalQuota += shared.getShardMaxSize(i);
+    }
+    assertTrue(totalQuota <= 800);
+    assertTrue(shared.getShardMaxSize(1) >= 25);
+  }
+
+  @Test
+  void testReshardKeepsEntriesUnderConcurrentWrites() throws Exception {
+    ShardedCache<Integer, Integer> resharded = new ShardedCache<>(
+        CacheConfig.builder().maxSize(100_000).build(), 4);
+    int threads = 4;
+    int perThread = 5_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int base = t * perThread;
+      writers.add(executor.submit(() -> {
+        for (int i = base; i < base + perThread; i++) {
+          resharded.put(i, i);
+        }
+      }));
+    }
+
+    resharded.reshard(32);
+    resharded.reshard(8);
+    for (Future<?> writer : writers) {
+      writer.get();
+    }
+    executor.shutdown();
+
+    assertEquals(8, resharded.getShardCount());
+    assertEquals(2, resharded.getReshardCount());
+    assertEquals(threads * perThread, resharded.size());
+    for (int i = 0; i < threads * perThread; i++) {
+      assertEquals(i, resharded.get(i));
+    }
+  }
+
+  @Test
+  void testAutoReshardShrinksWithoutContention() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    ShardedCache<Integer, Integer> adaptive = new ShardedCache<>(
+        CacheConfig.builder().maxSize(100_000).build(), processors * 8, false, true);
+    int initial = adaptive.getShardCount();
+
+    for (int i = 0; i < 100_000; i++) {
+      adaptive.put(i % 50_000, i);
+    }
+
+    assertTrue(adaptive.getShardCount() < initial);
+    assertTrue(adaptive.getReshardCount() > 0);
+    assertEquals(50_000, adaptive.size());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ShardedCache<String, String>(
+            CacheConfig.builder().evictionStrategy(CacheConfig.EvictionStrategy.TTL).build(),
+            4, false, true));
+  }
+
+  @Test
+  void testClear() {
+    cache.put("key1", "value1");
+    cache.get("key1");
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getStats().getHitCount());
+  }
+}
@@ -0,0 +1,86 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for StripedL1Cache. */
+class StripedL1CacheTest {
+
+  @Test
+  void testL1HitsAfterFirstRead() {
+    StripedL1Cache<String, String> cache = new StripedL1Cache<>(new LruCache<>(100), 16, 4);
+    cache.put("key", "value");
+
+    assertEquals("value", cache.get("key"));
+    assertEquals("value", cache.get("key"));
+
+    assertEquals(2, cache.getDetailedStats().l1Hits());
+    assertNull(cache.get("missing"));
+    assertEquals(1, cache.getStats().getMissCount());
+  }
+
+  @Test
+  void testStripeCountBoundedByCapacity() {
+    assertEquals(8, new StripedL1Cache<>(new LruCache<String, String>(10), 64, 5).getStripeCount());
+    assertEquals(2, new StripedL1Cache<>(new LruCache<String, String>(10), 3, 16).getStripeCount());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new StripedL1Cache<>(new LruCache<String, String>(10), 0, 4));
+  }
+
+  @Test
+  void testInvalidateAndClearReachOtherThreads() throws Exception {
+    StripedL1Cache<String, String> cache = new StripedL1Cache<>(new LruCache<>(100), 16, 4);
+    ExecutorService reader = Executors.newSingleThreadExecutor();
+    try {
+      cache.put("a", "1");
+      cache.put("b", "2");
+      assertEquals("1", reader.submit(() -> cache.get("a")).get());
+      assertEquals("2", reader.submit(() -> cache.get("b")).get());
+
+      cache.invalidate("a");
+      assertNull(reader.submit(() -> cache.get("a")).get());
+      assertEquals("2", reader.submit(() -> cache.get("b")).get());
+
+      cache.clear();
+      assertNull(reader.submit(() -> cache.get("b")).get());
+    } finally {
+      reader.shutdownNow();
+    }
+  }
+
+  @Test
+  void testManyVirtualThreadsShareBoundedL1() throws Exception {
+    StripedL1Cache<Integer, Integer> cache = new StripedL1Cache<>(new LruCache<>(1000), 64, 4);
+    for (int i = 0; i < 8; i++) {
+      cache.put(i, i);
+    }
+
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int t = 0; t < 10_000; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 8; i++) {
+            assertEquals(i, cache.get(i));
+          }
+        }));
+      }
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+
+    // 8 hot keys fit in every 16-entry stripe, so almost every read is served there despite the thread count
+    assertTrue(cache.getDetailedStats().l1HitRate() > 0.9);
+    assertEquals(0, cache.getStats().getMissCount());
+  }
+}
@@ -0,0 +1,89 @@
+package fr.lirmm.jdm.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ThreadLocalCache coherence across threads. */
+class ThreadLocalCacheTest {
+
+  private ThreadLocalCache<String, String> cache;
+  private ExecutorService reader;
+
+  @BeforeEach
+  void setUp() {
+    cache = new ThreadLocalCache<>(new LruCache<>(100), 10);
+    reader = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    reader.shutdownNow();
+    cache.close();
+  }
+
+  @Test
+  void testInvalidateReachesOtherThreads() throws Exception {
+    cache.put("key", "v1");
+    assertEquals("v1", readOnOtherThread("key"));
+    assertEquals("v1", readOnOtherThread("key"));
+    assertEquals(1, cache.getDetailedStats().l1Hits());
+
+    cache.invalidate("key");
+    assertNull(readOnOtherThread("key"));
+
+    cache.put("key", "v2");
+    assertEquals("v2", readOnOtherThread("key"));
+    assertEquals(1, cache.getStaleL1HitCount());
+  }
+
+  @Test
+  void testClearReachesOtherThreads() throws Exception {
+    cache.put("a", "1");
+    cache.put("b", "2");
+    readOnOtherThread("a");
+    readOnOtherThread("b");
+
+    cache.clear();
+
+    assertNull(readOnOtherThread("a"));
+    assertNull(readOnOtherThread("b"));
+    assertEquals(2, cache.getStaleL1HitCount());
+  }
+
+  @Test
+  void testOverwriteReachesOtherThreads() throws Exception {
+    cache.put("key", "v1");
+    assertEquals("v1", readOnOtherThread("key"));
+
+    cache.put("key", "v2");
+    assertEquals("v2", readOnOtherThread("key"));
+    assertEquals(1, cache.getStaleL1HitCount());
+
+    // The writer keeps its own copy
+    assertEquals("v2", cache.get("key"));
+    assertEquals(1, cache.getDetailedStats().l1Hits());
+  }
+
+  @Test
+  void testUnrelatedKeysStayInL1() throws Exception {
+    cache.put("a", "1");
+    cache.put("b", "2");
+    readOnOtherThread("a");
+    readOnOtherThread("b");
+
+    cache.invalidate("a");
+    assertEquals("2", readOnOtherThread("b"));
+
+    assertEquals(0, cache.getStaleL1HitCount());
+  }
+
+  private String readOnOtherThread(String key) throws Exception {
+    return reader.submit(() -> cache.get(key)).get();
+  }
+}
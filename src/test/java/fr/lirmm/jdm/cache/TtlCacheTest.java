@@ -38,6 +38,22 @@ class TtlCacheTest {
     assertEquals("value1", cache.get("key1"));
   }
 
+  @Test
+  void testResizeEvictsEntriesClosestToExpiry() throws InterruptedException {
+    for (int i = 0; i < 10; i++) {
+      cache.put("key" + i, "value" + i);
+      Thread.sleep(2);
+    }
+
+    cache.resize(4);
+
+    assertEquals(4, cache.size());
+    assertEquals(6, cache.getStats().getEvictionCount());
+    for (int i = 6; i < 10; i++) {
+      assertTrue(cache.containsKey("key" + i));
+    }
+  }
+
   @Test
   void testGetMiss() {
     assertNull(cache.get("nonexistent"));
@@ -0,0 +1,135 @@
+package fr.lirmm.jdm.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/** Tests for GraphTraversal over a mock JDM network. */
+class GraphTraversalTest {
+
+  private MockWebServer mockServer;
+  private JdmClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    // 1 -> 2 (type 6, w 50), 1 -> 3 (type 0, w 10), 2 -> 4 (type 6, w 80), 4 -> 1 (type 6, w 90)
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        String relations = switch (id) {
+          case "1" -> relation(10, 1, 2, 6, 50) + "," + relation(11, 1, 3, 0, 10);
+          case "2" -> relation(12, 2, 4, 6, 80);
+          case "4" -> relation(13, 4, 1, 6, 90);
+          case "99" -> null;
+          default -> "";
+        };
+        if (relations == null) {
+          return new MockResponse().setResponseCode(500);
+        }
+        return new MockResponse()
+            .setBody("{\"nodes\": [], \"relations\": [" + relations + "]}")
+            .setResponseCode(200);
+      }
+    });
+    mockServer.start();
+    client = JdmClient.builder().baseUrl(mockServer.url("/").toString()).lruCache(100).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  @Test
+  void testKHopExpansion() throws Exception {
+    GraphTraversal.Result result =
+        GraphTraversal.builder(client).maxDepth(3).parallelism(2).build().expand(1);
+
+    int[] sorted = result.nodeIds().clone();
+    Arrays.sort(sorted);
+    assertArrayEquals(new int[] {1, 2, 3, 4}, sorted);
+    for (int i = 0; i < result.nodeCount(); i++) {
+      int expectedDepth = result.nodeIds()[i] == 1 ? 0 : result.nodeIds()[i] == 4 ? 2 : 1;
+      assertEquals(expectedDepth, result.depths()[i]);
+    }
+    assertEquals(4, result.relations().size());
+    // Node 1 is reached again through 4 -> 1 but never expanded twice
+    assertEquals(4, mockServer.getRequestCount());
+  }
+
+  @Test
+  void testFiltersByTypeAndWeight() throws Exception {
+    GraphTraversal.Result result =
+        GraphTraversal.builder(client).maxDepth(3).relationTypes(6).minWeight(60).build().expand(1);
+
+    assertArrayEquals(new int[] {1}, result.nodeIds());
+    assertEquals(0, result.relations().size());
+  }
+
+  @Test
+  void testMaxNodesDropsRelationsToUnvisitedNodes() throws Exception {
+    GraphTraversal.Result result =
+        GraphTraversal.builder(client).maxDepth(2).maxNodes(2).build().expand(1);
+
+    assertArrayEquals(new int[] {1, 2}, result.nodeIds());
+    // 1 -> 3 and 2 -> 4 lead past the limit
+    assertEquals(1, result.relations().size());
+    assertEquals(2, result.relations().get(0).getNode2());
+  }
+
+  @Test
+  void testResultEqualityComparesArrayContents() {
+    GraphTraversal.Result result =
+        new GraphTraversal.Result(new int[] {1, 2}, new int[] {0, 1}, List.of(), 1, 1);
+    GraphTraversal.Result same =
+        new GraphTraversal.Result(new int[] {1, 2}, new int[] {0, 1}, List.of(), 1, 1);
+
+    assertEquals(result, same);
+    assertEquals(result.hashCode(), same.hashCode());
+    assertNotEquals(
+        result, new GraphTraversal.Result(new int[] {1, 3}, new int[] {0, 1}, List.of(), 1, 1));
+    assertTrue(result.toString().contains("nodeIds=[1, 2]"));
+  }
+
+  @Test
+  void testCachedNodesAreNotFetchedAgain() throws Exception {
+    GraphTraversal traversal = GraphTraversal.builder(client).maxDepth(2).build();
+    traversal.expand(1);
+    int requests = mockServer.getRequestCount();
+
+    GraphTraversal.Result second = traversal.expand(1);
+
+    assertEquals(requests, mockServer.getRequestCount());
+    assertEquals(0, second.fetches());
+    assertEquals(3, second.cacheHits());
+  }
+
+  @Test
+  void testFetchFailurePropagates() {
+    GraphTraversal traversal = GraphTraversal.builder(client).maxDepth(1).build();
+    assertThrows(JdmApiException.class, () -> traversal.expand(99));
+  }
+
+  private static String relation(int id, int node1, int node2, int type, double weight) {
+    return String.format(
+        "{\"id\": %d, \"node1\": %d, \"node2\": %d, \"type\": %d, \"w\": %s}",
+        id, node1, node2, type, weight);
+  }
+}
@@ -0,0 +1,185 @@
+package fr.lirmm.jdm.client;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/** Tests for invalidation broadcast between clients. */
+class InvalidationBusTest {
+
+  private MockWebServer mockServer;
+  private InMemoryInvalidationBus bus;
+  private JdmClient first;
+  private JdmClient second;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        return new MockResponse()
+            .setBody("{\"id\": " + id + ", \"name\": \"node" + id + "\"}")
+            .setResponseCode(200);
+      }
+    });
+    mockServer.start();
+    bus = new InMemoryInvalidationBus();
+    first = newClient(bus);
+    second = newClient(bus.connect());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    first.close();
+    second.close();
+    mockServer.shutdown();
+  }
+
+  @Test
+  void testInvalidationReachesOtherClient() throws Exception {
+    first.getNodeById(1);
+    second.getNodeById(1);
+    assertEquals(2, mockServer.getRequestCount());
+
+    first.invalidateCacheEntry("node:id:1");
+    await(() -> second.getInvalidationStats().received() == 1);
+
+    second.getNodeById(1);
+    assertEquals(3, mockServer.getRequestCount());
+  }
+
+  @Test
+  void testLateInvalidationKeepsNewerValue() throws Exception {
+    second.getNodeById(1);
+    InMemoryInvalidationBus third = bus.connect();
+
+    // Stamped long before the value was loaded
+    third.publish(List.of(new Invalidation("node:id:1", 1L)));
+    second.getNodeById(1);
+
+    assertEquals(1, mockServer.getRequestCount());
+    assertEquals(1, second.getInvalidationStats().ignoredAsStale());
+    third.close();
+  }
+
+  @Test
+  void testInvalidationsAreCoalescedIntoOneBatch() throws Exception {
+    first.invalidateCacheEntry("node:id:1");
+    first.invalidateCacheEntry("node:id:1");
+    first.invalidateCacheEntry("node:id:2");
+    first.invalidateCacheEntry("node:id:1");
+
+    // The in-memory bus delivers before the sender counts the batch as sent
+    await(() -> first.getInvalidationStats().batchesSent() == 1);
+    assertEquals(2, second.getInvalidationStats().received());
+    InvalidationStats stats = first.getInvalidationStats();
+    assertEquals(4, stats.published());
+    assertEquals(2, stats.coalesced());
+    assertEquals(1, stats.batchesSent());
+  }
+
+  @Test
+  void testClearIsBroadcast() throws Exception {
+    second.getNodeById(1);
+    second.getNodeById(2);
+
+    first.clearCache();
+    await(() -> second.getInvalidationStats().received() == 1);
+
+    assertEquals(0, second.getCacheStats().getSize());
+  }
+
+  @Test
+  void testTcpBusDeliversBatches() throws Exception {
+    String a = freeAddress();
+    String b = freeAddress();
+    BlockingQueue<List<Invalidation>> delivered = new LinkedBlockingQueue<>();
+    try (TcpInvalidationBus sender = new TcpInvalidationBus(a, List.of(a, b));
+        TcpInvalidationBus receiver = new TcpInvalidationBus(b, List.of(a, b))) {
+      receiver.subscribe(delivered::add);
+      List<Invalidation> batch =
+          List.of(new Invalidation(null, 5L), new Invalidation("node:name:chat", 7L));
+
+      sender.publish(batch);
+
+      assertEquals(batch, delivered.poll(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void testTcpBusDoesNotWaitForSlowMember() throws Exception {
+    String a = freeAddress();
+    try (ServerSocket slow = new ServerSocket(0)) {
+      // Closed within the timeout below, so it is not a try-with-resources resource
+      TcpInvalidationBus sender =
+          new TcpInvalidationBus(a, List.of(a, "127.0.0.1:" + slow.getLocalPort()));
+      try {
+        // Accepts the connection but never reads, so the sender's writes soon block
+        Thread.ofVirtual().start(() -> {
+          try {
+            slow.accept();
+          } catch (IOException e) {
+            // Closed by the test
+          }
+        });
+        List<Invalidation> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+          batch.add(new Invalidation("node:name:" + "x".repeat(100) + i, i));
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+          for (int i = 0; i < 200; i++) {
+            sender.publish(batch);
+          }
+          sender.close();
+        });
+      } finally {
+        sender.close();
+      }
+    }
+  }
+
+  private JdmClient newClient(InvalidationBus invalidationBus) {
+    return JdmClient.builder()
+        .baseUrl(mockServer.url("/").toString())
+        .lruCache(100)
+        .invalidationBus(invalidationBus)
+        .invalidationBatching(64, Duration.ofMillis(50))
+        .build();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+      Thread.sleep(5);
+    }
+  }
+
+  private static String freeAddress() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return "127.0.0.1:" + socket.getLocalPort();
+    }
+  }
+}
@@ -1,12 +1,18 @@
 package fr.lirmm.jdm.client;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +24,7 @@ import fr.lirmm.jdm.client.model.PublicNodeType;
 import fr.lirmm.jdm.client.model.RelationsResponse;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
 
 /** Integration tests for JdmClient with caching. */
 class JdmClientTest {
@@ -173,6 +180,269 @@ class JdmClientTest {
     assertEquals(100, response.getRelations().get(0).getId());
   }
 
+  @Test
+  void testNodeNamesAreInternedAcrossResponses() throws JdmApiException {
+    String jsonResponse = """
+        {
+          "nodes": [{"id": 1, "name": "animal", "type": 1}],
+          "relations": []
+        }
+        """;
+    mockServer.enqueue(new MockResponse().setBody(jsonResponse).setResponseCode(200));
+    mockServer.enqueue(new MockResponse().setBody(jsonResponse).setResponseCode(200));
+
+    RelationsResponse from = client.getRelationsFrom("chat");
+    RelationsResponse to = client.getRelationsTo("chien");
+
+    assertSame(from.getNodes().get(0).getName(), to.getNodes().get(0).getName());
+    assertTrue(client.getInternerStats().getHitCount() >= 1);
+  }
+
+  @Test
+  void testNeighbourNodesServedFromNodeStore() throws JdmApiException {
+    String jsonResponse = """
+        {
+          "nodes": [
+            {"id": 1, "name": "chat", "type": 1},
+            {"id": 2, "name": "felin", "type": 1}
+          ],
+          "relations": [{"id": 100, "node1": 1, "node2": 2, "type": 6, "w": 80.0}]
+        }
+        """;
+    mockServer.enqueue(new MockResponse().setBody(jsonResponse).setResponseCode(200));
+
+    RelationsResponse response = client.getRelationsFrom("chat");
+    PublicNode byId = client.getNodeById(2);
+    PublicNode byName = client.getNodeByName("felin");
+
+    assertEquals(1, mockServer.getRequestCount());
+    assertSame(response.getNodes().get(1), byId);
+    assertSame(byId, byName);
+    assertEquals(2, client.getNodeStoreStats().getHitCount());
+  }
+
+  @Test
+  void testNodeStoreKeepsNewestNodeData() throws JdmApiException {
+    mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("""
+        {
+          "nodes": [{"id": 1, "name": "chat", "w": 10}, {"id": 2, "name": "felin", "w": 10}],
+          "relations": []
+        }
+        """));
+    mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("""
+        {
+          "nodes": [{"id": 2, "name": "felin", "w": 25}, {"id": 3, "name": "lion", "w": 5}],
+          "relations": []
+        }
+        """));
+
+    client.getRelationsFrom("chat");
+    RelationsResponse newer = client.getRelationsTo("felin");
+    PublicNode felin = client.getNodeById(2);
+
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(25, newer.getNodes().get(0).getWeight());
+    assertSame(newer.getNodes().get(0), felin);
+  }
+
+  @Test
+  void testRelationsFromToAnsweredFromRelationIndex() throws JdmApiException {
+    JdmClient indexedClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .lruCache(10)
+            .relationIndexSize(100)
+            .build();
+    String jsonResponse = """
+        {
+          "nodes": [
+            {"id": 1, "name": "chat", "type": 1},
+            {"id": 2, "name": "felin", "type": 1},
+            {"id": 3, "name": "souris", "type": 1}
+          ],
+          "relations": [
+            {"id": 100, "node1": 1, "node2": 2, "type": 6, "w": 80.0},
+            {"id": 101, "node1": 1, "node2": 2, "type": 0, "w": 40.0},
+            {"id": 102, "node1": 1, "node2": 3, "type": 0, "w": 30.0}
+          ]
+        }
+        """;
+    mockServer.enqueue(new MockResponse().setBody(jsonResponse).setResponseCode(200));
+
+    indexedClient.getRelationsFrom("chat");
+    RelationsResponse between = indexedClient.getRelationsFromTo("chat", "felin");
+    RelationsResponse none = indexedClient.getRelationsFromTo("chat", "chat");
+
+    assertEquals(1, mockServer.getRequestCount());
+    assertEquals(2, between.getRelations().size());
+    assertEquals(2, between.getNodes().size());
+    assertTrue(none.getRelations().isEmpty());
+    assertEquals(2, indexedClient.getRelationIndexStats().getHitCount());
+
+    // Invalidating the neighbourhood's response drops it from the index
+    indexedClient.invalidateCacheEntry("relations:from:chat");
+    mockServer.enqueue(new MockResponse().setBody("""
+        {"nodes": [], "relations": []}
+        """).setResponseCode(200));
+    assertTrue(indexedClient.getRelationsFromTo("chat", "souris").getRelations().isEmpty());
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(1, indexedClient.getRelationIndexStats().getMissCount());
+  }
+
+  @Test
+  void testTopNeighbourRelationsArePrefetched() throws Exception {
+    JdmClient prefetchingClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .lruCache(10)
+            .prefetchNeighbours(1)
+            .build();
+    mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("""
+        {
+          "nodes": [],
+          "relations": [
+            {"id": 100, "node1": 1, "node2": 2, "type": 0, "w": 90.0},
+            {"id": 101, "node1": 1, "node2": 3, "type": 0, "w": 20.0}
+          ]
+        }
+        """));
+    mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("""
+        {"nodes": [], "relations": []}
+        """));
+
+    prefetchingClient.getRelationsFromById(1);
+    assertTrue(mockServer.takeRequest().getPath().endsWith("/v0/relations/from_by_id/1"));
+    assertTrue(mockServer.takeRequest().getPath().endsWith("/v0/relations/from_by_id/2"));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (prefetchingClient.getCacheStats().getSize() < 2
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    RelationsResponse neighbour = prefetchingClient.getRelationsFromById(2);
+
+    assertNotNull(neighbour);
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(1, prefetchingClient.getPrefetchStats().issued());
+    assertEquals(1, prefetchingClient.getPrefetchStats().hits());
+
+    // Once closed, the client no longer prefetches
+    prefetchingClient.close();
+    mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("""
+        {
+          "nodes": [],
+          "relations": [{"id": 102, "node1": 4, "node2": 5, "type": 0, "w": 50.0}]
+        }
+        """));
+    prefetchingClient.getRelationsFromById(4);
+    assertEquals(1, prefetchingClient.getPrefetchStats().issued());
+    assertEquals(1, prefetchingClient.getPrefetchStats().dropped());
+  }
+
+  @Test
+  void testHttpStatsAndTuningOptions() throws JdmApiException {
+    JdmClient tunedClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .maxConcurrentRequests(32, 16)
+            .connectionPool(8, Duration.ofSeconds(30))
+            .http2(false)
+            .timeouts(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ZERO)
+            .build();
+    mockServer.enqueue(new MockResponse().setBody("{\"id\": 1}").setResponseCode(200));
+    mockServer.enqueue(new MockResponse().setBody("{\"id\": 2}").setResponseCode(200));
+
+    tunedClient.getNodeById(1);
+    tunedClient.getNodeById(2);
+
+    HttpStats stats = tunedClient.getHttpStats();
+    assertEquals(2, stats.calls());
+    assertEquals(0, stats.failedCalls());
+    // The second call reuses the pooled connection
+    assertEquals(1, stats.connectionsOpened());
+    assertTrue(stats.totalQueueNanos() > 0);
+    assertThrows(
+        IllegalArgumentException.class, () -> JdmClient.builder().maxConcurrentRequests(0, 1));
+  }
+
+  @Test
+  void testExpiredEntryRevalidatedWithEtag() throws Exception {
+    JdmClient revalidatingClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .ttlCache(100, Duration.ofMillis(200))
+            .conditionalRevalidation(true)
+            .build();
+    String body = "{\"id\": 7, \"name\": \"chat\u00e9\", \"type\": 1, \"w\": 10.0}";
+    mockServer.enqueue(
+        new MockResponse().setBody(body).setHeader("ETag", "\"v1\"").setResponseCode(200));
+    mockServer.enqueue(new MockResponse().setResponseCode(304));
+
+    PublicNode first = revalidatingClient.getNodeById(7);
+    Thread.sleep(300);
+    // Expired, but still held by the cache for revalidation
+    PublicNode second = revalidatingClient.getNodeById(7);
+
+    assertSame(first, second);
+    mockServer.takeRequest();
+    assertEquals("\"v1\"", mockServer.takeRequest().getHeader("If-None-Match"));
+    RevalidationStats stats = revalidatingClient.getRevalidationStats();
+    assertEquals(1, stats.conditionalRequests());
+    assertEquals(1, stats.notModified());
+    assertEquals(body.getBytes(StandardCharsets.UTF_8).length, stats.bytesSaved());
+
+    // The 304 refreshed the entry, so it is served from the cache again
+    revalidatingClient.getNodeById(7);
+    assertEquals(2, mockServer.getRequestCount());
+  }
+
+  @Test
+  void testGzipResponseByteCounts() throws Exception {
+    String body = "{\"id\": 7, \"name\": \"" + "chat".repeat(200) + "\"}";
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+      out.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    mockServer.enqueue(
+        new MockResponse()
+            .setBody(new Buffer().write(gzipped.toByteArray()))
+            .setHeader("Content-Encoding", "gzip")
+            .setResponseCode(200));
+
+    PublicNode node = client.getNodeById(7);
+
+    assertEquals(7, node.getId());
+    assertEquals("gzip", mockServer.takeRequest().getHeader("Accept-Encoding"));
+    HttpStats stats = client.getHttpStats();
+    assertEquals(gzipped.size(), stats.responseWireBytes());
+    assertEquals(body.length(), stats.responseDecodedBytes());
+    assertTrue(stats.compressionRatio() > 5);
+  }
+
+  @Test
+  void testCompressedCacheServesColdEntries() throws JdmApiException {
+    JdmClient compressedClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .lruCache(100)
+            .compressedCache(1)
+            .nodeStoreSize(0)
+            .build();
+    mockServer.enqueue(
+        new MockResponse().setBody("{\"id\": 1, \"name\": \"chat\"}").setResponseCode(200));
+    mockServer.enqueue(
+        new MockResponse().setBody("{\"id\": 2, \"name\": \"chien\"}").setResponseCode(200));
+
+    compressedClient.getNodeById(1);
+    compressedClient.getNodeById(2);
+    // Node 1 was compressed when node 2 arrived; it is decoded without a new request
+    PublicNode node = compressedClient.getNodeById(1);
+
+    assertEquals("chat", node.getName());
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(1, compressedClient.getCacheStats().getHitCount());
+  }
+
   @Test
   void testApiError() {
     mockServer.enqueue(new MockResponse().setResponseCode(404).setBody("Not found"));
@@ -180,6 +450,50 @@ class JdmClientTest {
     assertThrows(JdmApiException.class, () -> client.getNodeById(999));
   }
 
+  @Test
+  void testNegativeCaching() throws Exception {
+    JdmClient negativeClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .negativeCaching(100, Duration.ofMillis(300))
+            .build();
+    mockServer.enqueue(new MockResponse().setResponseCode(404).setBody("Not found"));
+    mockServer.enqueue(new MockResponse().setBody("null").setResponseCode(200));
+
+    for (int i = 0; i < 3; i++) {
+      assertThrows(JdmNotFoundException.class, () -> negativeClient.getNodeByName("chta"));
+      assertNull(negativeClient.getNodeById(999));
+    }
+    assertEquals(2, mockServer.getRequestCount());
+    CacheStats stats = negativeClient.getNegativeCacheStats();
+    assertEquals(4, stats.getHitCount());
+    assertEquals(2, stats.getSize());
+
+    // Absent keys are looked up again once their TTL expires
+    Thread.sleep(400);
+    mockServer.enqueue(new MockResponse().setBody("{\"id\": 1, \"name\": \"chta\"}"));
+    assertEquals(1, negativeClient.getNodeByName("chta").getId());
+    assertEquals(3, mockServer.getRequestCount());
+  }
+
+  @Test
+  void testTransientErrorsAreNotNegativelyCached() throws JdmApiException {
+    JdmClient negativeClient =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .negativeCaching(100, Duration.ofMinutes(1))
+            .build();
+    mockServer.enqueue(new MockResponse().setResponseCode(503));
+    mockServer.enqueue(new MockResponse().setBody("{\"id\": 123, \"name\": \"chat\"}"));
+
+    JdmApiException e =
+        assertThrows(JdmApiException.class, () -> negativeClient.getNodeById(123));
+    assertFalse(e instanceof JdmNotFoundException);
+    assertEquals("chat", negativeClient.getNodeById(123).getName());
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(0, negativeClient.getNegativeCacheStats().getHitCount());
+  }
+
   @Test
   void testClearCache() throws JdmApiException {
     String jsonResponse = "{\"id\": 123, \"name\": \"test\"}";
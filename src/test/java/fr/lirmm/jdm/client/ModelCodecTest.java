@@ -0,0 +1,112 @@
+package fr.lirmm.jdm.client;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import fr.lirmm.jdm.client.model.PublicNode;
+import fr.lirmm.jdm.client.model.PublicNodeType;
+import fr.lirmm.jdm.client.model.PublicRelation;
+import fr.lirmm.jdm.client.model.RelationsResponse;
+
+/** Unit tests for ModelCodec. */
+class ModelCodecTest {
+
+  private final ModelCodec codec = new ModelCodec();
+
+  @Test
+  void testRelationsResponseRoundTrip() {
+    PublicNode node = new PublicNode();
+    node.setId(150);
+    node.setName("chat élégant 🐱");
+    node.setType(1);
+    node.setWeight(-42);
+    node.setLevel(0.5);
+    node.setCreationDate(LocalDate.of(2007, 3, 14));
+    node.setTouchDate(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 600));
+    PublicRelation relation = new PublicRelation();
+    relation.setId(Integer.MAX_VALUE);
+    relation.setNode1(150);
+    relation.setNode2(Integer.MIN_VALUE);
+    relation.setType(6);
+    relation.setWeight(25.0);
+    RelationsResponse response = new RelationsResponse();
+    response.setNodes(List.of(node));
+    response.setRelations(List.of(relation));
+
+    RelationsResponse decoded = (RelationsResponse) roundTrip(response);
+
+    PublicNode decodedNode = decoded.getNodes().get(0);
+    assertEquals(node.getId(), decodedNode.getId());
+    assertEquals(node.getName(), decodedNode.getName());
+    assertEquals(node.getWeight(), decodedNode.getWeight());
+    assertEquals(node.getLevel(), decodedNode.getLevel());
+    assertEquals(node.getCreationDate(), decodedNode.getCreationDate());
+    assertEquals(node.getTouchDate(), decodedNode.getTouchDate());
+    assertNull(decodedNode.getC());
+    PublicRelation decodedRelation = decoded.getRelations().get(0);
+    assertEquals(relation.getId(), decodedRelation.getId());
+    assertEquals(relation.getNode2(), decodedRelation.getNode2());
+    assertEquals(relation.getWeight(), decodedRelation.getWeight());
+    assertNull(decodedRelation.getC());
+  }
+
+  @Test
+  void testListRoundTripAndSize() throws Exception {
+    PublicNodeType nodeType = new PublicNodeType();
+    nodeType.setId(1);
+    nodeType.setName("n_term");
+    nodeType.setHelp("Un terme");
+    List<PublicNodeType> types = List.of(nodeType, nodeType);
+
+    @SuppressWarnings("unchecked")
+    List<PublicNodeType> decoded = (List<PublicNodeType>) roundTrip(types);
+
+    assertEquals(2, decoded.size());
+    assertEquals("Un terme", decoded.get(1).getHelp());
+    String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(types);
+    assertTrue(codec.encodedSize(types) * 2 < json.length());
+  }
+
+  @Test
+  void testEncodesIntoDirectBuffer() {
+    PublicNode node = new PublicNode();
+    node.setId(7);
+    node.setName("chien");
+    ByteBuffer buffer = ByteBuffer.allocateDirect(codec.encodedSize(node));
+    codec.encode(node, buffer);
+    buffer.flip();
+
+    assertEquals("chien", ((PublicNode) codec.decode(buffer)).getName());
+  }
+
+  @Test
+  void testRejectsUnsupportedAndTruncatedValues() {
+    assertThrows(IllegalArgumentException.class, () -> codec.encodedSize("not a model"));
+    PublicNode node = new PublicNode();
+    node.setName("chat");
+    ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(node));
+    codec.encode(node, buffer);
+    buffer.flip().limit(buffer.limit() - 1);
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer));
+  }
+
+  private Object roundTrip(Object value) {
+    int size = codec.encodedSize(value);
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    codec.encode(value, buffer);
+    assertEquals(size, buffer.position());
+    buffer.flip();
+    return codec.decode(buffer);
+  }
+}
@@ -0,0 +1,120 @@
+package fr.lirmm.jdm.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/** Unit tests for NameFilter. */
+class NameFilterTest {
+
+  private static final int NAMES = 20_000;
+
+  @TempDir Path dir;
+
+  @Test
+  void testNoFalseNegativesAndReportedRate() throws Exception {
+    NameFilter filter = build(0.01);
+
+    for (int i = 0; i < NAMES; i++) {
+      assertTrue(filter.mightContain("mot" + i));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("absent" + i)) {
+        falsePositives++;
+      }
+    }
+
+    double reported = filter.getFalsePositiveRate();
+    assertEquals(0.01, reported, 0.002);
+    assertTrue(falsePositives < 2 * reported * 100_000, falsePositives + " false positives");
+    NameFilterStats stats = filter.getStats();
+    assertEquals(NAMES + falsePositives, stats.accepted());
+    assertEquals(100_000 - falsePositives, stats.rejected());
+  }
+
+  @Test
+  void testConcurrentLookups() throws Exception {
+    NameFilter filter = build(0.001);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        results.add(executor.submit(() -> {
+          boolean all = true;
+          for (int i = 0; i < NAMES; i++) {
+            all &= filter.mightContain("mot" + i);
+          }
+          return all;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(4L * NAMES, filter.getStats().accepted());
+  }
+
+  @Test
+  void testRejectsInvalidFiles() throws IOException {
+    Path garbage = dir.resolve("garbage");
+    Files.write(garbage, new byte[64]);
+
+    assertThrows(IOException.class, () -> NameFilter.open(garbage));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> NameFilter.build(dir.resolve("names"), dir.resolve("filter"), 1.5));
+  }
+
+  @Test
+  void testClientSkipsRejectedNames() throws Exception {
+    MockWebServer mockServer = new MockWebServer();
+    mockServer.start();
+    try (JdmClient client =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .nameFilter(build(0.001))
+            .build()) {
+      mockServer.enqueue(new MockResponse().setBody("{\"id\": 7, \"name\": \"mot7\"}"));
+
+      assertEquals(7, client.getNodeByName("mot7").getId());
+      assertThrows(JdmNotFoundException.class, () -> client.getNodeByName("mto7"));
+      assertThrows(JdmNotFoundException.class, () -> client.getRelationsFrom("mto7"));
+
+      assertEquals(1, mockServer.getRequestCount());
+      assertEquals(1, client.getCacheStats().getMissCount());
+      assertEquals(2, client.getNameFilterStats().rejected());
+    } finally {
+      mockServer.shutdown();
+    }
+  }
+
+  private NameFilter build(double falsePositiveRate) throws IOException {
+    Path names = dir.resolve("names.txt");
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < NAMES; i++) {
+      lines.add("mot" + i);
+    }
+    lines.add("");
+    Files.write(names, lines);
+    Path filter = dir.resolve("names.filter");
+    NameFilter.build(names, filter, falsePositiveRate);
+    return NameFilter.open(filter);
+  }
+}
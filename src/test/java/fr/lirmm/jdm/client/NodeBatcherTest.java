@@ -0,0 +1,140 @@
+package fr.lirmm.jdm.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import fr.lirmm.jdm.client.model.PublicNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/** Unit tests for NodeBatcher. */
+class NodeBatcherTest {
+
+  @Test
+  void testFullBatchIsDispatchedAndDuplicatesCoalesced() throws Exception {
+    List<Integer> fetched = new CopyOnWriteArrayList<>();
+    NodeBatcher batcher =
+        new NodeBatcher(
+            id -> {
+              fetched.add(id);
+              return CompletableFuture.completedFuture(node(id));
+            },
+            4,
+            Duration.ofSeconds(30));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<PublicNode>> results = new ArrayList<>();
+      for (int id : new int[] {0, 0, 1, 2}) {
+        results.add(executor.submit(() -> batcher.get(id)));
+      }
+      while (batcher.getStats().requested() < 4) {
+        Thread.sleep(1);
+      }
+
+      // The fourth distinct id fills the batch, long before the linger expires
+      assertEquals(3, batcher.get(3).getId());
+      assertEquals(0, results.get(0).get().getId());
+      assertEquals(0, results.get(1).get().getId());
+      assertEquals(2, results.get(3).get().getId());
+    } finally {
+      executor.shutdownNow();
+      batcher.close();
+    }
+
+    assertEquals(List.of(0, 1, 2, 3), fetched.stream().sorted().toList());
+    NodeBatchStats stats = batcher.getStats();
+    assertEquals(5, stats.requested());
+    assertEquals(1, stats.coalesced());
+    assertEquals(1, stats.batches());
+    assertEquals(4.0, stats.averageBatchSize());
+  }
+
+  @Test
+  void testLingerDispatchesPartialBatch() throws JdmApiException {
+    try (NodeBatcher batcher =
+        new NodeBatcher(
+            id -> CompletableFuture.completedFuture(node(id)), 100, Duration.ofMillis(20))) {
+      assertEquals(1, batcher.get(1).getId());
+
+      NodeBatchStats stats = batcher.getStats();
+      assertEquals(1, stats.batches());
+      assertTrue(stats.averageLingerMillis() >= 15, stats.averageLingerMillis() + " ms");
+    }
+  }
+
+  @Test
+  void testFailuresReachTheCaller() throws JdmApiException {
+    try (NodeBatcher batcher =
+        new NodeBatcher(
+            id ->
+                id == 404
+                    ? CompletableFuture.failedFuture(new JdmNotFoundException("404"))
+                    : CompletableFuture.completedFuture(null),
+            10,
+            Duration.ZERO)) {
+      assertThrows(JdmNotFoundException.class, () -> batcher.get(404));
+      assertNull(batcher.get(1));
+    }
+  }
+
+  @Test
+  void testClientBatchesConcurrentMisses() throws Exception {
+    MockWebServer mockServer = new MockWebServer();
+    mockServer.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            String id = path.substring(path.lastIndexOf('/') + 1);
+            return new MockResponse().setBody("{\"id\": " + id + ", \"name\": \"n" + id + "\"}");
+          }
+        });
+    mockServer.start();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try (JdmClient client =
+        JdmClient.builder()
+            .baseUrl(mockServer.url("/").toString())
+            .nodeBatching(16, Duration.ofMillis(200))
+            .build()) {
+      List<Future<PublicNode>> results = new ArrayList<>();
+      for (int id = 1; id <= 8; id++) {
+        int nodeId = id;
+        results.add(executor.submit(() -> client.getNodeById(nodeId)));
+      }
+      for (int id = 1; id <= 8; id++) {
+        assertEquals("n" + id, results.get(id - 1).get().getName());
+      }
+
+      assertEquals(8, mockServer.getRequestCount());
+      NodeBatchStats stats = client.getNodeBatchStats();
+      assertEquals(8, stats.requested());
+      assertTrue(stats.batches() < 8, stats.batches() + " batches");
+      // Fetched nodes are cached as usual
+      assertEquals("n1", client.getNodeById(1).getName());
+      assertEquals(8, client.getNodeBatchStats().requested());
+    } finally {
+      executor.shutdownNow();
+      mockServer.shutdown();
+    }
+  }
+
+  private static PublicNode node(int id) {
+    PublicNode node = new PublicNode();
+    node.setId(id);
+    return node;
+  }
+}
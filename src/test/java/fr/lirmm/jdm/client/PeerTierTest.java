@@ -0,0 +1,200 @@
+package fr.lirmm.jdm.client;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/** Tests for the peer tier with several clients on loopback. */
+class PeerTierTest {
+
+  private MockWebServer mockServer;
+  private final List<JdmClient> clients = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        if (id.equals("404")) {
+          return new MockResponse().setResponseCode(404);
+        }
+        return new MockResponse()
+            .setBody("{\"id\": " + id + ", \"name\": \"node" + id + "\"}")
+            .setResponseCode(200);
+      }
+    });
+    mockServer.start();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    clients.forEach(JdmClient::close);
+    mockServer.shutdown();
+  }
+
+  @Test
+  void testEachKeyFetchedUpstreamOnceAcrossPeers() throws Exception {
+    List<String> members = List.of(freeAddress(), freeAddress(), freeAddress());
+    for (String self : members) {
+      clients.add(newClient(self, members));
+    }
+
+    for (JdmClient client : clients) {
+      for (int id = 1; id <= 30; id++) {
+        assertEquals("node" + id, client.getNodeById(id).getName());
+      }
+    }
+
+    assertEquals(30, mockServer.getRequestCount());
+    long remote = 0;
+    long served = 0;
+    for (JdmClient client : clients) {
+      remote += client.getPeerStats().remoteFetches();
+      served += client.getPeerStats().servedToPeers();
+      assertEquals(0, client.getPeerStats().remoteFailures());
+    }
+    // Each of the 3 clients misses all 30 keys; 30 are owned locally, 60 come from peers
+    assertEquals(60, remote);
+    assertEquals(60, served);
+  }
+
+  @Test
+  void testUnreachablePeerFallsBackToApi() throws Exception {
+    String self = freeAddress();
+    List<String> members = List.of(self, freeAddress());
+    JdmClient client = newClient(self, members);
+    clients.add(client);
+
+    for (int id = 1; id <= 20; id++) {
+      assertEquals("node" + id, client.getNodeById(id).getName());
+    }
+
+    assertEquals(20, mockServer.getRequestCount());
+    assertTrue(client.getPeerStats().remoteFailures() > 0);
+  }
+
+  @Test
+  void testOwnerErrorsPropagate() throws Exception {
+    List<String> members = List.of(freeAddress(), freeAddress());
+    for (String self : members) {
+      clients.add(newClient(self, members));
+    }
+
+    for (JdmClient client : clients) {
+      JdmApiException e = assertThrows(JdmApiException.class, () -> client.getNodeById(404));
+      assertTrue(e.getMessage().contains("404"));
+    }
+    // Failures are not cached, so each call reaches the API once, through the owner
+    assertEquals(2, mockServer.getRequestCount());
+    assertEquals(0, clients.get(0).getPeerStats().remoteFailures());
+  }
+
+  @Test
+  void testOwnerDerivesRequestFromKey() throws Exception {
+    String self = freeAddress();
+    clients.add(newClient(self, List.of(self)));
+
+    try (Socket socket = new Socket()) {
+      socket.connect(PeerTier.parseAddress(self), 1_000);
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+
+      // Keys that do not name a response of the requested type are refused without a fetch
+      assertEquals(1, request(out, in, "node:id:1@evil.host", ResponseType.NODE));
+      in.readUTF();
+      assertEquals(1, request(out, in, "node:id:7", ResponseType.RELATIONS));
+      in.readUTF();
+      assertEquals(0, mockServer.getRequestCount());
+
+      assertEquals(0, request(out, in, "node:id:7", ResponseType.NODE));
+      assertEquals("/v0/node_by_id/7", mockServer.takeRequest().getPath().replace("//", "/"));
+    }
+  }
+
+  @Test
+  void testConnectionsFromNonMembersAreRejected() throws Exception {
+    String self = "127.0.0.2:" + freeAddress().substring("127.0.0.1:".length());
+    clients.add(newClient(self, List.of(self)));
+
+    try (Socket socket = new Socket()) {
+      try {
+        socket.bind(new InetSocketAddress("127.0.0.3", 0));
+      } catch (IOException e) {
+        assumeTrue(false, "127.0.0.3 is not a local address on this platform");
+      }
+      socket.connect(PeerTier.parseAddress(self), 1_000);
+      socket.setSoTimeout(5_000);
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+
+      assertThrows(IOException.class, () -> request(out, in, "node:id:7", ResponseType.NODE));
+      assertEquals(0, mockServer.getRequestCount());
+    }
+  }
+
+  @Test
+  void testRingSpreadsKeysEvenly() {
+    List<String> members = List.of("a:1", "b:1", "c:1", "d:1");
+    ConsistentHashRing ring = new ConsistentHashRing(members, 160);
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 40_000; i++) {
+      counts.merge(ring.ownerOf("node:id:" + i), 1, Integer::sum);
+    }
+
+    for (String member : members) {
+      int count = counts.getOrDefault(member, 0);
+      assertTrue(count > 7_000 && count < 13_000, member + " owns " + count);
+    }
+    assertThrows(
+        IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a", "a"), 1));
+  }
+
+  private JdmClient newClient(String self, List<String> members) {
+    return JdmClient.builder()
+        .baseUrl(mockServer.url("/").toString())
+        .lruCache(100)
+        .nodeStoreSize(0)
+        .peers(self, members)
+        .build();
+  }
+
+  /** Sends a raw peer request and returns the response status. */
+  private static byte request(
+      DataOutputStream out, DataInputStream in, String key, ResponseType type)
+      throws IOException {
+    out.writeByte(1);
+    out.writeUTF(key);
+    out.writeByte(type.ordinal());
+    out.flush();
+    return in.readByte();
+  }
+
+  private static String freeAddress() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return "127.0.0.1:" + socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package fr.lirmm.jdm.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for Prefetcher. */
+class PrefetcherTest {
+
+  @Test
+  void testClearedPrefetchCanBeScheduledAgain() throws Exception {
+    try (Prefetcher prefetcher = new Prefetcher(1, 10)) {
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch running = new CountDownLatch(2);
+      // Occupy both pool threads so that the next prefetch stays queued
+      for (String key : new String[] {"busy1", "busy2"}) {
+        prefetcher.schedule(key, () -> {
+          running.countDown();
+          await(release);
+        });
+      }
+      assertTrue(running.await(5, TimeUnit.SECONDS));
+      prefetcher.schedule("queued", () -> {});
+
+      prefetcher.clear();
+      release.countDown();
+
+      CountDownLatch loaded = new CountDownLatch(1);
+      prefetcher.schedule("queued", loaded::countDown);
+      assertTrue(loaded.await(5, TimeUnit.SECONDS));
+      assertEquals(1, prefetcher.getStats().issued());
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}